@@ -6,6 +6,7 @@ package mockit;
 
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.function.*;
 import java.util.regex.*;
 import javax.annotation.*;
 
@@ -449,6 +450,27 @@ class Invocations
       return null;
    }
 
+   /**
+    * Captures the argument value passed into the associated expectation parameter, for each invocation that matches the expectation when
+    * the tested code is exercised, handing it to the given consumer as soon as it gets matched.
+    * Unlike {@link #withCapture(List)}, captured values are not kept, so this is preferable when a large number of invocations is expected;
+    * the consumer can inspect each value, or fold it into some aggregate result.
+    * Apart from capturing received argument values, this method has the same effect as the {@link #any} argument matcher.
+    * <p>
+    * The same rules about mixing argument matchers with given values described for {@link #withCapture(List)} apply here.
+    *
+    * @param consumerForMultipleInvocations consumer to which the arguments received by matching invocations will be passed
+    *
+    * @return the default value for type <code>T</code>
+    *
+    * @see #withCapture(List)
+    */
+   @Nullable
+   protected final <T> T withCapture(@Nonnull Consumer<? super T> consumerForMultipleInvocations) {
+      addMatcher(new CaptureMatcher<T>(consumerForMultipleInvocations));
+      return null;
+   }
+
    /**
     * When passed as argument for an expectation, creates a new matcher that will check if the given value is
     * {@link Object#equals(Object) equal} to the corresponding argument received by a matching invocation.
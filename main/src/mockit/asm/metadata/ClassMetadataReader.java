@@ -280,7 +280,7 @@ public final class ClassMetadataReader extends ObjectWithAttributes
 
          if (attributeOwner != null) {
             if (method != null) {
-               method.readAttributes(attributeName, codeIndex);
+               readMethodAttribute(method, attributeName, codeIndex);
             }
 
             if (readAnnotations && "RuntimeVisibleAnnotations".equals(attributeName)) {
@@ -365,7 +365,7 @@ public final class ClassMetadataReader extends ObjectWithAttributes
       return codeIndex;
    }
 
-   public final class MethodInfo extends MemberInfo {
+   public static final class MethodInfo extends MemberInfo {
       @Nullable public String[] parameters;
 
       MethodInfo(int accessFlags, @Nonnull String name, @Nonnull String desc, @Nonnegative int attributeCount) {
@@ -374,158 +374,158 @@ public final class ClassMetadataReader extends ObjectWithAttributes
 
       public boolean isMethod() { return name.charAt(0) != '<'; }
       public boolean isConstructor() { return "<init>".equals(name); }
+   }
 
-      void readAttributes(@Nonnull String attributeName, @Nonnegative int codeIndex) {
-         assert attributesToRead != null;
+   private void readMethodAttribute(@Nonnull MethodInfo method, @Nonnull String attributeName, @Nonnegative int codeIndex) {
+      assert attributesToRead != null;
 
-         if ("Code".equals(attributeName)) {
-            if (attributesToRead.contains(Attribute.Parameters)) {
-               readParameters(codeIndex);
-            }
+      if ("Code".equals(attributeName)) {
+         if (attributesToRead.contains(Attribute.Parameters)) {
+            readParameters(method, codeIndex);
          }
-         else if ("Signature".equals(attributeName)) {
-            if (attributesToRead.contains(Attribute.Signature)) {
-               readSignature(codeIndex);
-            }
+      }
+      else if ("Signature".equals(attributeName)) {
+         if (attributesToRead.contains(Attribute.Signature)) {
+            readSignature(method, codeIndex);
          }
       }
+   }
 
-      private void readParameters(@Nonnegative int codeIndex) {
-         codeIndex += 4;
+   private void readParameters(@Nonnull MethodInfo method, @Nonnegative int codeIndex) {
+      codeIndex += 4;
 
-         int codeLength = readInt(codeIndex);
-         codeIndex += 4 + codeLength;
+      int codeLength = readInt(codeIndex);
+      codeIndex += 4 + codeLength;
 
-         int exceptionTableLength = readUnsignedShort(codeIndex);
-         codeIndex += 2 + 8 * exceptionTableLength;
+      int exceptionTableLength = readUnsignedShort(codeIndex);
+      codeIndex += 2 + 8 * exceptionTableLength;
 
-         int attributeCount = readUnsignedShort(codeIndex);
+      int attributeCount = readUnsignedShort(codeIndex);
+      codeIndex += 2;
+
+      readParameters(method, attributeCount, codeIndex);
+   }
+
+   private void readParameters(@Nonnull MethodInfo method, @Nonnegative int attributeCount, @Nonnegative int codeIndex) {
+      for (int i = 0; i < attributeCount; i++) {
+         int cpNameIndex = readUnsignedShort(codeIndex);
          codeIndex += 2;
+         String attributeName = getString(cpNameIndex);
+
+         int attributeLength = readInt(codeIndex);
+         codeIndex += 4;
+
+         if ("LocalVariableTable".equals(attributeName)) {
+            method.parameters = readParametersFromLocalVariableTable(method, codeIndex);
+            break;
+         }
 
-         readParameters(attributeCount, codeIndex);
+         codeIndex += attributeLength;
       }
+   }
 
-      private void readParameters(@Nonnegative int attributeCount, @Nonnegative int codeIndex) {
-         for (int i = 0; i < attributeCount; i++) {
-            int cpNameIndex = readUnsignedShort(codeIndex);
-            codeIndex += 2;
-            String attributeName = getString(cpNameIndex);
+   @Nullable
+   private String[] readParametersFromLocalVariableTable(@Nonnull MethodInfo method, @Nonnegative int codeIndex) {
+      int localVariableTableLength = readUnsignedShort(codeIndex);
+      codeIndex += 2;
 
-            int attributeLength = readInt(codeIndex);
-            codeIndex += 4;
+      int arraySize = getSumOfArgumentSizes(method.desc);
 
-            if ("LocalVariableTable".equals(attributeName)) {
-               parameters = readParametersFromLocalVariableTable(codeIndex);
-               break;
-            }
+      if (arraySize == 0) {
+         return null;
+      }
 
-            codeIndex += attributeLength;
-         }
+      if (!method.isStatic()) {
+         arraySize++;
       }
 
-      @Nullable
-      private String[] readParametersFromLocalVariableTable(@Nonnegative int codeIndex) {
-         int localVariableTableLength = readUnsignedShort(codeIndex);
-         codeIndex += 2;
+      String[] parameterNames = new String[arraySize];
 
-         int arraySize = getSumOfArgumentSizes(desc);
+      for (int i = 0; i < localVariableTableLength; i++) {
+         codeIndex += 4;
 
-         if (arraySize == 0) {
-            return null;
-         }
+         int cpLocalVarNameIndex = readUnsignedShort(codeIndex);
+         codeIndex += 2;
+         String localVarName = getString(cpLocalVarNameIndex);
 
-         if (!isStatic()) {
-            arraySize++;
+         if ("this".equals(localVarName)) {
+            codeIndex += 4;
+            continue;
          }
 
-         String[] parameterNames = new String[arraySize];
+         codeIndex += 2;
 
-         for (int i = 0; i < localVariableTableLength; i++) {
-            codeIndex += 4;
+         int localVarIndex = readUnsignedShort(codeIndex);
+         codeIndex += 2;
 
-            int cpLocalVarNameIndex = readUnsignedShort(codeIndex);
-            codeIndex += 2;
-            String localVarName = getString(cpLocalVarNameIndex);
+         if (localVarIndex < arraySize) {
+            parameterNames[localVarIndex] = localVarName;
+         }
+      }
 
-            if ("this".equals(localVarName)) {
-               codeIndex += 4;
-               continue;
-            }
+      return compactArray(parameterNames);
+   }
 
-            codeIndex += 2;
+   @Nonnegative
+   private static int getSumOfArgumentSizes(@Nonnull String memberDesc) {
+      int sum = 0;
+      int i = 1;
 
-            int localVarIndex = readUnsignedShort(codeIndex);
-            codeIndex += 2;
+      while (true) {
+         char c = memberDesc.charAt(i);
+         i++;
 
-            if (localVarIndex < arraySize) {
-               parameterNames[localVarIndex] = localVarName;
-            }
+         if (c == ')') {
+            return sum;
          }
 
-         return compactArray(parameterNames);
-      }
-
-      @Nonnegative
-      private int getSumOfArgumentSizes(@Nonnull String memberDesc) {
-         int sum = 0;
-         int i = 1;
-
-         while (true) {
-            char c = memberDesc.charAt(i);
+         if (c == 'L') {
+            while (memberDesc.charAt(i) != ';') i++;
             i++;
+            sum++;
+         }
+         else if (c == '[') {
+            while ((c = memberDesc.charAt(i)) == '[') i++;
 
-            if (c == ')') {
-               return sum;
-            }
-
-            if (c == 'L') {
-               while (memberDesc.charAt(i) != ';') i++;
+            if (isDoubleSizeType(c)) { // if the array element type is double size...
                i++;
-               sum++;
-            }
-            else if (c == '[') {
-               while ((c = memberDesc.charAt(i)) == '[') i++;
-
-               if (isDoubleSizeType(c)) { // if the array element type is double size...
-                  i++;
-                  sum++; // ...then count it here, otherwise let the outer loop count it
-               }
-            }
-            else if (isDoubleSizeType(c)) {
-               sum += 2;
-            }
-            else {
-               sum++;
+               sum++; // ...then count it here, otherwise let the outer loop count it
             }
          }
+         else if (isDoubleSizeType(c)) {
+            sum += 2;
+         }
+         else {
+            sum++;
+         }
       }
+   }
 
-      private boolean isDoubleSizeType(char typeCode) { return typeCode == 'D' || typeCode == 'J'; }
-
-      @Nullable
-      private String[] compactArray(@Nonnull String[] arrayPossiblyWithNulls) {
-         int n = arrayPossiblyWithNulls.length;
-         int j = n - 1;
-         int i = 0;
+   private static boolean isDoubleSizeType(char typeCode) { return typeCode == 'D' || typeCode == 'J'; }
 
-         while (i < j) {
-            if (arrayPossiblyWithNulls[i] == null) {
-               System.arraycopy(arrayPossiblyWithNulls, i + 1, arrayPossiblyWithNulls, i, j - i);
-               arrayPossiblyWithNulls[j] = null;
-               j--;
-            }
-            else {
-               i++;
-            }
+   @Nullable
+   private static String[] compactArray(@Nonnull String[] arrayPossiblyWithNulls) {
+      int n = arrayPossiblyWithNulls.length;
+      int j = n - 1;
+      int i = 0;
+
+      while (i < j) {
+         if (arrayPossiblyWithNulls[i] == null) {
+            System.arraycopy(arrayPossiblyWithNulls, i + 1, arrayPossiblyWithNulls, i, j - i);
+            arrayPossiblyWithNulls[j] = null;
+            j--;
+         }
+         else {
+            i++;
          }
-
-         return n == 1 && arrayPossiblyWithNulls[0] == null ? null : arrayPossiblyWithNulls;
       }
 
-      private void readSignature(@Nonnegative int codeIndex) {
-         int cpSignatureIndex = readUnsignedShort(codeIndex);
-         signature = getString(cpSignatureIndex);
-      }
+      return n == 1 && arrayPossiblyWithNulls[0] == null ? null : arrayPossiblyWithNulls;
+   }
+
+   private void readSignature(@Nonnull MethodInfo method, @Nonnegative int codeIndex) {
+      int cpSignatureIndex = readUnsignedShort(codeIndex);
+      method.signature = getString(cpSignatureIndex);
    }
 
    @Nonnull
@@ -35,11 +35,41 @@ public abstract class JavaType
 
    /**
     * Returns the Java types corresponding to the argument types of the given method descriptor.
+    * The returned array is {@linkplain MethodDescriptor shared}, so it must not be modified.
     */
    @Nonnull
    public static JavaType[] getArgumentTypes(@Nonnull String methodDescriptor) {
-      char[] buf = methodDescriptor.toCharArray();
-      int off = 1;
+      return MethodDescriptor.of(methodDescriptor).getArgumentTypes();
+   }
+
+   /**
+    * Returns the Java type corresponding to the return type of the given method descriptor.
+    */
+   @Nonnull
+   public static JavaType getReturnType(@Nonnull String methodDescriptor) {
+      return MethodDescriptor.of(methodDescriptor).getReturnType();
+   }
+
+   /**
+    * Computes the size of the arguments and of the return value of a method.
+    *
+    * @param desc the descriptor of a method.
+    * @return the size of the arguments of the method (plus one for the implicit <code>this</code> argument),
+    * <code>argSize</code>, and the size of its return value, <code>retSize</code>, packed into a single
+    * <pre>{@code int i = (argSize << 2) | retSize }</pre> (<code>argSize</code> is therefore equal to <pre>{@code i >> 2 }</pre>, and
+    * <pre>{@code retSize }</pre> to <pre>@{code i &amp; 0x03 }</pre>).
+    */
+   public static int getArgumentsAndReturnSizes(@Nonnull String desc) {
+      return MethodDescriptor.of(desc).getArgumentsAndReturnSizes();
+   }
+
+   /**
+    * Parses the argument types of the given method descriptor, which can be preceded by the method name.
+    */
+   @Nonnull
+   static JavaType[] parseArgumentTypes(@Nonnull char[] buf) {
+      int start = findStartOfArguments(buf);
+      int off = start;
       int size = 0;
 
       while (true) {
@@ -57,7 +87,14 @@ public abstract class JavaType
          }
       }
 
-      return getArgumentTypes(buf, size);
+      return getArgumentTypes(buf, start, size);
+   }
+
+   @Nonnegative
+   private static int findStartOfArguments(@Nonnull char[] buf) {
+      int off = 0;
+      while (buf[off++] != '(') {}
+      return off;
    }
 
    @Nonnegative
@@ -67,13 +104,13 @@ public abstract class JavaType
    }
 
    @Nonnull
-   private static JavaType[] getArgumentTypes(@Nonnull char[] buf, @Nonnegative int argCount) {
+   private static JavaType[] getArgumentTypes(@Nonnull char[] buf, @Nonnegative int start, @Nonnegative int argCount) {
       if (argCount == 0) {
          return NO_ARGS;
       }
 
       JavaType[] argTypes = new JavaType[argCount];
-      int off = 1;
+      int off = start;
 
       for (int i = 0; buf[off] != ')'; i++) {
          JavaType argType = getType(buf, off);
@@ -85,26 +122,22 @@ public abstract class JavaType
    }
 
    /**
-    * Returns the Java type corresponding to the return type of the given method descriptor.
+    * Parses the return type of the given method descriptor, which can be preceded by the method name.
     */
    @Nonnull
-   public static JavaType getReturnType(@Nonnull String methodDescriptor) {
-      char[] buf = methodDescriptor.toCharArray();
-      return getType(buf, methodDescriptor.indexOf(')') + 1);
+   static JavaType parseReturnType(@Nonnull char[] buf) {
+      int off = 0;
+      while (buf[off++] != ')') {}
+      return getType(buf, off);
    }
 
    /**
-    * Computes the size of the arguments and of the return value of a method.
-    *
-    * @param desc the descriptor of a method.
-    * @return the size of the arguments of the method (plus one for the implicit <code>this</code> argument),
-    * <code>argSize</code>, and the size of its return value, <code>retSize</code>, packed into a single
-    * <pre>{@code int i = (argSize << 2) | retSize }</pre> (<code>argSize</code> is therefore equal to <pre>{@code i >> 2 }</pre>, and
-    * <pre>{@code retSize }</pre> to <pre>@{code i &amp; 0x03 }</pre>).
+    * Computes the {@linkplain #getArgumentsAndReturnSizes(String) sizes} of the arguments and return value of the given method
+    * descriptor, which can be preceded by the method name.
     */
-   public static int getArgumentsAndReturnSizes(@Nonnull String desc) {
+   static int computeArgumentsAndReturnSizes(@Nonnull String desc) {
       int argSize = 1;
-      int i = 1;
+      int i = desc.indexOf('(') + 1;
 
       while (true) {
          char currentChar = desc.charAt(i++);
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.asm.types;
+
+import java.util.concurrent.*;
+import javax.annotation.*;
+
+/**
+ * A method descriptor parsed into the Java types of its arguments and return value, along with their sizes.
+ * <p>
+ * The same descriptors get parsed over and over (when modifying each mocked or faked method, when computing frames, and when handling
+ * invocations), so each one is parsed only once into an immutable instance, which is then shared through a bounded cache; once the
+ * cache is full, it gets emptied and starts over, since parsing is cheap compared to the memory an unbounded cache could take.
+ */
+public final class MethodDescriptor
+{
+   private static final int MAX_CACHED_DESCRIPTORS = 10000;
+   @Nonnull private static final ConcurrentMap<String, MethodDescriptor> CACHE = new ConcurrentHashMap<>();
+
+   @Nonnull private final String methodDesc;
+   @Nullable private final JavaType[] argumentTypes;
+   @Nonnull private final JavaType returnType;
+   private final int argumentsAndReturnSizes;
+
+   private MethodDescriptor(@Nonnull String methodDesc) {
+      this.methodDesc = methodDesc;
+      char[] buf = methodDesc.toCharArray();
+      argumentTypes = parseArgumentTypesIfValid(buf);
+      returnType = JavaType.parseReturnType(buf);
+      argumentsAndReturnSizes = JavaType.computeArgumentsAndReturnSizes(methodDesc);
+   }
+
+   /**
+    * Parses the argument types, unless they include type variables, as in a generic signature from which only the return type is wanted.
+    */
+   @Nullable
+   private static JavaType[] parseArgumentTypesIfValid(@Nonnull char[] buf) {
+      try { return JavaType.parseArgumentTypes(buf); } catch (IllegalArgumentException ignore) { return null; }
+   }
+
+   /**
+    * Returns the parsed form of the given method descriptor, which can be preceded by the method name.
+    */
+   @Nonnull
+   public static MethodDescriptor of(@Nonnull String methodDesc) {
+      MethodDescriptor parsedDesc = CACHE.get(methodDesc);
+
+      if (parsedDesc == null) {
+         parsedDesc = new MethodDescriptor(methodDesc);
+
+         if (CACHE.size() >= MAX_CACHED_DESCRIPTORS) {
+            CACHE.clear();
+         }
+
+         MethodDescriptor previouslyParsed = CACHE.putIfAbsent(methodDesc, parsedDesc);
+
+         if (previouslyParsed != null) {
+            parsedDesc = previouslyParsed;
+         }
+      }
+
+      return parsedDesc;
+   }
+
+   /**
+    * Returns the types of the arguments, in a shared array which must not be modified.
+    */
+   @Nonnull
+   public JavaType[] getArgumentTypes() {
+      if (argumentTypes == null) {
+         throw new IllegalArgumentException("Invalid type descriptor: " + methodDesc);
+      }
+
+      return argumentTypes;
+   }
+
+   @Nonnull
+   public JavaType getReturnType() { return returnType; }
+
+   /**
+    * Returns the size of the arguments (plus one for the implicit <code>this</code> argument) and the size of the return value, packed
+    * into a single <code>int</code> as described in {@link JavaType#getArgumentsAndReturnSizes(String)}.
+    */
+   public int getArgumentsAndReturnSizes() { return argumentsAndReturnSizes; }
+
+   /**
+    * Returns the sum of the sizes of the arguments, not including the implicit <code>this</code> argument.
+    */
+   @Nonnegative
+   public int getArgumentsSize() { return (argumentsAndReturnSizes >> 2) - 1; }
+}
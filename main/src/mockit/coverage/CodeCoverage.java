@@ -73,7 +73,8 @@ public final class CodeCoverage implements ClassFileTransformer
       }
 
       String className = internalClassName.replace('/', '.');
-      byte[] modifiedClassfile = classModification.modifyClass(className, protectionDomain, originalClassfile);
-      return modifiedClassfile;
+      LoadedClassIndex.transformerStarted();
+      try { return classModification.modifyClass(className, protectionDomain, originalClassfile); }
+      finally { LoadedClassIndex.transformerFinished(); }
    }
 }
\ No newline at end of file
@@ -22,9 +22,6 @@ import static mockit.internal.reflection.ParameterReflection.*;
  */
 public class TestRunnerDecorator
 {
-   @Nullable private static SavePoint savePointForTestClass;
-   @Nullable private static SavePoint savePointForTest;
-
    /**
     * A "volatile boolean" is as good as a java.util.concurrent.atomic.AtomicBoolean here, since we only need the basic get/set operations.
     */
@@ -70,11 +67,11 @@ public class TestRunnerDecorator
 
       if (testClass != currentTestClass) {
          if (currentTestClass == null) {
-            savePointForTestClass = new SavePoint();
+            TestRun.setSavePointForTestClass(new SavePoint());
          }
          else if (!currentTestClass.isAssignableFrom(testClass)) {
             cleanUpMocksFromPreviousTestClass();
-            savePointForTestClass = new SavePoint();
+            TestRun.setSavePointForTestClass(new SavePoint());
          }
 
          TestRun.setCurrentTestClass(testClass);
@@ -86,6 +83,7 @@ public class TestRunnerDecorator
 
    public static void cleanUpAllMocks() {
       cleanUpMocks(true);
+      TestRun.mockFixture().restoreDeferredClasses();
       TestRun.getFakeClasses().discardStartupFakes();
    }
 
@@ -100,11 +98,17 @@ public class TestRunnerDecorator
    }
 
    private static void rollbackForTestClass() {
-      SavePoint savePoint = savePointForTestClass;
+      SavePoint savePoint = TestRun.getSavePointForTestClass();
 
       if (savePoint != null) {
-         savePoint.rollback();
-         savePointForTestClass = null;
+         savePoint.rollbackDeferringRestorations();
+         TestRun.setSavePointForTestClass(null);
+      }
+
+      Class<?> endedTestClass = TestRun.getCurrentTestClass();
+
+      if (endedTestClass != null && MockedClassPreparation.isEnabled()) {
+         MockedClassPreparation.discardClassesPreparedFor(endedTestClass);
       }
    }
 
@@ -118,19 +122,21 @@ public class TestRunnerDecorator
    }
 
    protected static void prepareForNextTest() {
-      if (savePointForTest == null) {
-         savePointForTest = new SavePoint();
+      TestRun.mockFixture().restoreDeferredClasses();
+
+      if (TestRun.getSavePointForTest() == null) {
+         TestRun.setSavePointForTest(new SavePoint());
       }
 
       TestRun.prepareForNextTest();
    }
 
    protected static void discardTestLevelMockedTypes() {
-      SavePoint savePoint = savePointForTest;
+      SavePoint savePoint = TestRun.getSavePointForTest();
 
       if (savePoint != null) {
          savePoint.rollback();
-         savePointForTest = null;
+         TestRun.setSavePointForTest(null);
       }
    }
 
@@ -153,6 +159,8 @@ public class TestRunnerDecorator
          TestRun.setTestedClassInstantiations(testedClassInstantiations);
       }
 
+      TestRun.mockFixture().restoreDeferredClasses();
+
       //noinspection ObjectEquality
       if (target != TestRun.getCurrentTestInstance()) {
          fieldTypeRedefinitions.assignNewInstancesToMockFields(target);
@@ -4,6 +4,7 @@
  */
 package mockit.integration.junit4;
 
+import java.util.*;
 import javax.annotation.*;
 
 import org.junit.runner.*;
@@ -12,6 +13,7 @@ import org.junit.runner.notification.*;
 import mockit.*;
 import mockit.coverage.testRedundancy.*;
 import mockit.integration.*;
+import mockit.internal.expectations.mocking.*;
 import mockit.internal.faking.*;
 import mockit.internal.state.TestRun;
 
@@ -33,10 +35,28 @@ public final class FakeRunNotifier extends MockUp<RunNotifier>
          it.addListener(new JUnitListener(testCoverage));
       }
 
+      if (MockedClassPreparation.isEnabled()) {
+         Set<Class<?>> testClasses = new LinkedHashSet<>();
+         addTestClasses(testClasses, description);
+         MockedClassPreparation.prepareMockedClasses(testClasses);
+      }
+
       prepareToProceed(invocation);
       it.fireTestRunStarted(description);
    }
 
+   private static void addTestClasses(@Nonnull Set<Class<?>> testClasses, @Nonnull Description description) {
+      Class<?> testClass = description.getTestClass();
+
+      if (testClass != null) {
+         testClasses.add(testClass);
+      }
+
+      for (Description child : description.getChildren()) {
+         addTestClasses(testClasses, child);
+      }
+   }
+
    private static void prepareToProceed(@Nonnull Invocation invocation) {
       ((FakeInvocation) invocation).prepareToProceedFromNonRecursiveMock();
    }
@@ -216,7 +216,7 @@ public final class JMockitExtension extends TestRunnerDecorator implements
    @Override
    public void afterAll(@Nonnull ExtensionContext context) {
       if (savePointForTestClass != null && isRegularTestClass(context)) {
-         savePointForTestClass.rollback();
+         savePointForTestClass.rollbackDeferringRestorations();
          savePointForTestClass = null;
 
          clearFieldTypeRedefinitions();
@@ -5,14 +5,17 @@
 package mockit.integration.testng;
 
 import java.lang.reflect.*;
+import java.util.*;
 import javax.annotation.*;
 
 import org.testng.*;
 import org.testng.annotations.*;
+import org.testng.xml.*;
 
 import mockit.*;
 import mockit.coverage.testRedundancy.*;
 import mockit.integration.*;
+import mockit.internal.expectations.mocking.*;
 import mockit.internal.state.*;
 import static mockit.internal.util.StackTrace.*;
 
@@ -20,14 +23,78 @@ import static mockit.internal.util.StackTrace.*;
  * Provides callbacks to be called by the TestNG 6.2+ test runner for each test execution.
  * JMockit will then assert any expectations recorded in {@link Expectations} subclasses during the test.
  * <p>
+ * When TestNG runs tests in parallel (<tt>parallel="methods"</tt>, <tt>"classes"</tt>, etc.), the mocking state of each test class
+ * instance is kept apart and bound to the worker threads executing its methods, while classes mocked by one test class are locked
+ * against redefinition by the others until it ends; so, test classes which don't share mocked types run at the same time.
+ * <p>
  * This class is not supposed to be accessed from user code; it will be automatically loaded at startup.
  */
-public final class TestNGRunnerDecorator extends TestRunnerDecorator implements IInvokedMethodListener, IExecutionListener
+public final class TestNGRunnerDecorator extends TestRunnerDecorator
+   implements IInvokedMethodListener, IClassListener, IExecutionListener, ISuiteListener
 {
    @Nonnull private final ThreadLocal<SavePoint> savePoint = new ThreadLocal<>();
 
+   /**
+    * The test states of test class instances currently executing in parallel, each one bound to the worker threads which execute the
+    * methods of its instance.
+    */
+   @Nonnull private final Map<Object, TestRun> parallelTestStates =
+      Collections.synchronizedMap(new IdentityHashMap<Object, TestRun>());
+
+   @Nonnull private final ThreadLocal<Boolean> shouldPrepareForNextTestInThread = new ThreadLocal<Boolean>() {
+      @Override protected Boolean initialValue() { return true; }
+   };
+
+   private static boolean isRunningInParallel(@Nonnull ITestResult testResult) {
+      XmlTest xmlTest = testResult.getTestContext().getCurrentXmlTest();
+
+      if (xmlTest == null) {
+         return false;
+      }
+
+      XmlSuite.ParallelMode parallelMode = xmlTest.getParallel();
+      return parallelMode != null && parallelMode.isParallel();
+   }
+
+   private boolean bindTestStateIfRunningInParallel(@Nonnull ITestResult testResult) {
+      Object testInstance = testResult.getInstance();
+
+      if (testInstance == null || !isRunningInParallel(testResult)) {
+         return false;
+      }
+
+      TestRun testState;
+
+      synchronized (parallelTestStates) {
+         testState = parallelTestStates.get(testInstance);
+
+         if (testState == null) {
+            testState = TestRun.newThreadBoundState();
+            parallelTestStates.put(testInstance, testState);
+         }
+      }
+
+      TestRun.bindToCurrentThread(testState);
+      return true;
+   }
+
+   private boolean isToPrepareForNextTest() {
+      return TestRun.isStateBoundToCurrentThread() ? shouldPrepareForNextTestInThread.get() : shouldPrepareForNextTest;
+   }
+
+   private void setToPrepareForNextTest(boolean prepare) {
+      if (TestRun.isStateBoundToCurrentThread()) {
+         shouldPrepareForNextTestInThread.set(prepare);
+      }
+      else {
+         shouldPrepareForNextTest = prepare;
+      }
+   }
+
    @Override
    public void beforeInvocation(@Nonnull IInvokedMethod invokedMethod, @Nonnull ITestResult testResult) {
+      bindTestStateIfRunningInParallel(testResult);
+
       ITestNGMethod testNGMethod = testResult.getMethod();
       Class<?> testClass = testResult.getTestClass().getRealClass();
 
@@ -58,9 +125,9 @@ public final class TestNGRunnerDecorator extends TestRunnerDecorator implements
          SavePoint testMethodSavePoint = new SavePoint();
          savePoint.set(testMethodSavePoint);
 
-         if (shouldPrepareForNextTest) {
+         if (isToPrepareForNextTest()) {
             TestRun.prepareForNextTest();
-            shouldPrepareForNextTest = false;
+            setToPrepareForNextTest(false);
             clearTestedObjectsCreatedDuringSetup();
          }
 
@@ -87,7 +154,7 @@ public final class TestNGRunnerDecorator extends TestRunnerDecorator implements
          updateTestClassState(null, testClass);
 
          if (method.isBeforeMethodConfiguration()) {
-            if (shouldPrepareForNextTest) {
+            if (isToPrepareForNextTest()) {
                discardTestLevelMockedTypes();
                clearTestedObjectsCreatedDuringSetup();
             }
@@ -95,9 +162,9 @@ public final class TestNGRunnerDecorator extends TestRunnerDecorator implements
             Object testInstance = method.getInstance();
             updateTestClassState(testInstance, testClass);
 
-            if (shouldPrepareForNextTest) {
+            if (isToPrepareForNextTest()) {
                prepareForNextTest();
-               shouldPrepareForNextTest = false;
+               setToPrepareForNextTest(false);
                createInstancesForTestedFieldsBeforeSetup(testInstance);
             }
 
@@ -122,11 +189,20 @@ public final class TestNGRunnerDecorator extends TestRunnerDecorator implements
 
    @Override
    public void afterInvocation(@Nonnull IInvokedMethod invokedMethod, @Nonnull ITestResult testResult) {
-      if (!invokedMethod.isTestMethod()) {
-         afterConfigurationMethod(testResult);
-         return;
+      try {
+         if (invokedMethod.isTestMethod()) {
+            afterTestMethod(invokedMethod, testResult);
+         }
+         else {
+            afterConfigurationMethod(testResult);
+         }
+      }
+      finally {
+         TestRun.bindToCurrentThread(null);
       }
+   }
 
+   private void afterTestMethod(@Nonnull IInvokedMethod invokedMethod, @Nonnull ITestResult testResult) {
       exportCurrentTestMethodIfApplicable(null);
 
       SavePoint testMethodSavePoint = savePoint.get();
@@ -136,7 +212,7 @@ public final class TestNGRunnerDecorator extends TestRunnerDecorator implements
       }
 
       TestRun.enterNoMockingZone();
-      shouldPrepareForNextTest = true;
+      setToPrepareForNextTest(true);
       savePoint.set(null);
 
       Throwable thrownByTest = testResult.getThrowable();
@@ -252,14 +328,72 @@ public final class TestNGRunnerDecorator extends TestRunnerDecorator implements
       return false;
    }
 
+   @Override
+   public void onBeforeClass(@Nonnull ITestClass testClass) {}
+
+   @Override
+   public void onAfterClass(@Nonnull ITestClass testClass) {
+      for (Object testInstance : testClass.getInstances(false)) {
+         TestRun testState = parallelTestStates.remove(testInstance);
+
+         if (testState != null) {
+            cleanUpParallelTestState(testState);
+         }
+      }
+   }
+
+   private static void cleanUpParallelTestState(@Nonnull TestRun testState) {
+      TestRun.bindToCurrentThread(testState);
+      TestRun.enterNoMockingZone();
+
+      try {
+         for (SavePoint savePointForTest : TestRun.removeSavePointsForTestsFromAllThreads()) {
+            savePointForTest.rollback();
+         }
+
+         TestRun.getExecutingTest().setRecordAndReplay(null);
+         cleanUpMocksFromPreviousTestClass();
+         TestRun.clearCurrentTestInstance();
+         TestRun.setCurrentTestClass(null);
+      }
+      finally {
+         TestRun.exitNoMockingZone();
+         TestRun.bindToCurrentThread(null);
+      }
+   }
+
    @Override
    public void onExecutionStart() {}
 
+   @Override
+   public void onStart(@Nonnull ISuite suite) {
+      if (MockedClassPreparation.isEnabled()) {
+         Set<Class<?>> testClasses = new LinkedHashSet<>();
+
+         for (ITestNGMethod testMethod : suite.getAllMethods()) {
+            testClasses.add(testMethod.getRealClass());
+         }
+
+         MockedClassPreparation.prepareMockedClasses(testClasses);
+      }
+   }
+
    @Override
    public void onExecutionFinish() {
       TestRun.enterNoMockingZone();
 
       try {
+         List<TestRun> remainingTestStates;
+
+         synchronized (parallelTestStates) {
+            remainingTestStates = new ArrayList<>(parallelTestStates.values());
+            parallelTestStates.clear();
+         }
+
+         for (TestRun testState : remainingTestStates) {
+            cleanUpParallelTestState(testState);
+         }
+
          TestRunnerDecorator.cleanUpAllMocks();
       }
       finally {
@@ -76,6 +76,20 @@ public class BaseClassModifier extends WrappingClassVisitor
 
    public final boolean wasModified() { return methodName != null; }
 
+   /**
+    * Returns the configuration of this modifier which, together with the class files of the class being modified and of its supertypes,
+    * fully determines the bytecode generated, for use in a {@link BytecodeCache} key.
+    *
+    * @return <tt>null</tt> (the default) if the bytecode generated by this modifier is not cacheable
+    */
+   @Nullable
+   public String getCacheKeyParameters() { return null; }
+
+   @Nonnull
+   protected final String getClassLoadingBridgeHostForCacheKey() {
+      return useClassLoadingBridge ? ClassLoadingBridge.getHostClassName() : "";
+   }
+
    protected final void generateDirectCallToHandler(
       @Nonnull String className, int access, @Nonnull String name, @Nonnull String desc, @Nullable String genericSignature
    ) {
@@ -181,13 +195,13 @@ public class BaseClassModifier extends WrappingClassVisitor
 
    protected final void generateCodeToFillArrayElement(@Nonnegative int arrayIndex, @Nullable Object value) {
       mw.visitInsn(DUP);
-      mw.visitIntInsn(SIPUSH, arrayIndex);
+      generateCodeToPushInt(arrayIndex);
 
       if (value == null) {
          mw.visitInsn(ACONST_NULL);
       }
       else if (value instanceof Integer) {
-         mw.visitIntInsn(SIPUSH, (Integer) value);
+         generateCodeToPushInt((Integer) value);
          mw.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;", false);
       }
       else {
@@ -197,6 +211,21 @@ public class BaseClassModifier extends WrappingClassVisitor
       mw.visitInsn(AASTORE);
    }
 
+   /**
+    * Pushes the given <tt>int</tt> value, through an <tt>LDC</tt> instruction when it doesn't fit in a short.
+    */
+   protected final void generateCodeToPushInt(int value) {
+      if (value >= -1 && value <= 5) {
+         mw.visitInsn(ICONST_0 + value);
+      }
+      else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+         mw.visitIntInsn(SIPUSH, value);
+      }
+      else {
+         mw.visitLdcInsn(value);
+      }
+   }
+
    private void pushDefaultValueForType(@Nonnull JavaType type) {
       if (type instanceof ArrayType) {
          generateCreationOfEmptyArray((ArrayType) type);
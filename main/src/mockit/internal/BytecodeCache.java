@@ -0,0 +1,430 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.security.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import javax.annotation.*;
+
+import mockit.asm.classes.*;
+
+/**
+ * An optional on-disk cache for the bytecode generated by {@linkplain BaseClassModifier class modifiers}, shared by all JVMs using the
+ * same cache directory (such as the forks of a test run, or later test runs), so that cache hits skip bytecode generation entirely.
+ * <p>
+ * It's enabled by setting the <tt>jmockit-bytecodeCache</tt> system property to the cache directory; the total size of the cache is kept
+ * below the number of megabytes given in the <tt>jmockit-bytecodeCacheSize</tt> system property (256 by default), by evicting the least
+ * recently used entries.
+ * <p>
+ * Each entry is keyed by a hash of the JMockit and Java versions, the kind of modifier and its {@linkplain
+ * BaseClassModifier#getCacheKeyParameters() configuration}, and the class files of the source class and of all its supertypes.
+ * Entries are written to temporary files which then get atomically moved into place, so that a JVM never reads an entry still being
+ * written by another.
+ */
+public final class BytecodeCache
+{
+   private static final int ENTRY_HEADER = 0x4A4D4243;
+   private static final String ENTRY_SUFFIX = ".bytecode";
+   @Nonnull private static final byte[] NO_DIGEST = {};
+
+   /**
+    * A cached result of a class modification.
+    */
+   public static final class Entry {
+      /**
+       * The generated class file, or <tt>null</tt> if the modifier made no changes to the source class.
+       */
+      @Nullable public final byte[] modifiedClassfile;
+
+      /**
+       * Internal names of additional classes collected by the modifier, as needed by its user.
+       */
+      @Nullable public final List<String> relatedClassNames;
+
+      public Entry(@Nullable byte[] modifiedClassfile, @Nullable List<String> relatedClassNames) {
+         this.modifiedClassfile = modifiedClassfile;
+         this.relatedClassNames = relatedClassNames;
+      }
+   }
+
+   @Nullable private static final BytecodeCache INSTANCE = createIfEnabled();
+
+   @Nonnull private final File directory;
+   @Nonnull private final String versionInfo;
+   private final long maxSize;
+   @Nonnull private final AtomicLong currentSize;
+   @Nonnull private final ClassValue<byte[]> classfileDigests;
+
+   BytecodeCache(@Nonnull File directory, long maxSize) {
+      this.directory = directory;
+      this.maxSize = maxSize;
+      versionInfo = getVersionInfo();
+      currentSize = new AtomicLong(computeCurrentSize());
+      classfileDigests = new ClassValue<byte[]>() {
+         @Override
+         protected byte[] computeValue(Class<?> type) {
+            try {
+               byte[] classfile = ClassFile.getClassFile(type);
+               return newDigest().digest(classfile);
+            }
+            catch (RuntimeException ignore) { return NO_DIGEST; }
+         }
+      };
+   }
+
+   @Nullable
+   private static BytecodeCache createIfEnabled() {
+      String cacheDir = System.getProperty("jmockit-bytecodeCache");
+
+      if (cacheDir == null || cacheDir.isEmpty()) {
+         return null;
+      }
+
+      File directory = new File(cacheDir);
+
+      //noinspection ResultOfMethodCallIgnored
+      directory.mkdirs();
+
+      if (!directory.isDirectory()) {
+         return null;
+      }
+
+      long maxSizeInMB = Long.getLong("jmockit-bytecodeCacheSize", 256L);
+      return new BytecodeCache(directory, maxSizeInMB * 1024 * 1024);
+   }
+
+   /**
+    * Identifies the JMockit build and the JVM, so that entries created by a different version of either are never used.
+    * Development builds have no implementation version, so the last modification time of their classes is used instead.
+    */
+   @Nonnull
+   private static String getVersionInfo() {
+      String jmockitVersion = BytecodeCache.class.getPackage().getImplementationVersion();
+      StringBuilder versionInfo = new StringBuilder(100);
+      versionInfo.append(jmockitVersion).append(' ').append(getLastModificationTimeOfJMockitClasses());
+      versionInfo.append(' ').append(System.getProperty("java.vm.name")).append(' ').append(System.getProperty("java.version"));
+      return versionInfo.toString();
+   }
+
+   private static long getLastModificationTimeOfJMockitClasses() {
+      try {
+         URL location = BytecodeCache.class.getProtectionDomain().getCodeSource().getLocation();
+         return getLastModificationTime(Paths.get(location.toURI()));
+      }
+      catch (IOException | URISyntaxException | RuntimeException ignore) {
+         return 0L;
+      }
+   }
+
+   private static long getLastModificationTime(@Nonnull Path path) throws IOException {
+      long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+      if (Files.isDirectory(path)) {
+         try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+            for (Path subPath : stream) {
+               lastModified = Math.max(lastModified, getLastModificationTime(subPath));
+            }
+         }
+      }
+
+      return lastModified;
+   }
+
+   @Nonnull
+   private static MessageDigest newDigest() {
+      try { return MessageDigest.getInstance("SHA-1"); }
+      catch (NoSuchAlgorithmException e) { throw new IllegalStateException(e); }
+   }
+
+   private long computeCurrentSize() {
+      File[] entryFiles = directory.listFiles();
+      long size = 0L;
+
+      if (entryFiles != null) {
+         for (File entryFile : entryFiles) {
+            size += entryFile.length();
+         }
+      }
+
+      return size;
+   }
+
+   /**
+    * Computes the key for the bytecode to be generated by the given modifier from the given source class.
+    *
+    * @return the key, or <tt>null</tt> if the cache is not enabled, the modifier doesn't support caching, or a supertype of the source
+    * class has no class file
+    */
+   @Nullable
+   public static String computeKey(
+      @Nonnull Class<?> sourceClass, @Nonnull ClassReader sourceClassReader, @Nonnull BaseClassModifier modifier
+   ) {
+      BytecodeCache cache = INSTANCE;
+      return cache == null ? null : cache.computeEntryKey(sourceClass, sourceClassReader, modifier);
+   }
+
+   @Nullable
+   String computeEntryKey(@Nonnull Class<?> sourceClass, @Nonnull ClassReader sourceClassReader, @Nonnull BaseClassModifier modifier) {
+      String modifierParameters = modifier.getCacheKeyParameters();
+
+      if (modifierParameters == null) {
+         return null;
+      }
+
+      MessageDigest digest = newDigest();
+      digest.update(versionInfo.getBytes(StandardCharsets.UTF_8));
+      digest.update(modifier.getClass().getName().getBytes(StandardCharsets.UTF_8));
+      digest.update(modifierParameters.getBytes(StandardCharsets.UTF_8));
+      digest.update(sourceClassReader.getBytecode());
+
+      if (!addSupertypeDigests(digest, sourceClass, new HashSet<Class<?>>())) {
+         return null;
+      }
+
+      return toHexString(digest.digest());
+   }
+
+   private boolean addSupertypeDigests(@Nonnull MessageDigest digest, @Nonnull Class<?> type, @Nonnull Set<Class<?>> visitedTypes) {
+      Class<?> superclass = type.getSuperclass();
+
+      if (superclass != null && !addDigest(digest, superclass, visitedTypes)) {
+         return false;
+      }
+
+      for (Class<?> superInterface : type.getInterfaces()) {
+         if (!addDigest(digest, superInterface, visitedTypes)) {
+            return false;
+         }
+      }
+
+      return true;
+   }
+
+   private boolean addDigest(@Nonnull MessageDigest digest, @Nonnull Class<?> supertype, @Nonnull Set<Class<?>> visitedTypes) {
+      if (!visitedTypes.add(supertype)) {
+         return true;
+      }
+
+      byte[] classfileDigest = classfileDigests.get(supertype);
+
+      if (classfileDigest == NO_DIGEST) {
+         return false;
+      }
+
+      digest.update(classfileDigest);
+      return addSupertypeDigests(digest, supertype, visitedTypes);
+   }
+
+   @Nonnull
+   private static String toHexString(@Nonnull byte[] bytes) {
+      StringBuilder hex = new StringBuilder(bytes.length * 2);
+
+      for (byte b : bytes) {
+         hex.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+
+      return hex.toString();
+   }
+
+   /**
+    * Reads the cached entry with the given key, if any; entries which can't be read, such as those evicted by another JVM in the
+    * meantime, are treated as absent.
+    */
+   @Nullable
+   public static Entry get(@Nonnull String key) {
+      BytecodeCache cache = INSTANCE;
+      return cache == null ? null : cache.readEntry(key);
+   }
+
+   @Nullable
+   Entry readEntry(@Nonnull String key) {
+      File entryFile = new File(directory, key + ENTRY_SUFFIX);
+      byte[] content;
+
+      try { content = Files.readAllBytes(entryFile.toPath()); }
+      catch (IOException ignore) { return null; }
+
+      Entry entry = parseEntry(content);
+
+      if (entry != null) {
+         //noinspection ResultOfMethodCallIgnored
+         entryFile.setLastModified(System.currentTimeMillis());
+      }
+
+      return entry;
+   }
+
+   @Nullable
+   private static Entry parseEntry(@Nonnull byte[] content) {
+      try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(content))) {
+         if (input.readInt() != ENTRY_HEADER) {
+            return null;
+         }
+
+         int relatedClassCount = input.readInt();
+         List<String> relatedClassNames = null;
+
+         if (relatedClassCount > input.available()) {
+            return null;
+         }
+
+         if (relatedClassCount >= 0) {
+            relatedClassNames = new ArrayList<>(relatedClassCount);
+
+            for (int i = 0; i < relatedClassCount; i++) {
+               relatedClassNames.add(input.readUTF());
+            }
+         }
+
+         int classfileLength = input.readInt();
+         byte[] modifiedClassfile = null;
+
+         if (classfileLength > input.available()) {
+            return null;
+         }
+
+         if (classfileLength >= 0) {
+            modifiedClassfile = new byte[classfileLength];
+            input.readFully(modifiedClassfile);
+         }
+
+         return new Entry(modifiedClassfile, relatedClassNames);
+      }
+      catch (IOException ignore) {
+         return null;
+      }
+   }
+
+   /**
+    * Stores an entry with the given key, evicting the least recently used entries if the maximum cache size gets exceeded.
+    * Failures to write are ignored, since the cache is only an optimization.
+    */
+   public static void put(@Nonnull String key, @Nullable byte[] modifiedClassfile, @Nullable List<String> relatedClassNames) {
+      BytecodeCache cache = INSTANCE;
+
+      if (cache != null) {
+         cache.writeEntry(key, modifiedClassfile, relatedClassNames);
+      }
+   }
+
+   void writeEntry(@Nonnull String key, @Nullable byte[] modifiedClassfile, @Nullable List<String> relatedClassNames) {
+      byte[] content;
+
+      try {
+         content = serializeEntry(modifiedClassfile, relatedClassNames);
+      }
+      catch (IOException ignore) {
+         return;
+      }
+
+      Path entryFile = new File(directory, key + ENTRY_SUFFIX).toPath();
+      Path tempFile = null;
+
+      try {
+         tempFile = Files.createTempFile(directory.toPath(), key, ".tmp");
+         Files.write(tempFile, content);
+
+         try {
+            Files.move(tempFile, entryFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+         }
+         catch (AtomicMoveNotSupportedException ignore) {
+            Files.move(tempFile, entryFile, StandardCopyOption.REPLACE_EXISTING);
+         }
+      }
+      catch (IOException ignore) {
+         deleteIfExists(tempFile);
+         return;
+      }
+
+      if (currentSize.addAndGet(content.length) > maxSize) {
+         evictLeastRecentlyUsedEntries();
+      }
+   }
+
+   @Nonnull
+   private static byte[] serializeEntry(@Nullable byte[] modifiedClassfile, @Nullable List<String> relatedClassNames)
+      throws IOException {
+      ByteArrayOutputStream content = new ByteArrayOutputStream(modifiedClassfile == null ? 64 : modifiedClassfile.length + 64);
+
+      try (DataOutputStream output = new DataOutputStream(content)) {
+         output.writeInt(ENTRY_HEADER);
+
+         if (relatedClassNames == null) {
+            output.writeInt(-1);
+         }
+         else {
+            output.writeInt(relatedClassNames.size());
+
+            for (String relatedClassName : relatedClassNames) {
+               output.writeUTF(relatedClassName);
+            }
+         }
+
+         if (modifiedClassfile == null) {
+            output.writeInt(-1);
+         }
+         else {
+            output.writeInt(modifiedClassfile.length);
+            output.write(modifiedClassfile);
+         }
+      }
+
+      return content.toByteArray();
+   }
+
+   private static void deleteIfExists(@Nullable Path file) {
+      if (file != null) {
+         try { Files.deleteIfExists(file); } catch (IOException ignore) {}
+      }
+   }
+
+   /**
+    * Deletes the least recently used entries (including any temporary files left behind) until the cache is down to three quarters of
+    * its maximum size; other JVMs sharing the cache directory may be doing the same concurrently, so files can disappear at any time.
+    */
+   private synchronized void evictLeastRecentlyUsedEntries() {
+      File[] entryFiles = directory.listFiles();
+
+      if (entryFiles == null) {
+         return;
+      }
+
+      final Map<File, Long> lastModifiedTimes = new HashMap<>(entryFiles.length);
+      long totalSize = 0L;
+
+      for (File entryFile : entryFiles) {
+         lastModifiedTimes.put(entryFile, entryFile.lastModified());
+         totalSize += entryFile.length();
+      }
+
+      if (totalSize > maxSize) {
+         Arrays.sort(entryFiles, new Comparator<File>() {
+            @Override
+            public int compare(File f1, File f2) { return lastModifiedTimes.get(f1).compareTo(lastModifiedTimes.get(f2)); }
+         });
+
+         long targetSize = maxSize / 4 * 3;
+
+         for (File entryFile : entryFiles) {
+            if (totalSize <= targetSize) {
+               break;
+            }
+
+            long entrySize = entryFile.length();
+
+            if (entryFile.delete() || !entryFile.exists()) {
+               totalSize -= entrySize;
+            }
+         }
+      }
+
+      currentSize.set(totalSize);
+   }
+}
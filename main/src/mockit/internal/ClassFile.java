@@ -5,8 +5,6 @@
 package mockit.internal;
 
 import java.io.*;
-import java.util.*;
-import java.util.concurrent.*;
 import javax.annotation.*;
 
 import mockit.asm.classes.*;
@@ -14,7 +12,7 @@ import mockit.internal.state.*;
 
 public final class ClassFile
 {
-   private static final Map<String, ClassReader> CLASS_FILES = new ConcurrentHashMap<>();
+   @Nonnull private static final ClassReaderCache CLASS_FILES = new ClassReaderCache();
 
    private ClassFile() {}
 
@@ -95,21 +93,31 @@ public final class ClassFile
          return new ClassReader(cachedClassfile);
       }
 
+      ClassLoader loader = aClass.getClassLoader();
       String classDesc = aClass.getName().replace('.', '/');
-      ClassReader reader = CLASS_FILES.get(classDesc);
+      ClassReader reader = CLASS_FILES.get(loader, classDesc);
 
       if (reader == null) {
-         reader = readFromFileSavingInCache(classDesc);
+         reader = readFromFileSavingInCache(loader, classDesc);
       }
 
       return reader;
    }
 
+   /**
+    * Reads the class file through the given class loader, so that what gets cached for it is its own version of the class; classes from
+    * the bootstrap loader, or whose loader doesn't provide the class file as a resource, are read from the classpath.
+    */
    @Nonnull
-   private static ClassReader readFromFileSavingInCache(@Nonnull String classDesc) {
-      byte[] classfileBytes = readBytesFromClassFile(classDesc);
-      ClassReader cr = new ClassReader(classfileBytes);
-      CLASS_FILES.put(classDesc, cr);
+   private static ClassReader readFromFileSavingInCache(@Nullable ClassLoader loader, @Nonnull String classDesc) {
+      ClassReader cr = loader == null ? null : createClassReader(loader, classDesc);
+
+      if (cr == null) {
+         byte[] classfileBytes = readBytesFromClassFile(classDesc);
+         cr = new ClassReader(classfileBytes);
+      }
+
+      CLASS_FILES.put(loader, classDesc, cr);
       return cr;
    }
 
@@ -126,7 +134,7 @@ public final class ClassFile
       }
 
       String classDesc = aClass.getName().replace('.', '/');
-      ClassReader reader = readFromFileSavingInCache(classDesc);
+      ClassReader reader = readFromFileSavingInCache(aClass.getClassLoader(), classDesc);
       return reader;
    }
 
@@ -190,8 +198,29 @@ public final class ClassFile
       return readBytesFromClassFile(classDesc);
    }
 
-   @Nonnull @SuppressWarnings("IOResourceOpenedButNotSafelyClosed")
+   /**
+    * Reads the class file for the given class from the classpath, if found there, without looking for it among the cached classfiles.
+    */
+   @Nullable
+   static byte[] readBytesFromClasspathIfFound(@Nonnull String classDesc) {
+      InputStream classFile = findClassInClasspath(classDesc);
+
+      if (classFile != null) {
+         try { return readClass(classFile); } catch (IOException ignore) {}
+      }
+
+      return null;
+   }
+
+   @Nonnull
    private static InputStream readClassFromClasspath(@Nonnull String classDesc) {
+      InputStream inputStream = findClassInClasspath(classDesc);
+      verifyClassFileFound(inputStream, classDesc);
+      return inputStream;
+   }
+
+   @Nullable @SuppressWarnings("IOResourceOpenedButNotSafelyClosed")
+   private static InputStream findClassInClasspath(@Nonnull String classDesc) {
       String classFileName = classDesc + ".class";
       ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
       InputStream inputStream = null;
@@ -216,7 +245,6 @@ public final class ClassFile
          }
       }
 
-      verifyClassFileFound(inputStream, classDesc);
       return inputStream;
    }
 }
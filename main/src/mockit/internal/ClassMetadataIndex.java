@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal;
+
+import java.util.*;
+import java.util.concurrent.*;
+import javax.annotation.*;
+
+import mockit.asm.classes.*;
+import mockit.asm.metadata.*;
+import mockit.asm.metadata.ClassMetadataReader.*;
+import mockit.internal.state.*;
+
+/**
+ * An index of the metadata (supertypes, annotations, methods with their signatures and parameter names) read from the class files of
+ * the classes of interest, each one parsed only once and then shared by all users.
+ * <p>
+ * It also holds the super class of each class known so far, whether read from its class file or registered for a class being generated,
+ * as needed when computing stack map frames; for that, the super class of a class not yet known is {@linkplain #findSuperClass(String)
+ * read} from just the header of its class file, so that frame computation (which can happen while another class is being loaded) doesn't
+ * have to load classes.
+ */
+public final class ClassMetadataIndex
+{
+   private static final EnumSet<Attribute> ALL_ATTRIBUTES = EnumSet.allOf(Attribute.class);
+
+   /**
+    * The metadata of a single class, as read from its class file.
+    */
+   public static final class Metadata {
+      @Nonnegative public final int accessFlags;
+      @Nullable public final String superClass;
+      @Nullable private final String[] interfaces;
+      @Nonnull public final List<AnnotationInfo> annotations;
+      @Nonnull public final List<MethodInfo> methods;
+      @Nullable private volatile Map<String, String[]> parameterNamesByMethod;
+
+      Metadata(@Nonnull byte[] classfile) {
+         ClassMetadataReader cmr = new ClassMetadataReader(classfile, ALL_ATTRIBUTES);
+         accessFlags = cmr.getAccessFlags();
+         superClass = cmr.getSuperClass();
+         interfaces = cmr.getInterfaces();
+         methods = Collections.unmodifiableList(cmr.getMethods());
+         annotations = cmr.getAnnotations();
+      }
+
+      /**
+       * Returns a new array with the internal names of the interfaces directly implemented or extended by the class, or <tt>null</tt> if
+       * none.
+       */
+      @Nullable
+      public String[] getInterfaces() { return interfaces == null ? null : interfaces.clone(); }
+
+      /**
+       * Returns the names of the parameters of the given non-synthetic method or constructor, or <tt>null</tt> if not available (when the
+       * class was compiled without debug information, for example).
+       */
+      @Nullable
+      public String[] getParameterNames(@Nonnull String methodNameAndDesc) {
+         Map<String, String[]> namesByMethod = parameterNamesByMethod;
+
+         if (namesByMethod == null) {
+            namesByMethod = new HashMap<>();
+
+            for (MethodInfo method : methods) {
+               if (!method.isSynthetic() && method.parameters != null) {
+                  namesByMethod.put(method.name + method.desc, method.parameters);
+               }
+            }
+
+            parameterNamesByMethod = namesByMethod;
+         }
+
+         return namesByMethod.get(methodNameAndDesc);
+      }
+   }
+
+   @Nonnull private static final Map<String, Metadata> METADATA_BY_CLASS = new ConcurrentHashMap<>();
+   @Nonnull private static final Map<ClassLoader, Map<String, Metadata>> METADATA_BY_LOADER_AND_CLASS = new WeakHashMap<>();
+   @Nonnull private static final Map<String, String> SUPER_CLASSES = new ConcurrentHashMap<>();
+
+   private ClassMetadataIndex() {}
+
+   /**
+    * Gets the metadata of the given class, reading its class file if not yet indexed.
+    *
+    * @param classDesc the internal name of the class
+    */
+   @Nonnull
+   public static Metadata getMetadata(@Nonnull String classDesc) {
+      Metadata metadata = METADATA_BY_CLASS.get(classDesc);
+
+      if (metadata == null) {
+         byte[] classfile = ClassFile.getClassFile(classDesc);
+         metadata = addMetadata(METADATA_BY_CLASS, classDesc, classfile);
+      }
+
+      return metadata;
+   }
+
+   /**
+    * Same as {@link #getMetadata(String)}, but for the class of the given name as defined by the given class loader.
+    */
+   @Nonnull
+   public static Metadata getMetadata(@Nullable ClassLoader loader, @Nonnull String classDesc) {
+      if (loader == null) {
+         return getMetadata(classDesc);
+      }
+
+      Map<String, Metadata> metadataByClass = getMetadataByClass(loader);
+      Metadata metadata = metadataByClass.get(classDesc);
+
+      if (metadata == null) {
+         byte[] classfile = ClassFile.getClassFile(loader, classDesc);
+         metadata = addMetadata(metadataByClass, classDesc, classfile);
+      }
+
+      return metadata;
+   }
+
+   @Nonnull
+   private static Map<String, Metadata> getMetadataByClass(@Nonnull ClassLoader loader) {
+      synchronized (METADATA_BY_LOADER_AND_CLASS) {
+         Map<String, Metadata> metadataByClass = METADATA_BY_LOADER_AND_CLASS.get(loader);
+
+         if (metadataByClass == null) {
+            metadataByClass = new ConcurrentHashMap<>();
+            METADATA_BY_LOADER_AND_CLASS.put(loader, metadataByClass);
+         }
+
+         return metadataByClass;
+      }
+   }
+
+   /**
+    * Same as {@link #getMetadata(String)}, but for a loaded class, indexed by its class loader and name; its class file is always read
+    * from its original location (through the class loader, or else from the classpath), never from a redefinition.
+    */
+   @Nonnull
+   public static Metadata getMetadata(@Nonnull Class<?> aClass) {
+      String classDesc = aClass.getName().replace('.', '/');
+      ClassLoader loader = aClass.getClassLoader();
+      Map<String, Metadata> metadataByClass = loader == null ? METADATA_BY_CLASS : getMetadataByClass(loader);
+      Metadata metadata = metadataByClass.get(classDesc);
+
+      if (metadata == null) {
+         ClassReader classReader = loader == null ? null : ClassFile.createClassReader(loader, classDesc);
+         byte[] classfile = classReader == null ? ClassFile.readBytesFromClassFile(classDesc) : classReader.getBytecode();
+         metadata = addMetadata(metadataByClass, classDesc, classfile);
+      }
+
+      return metadata;
+   }
+
+   @Nonnull
+   private static Metadata addMetadata(
+      @Nonnull Map<String, Metadata> metadataByClass, @Nonnull String classDesc, @Nonnull byte[] classfile
+   ) {
+      Metadata newMetadata = new Metadata(classfile);
+      Metadata metadata = metadataByClass.putIfAbsent(classDesc, newMetadata);
+
+      if (metadata == null) {
+         metadata = newMetadata;
+
+         if (newMetadata.superClass != null) {
+            SUPER_CLASSES.putIfAbsent(classDesc, newMetadata.superClass);
+         }
+      }
+
+      return metadata;
+   }
+
+   public static void addSuperClass(@Nonnull String classDesc, @Nonnull String superClassDesc) {
+      SUPER_CLASSES.put(classDesc.intern(), superClassDesc.intern());
+   }
+
+   /**
+    * Returns the internal name of the super class of the given class, if known.
+    */
+   @Nullable
+   public static String getSuperClass(@Nonnull String classDesc) { return SUPER_CLASSES.get(classDesc); }
+
+   /**
+    * Returns the internal name of the super class of the given class, if known or found in its class file, which is looked for among the
+    * cached classfiles and then in the classpath.
+    * Returns <tt>null</tt> if there is no class file available or if the class has no super class.
+    */
+   @Nullable
+   public static String findSuperClass(@Nonnull String classDesc) {
+      String superClass = SUPER_CLASSES.get(classDesc);
+
+      if (superClass == null) {
+         byte[] classfile = readClassfileWithoutLoading(classDesc);
+
+         if (classfile != null) {
+            superClass = new ClassMetadataReader(classfile).getSuperClass();
+
+            if (superClass != null) {
+               addSuperClass(classDesc, superClass);
+            }
+         }
+      }
+
+      return superClass;
+   }
+
+   @Nullable
+   private static byte[] readClassfileWithoutLoading(@Nonnull String classDesc) {
+      byte[] classfile = CachedClassfiles.getClassfileIfCached(classDesc);
+
+      if (classfile == null) {
+         // JRE classes used to read resources may be mocked at this point.
+         TestRun.enterNoMockingZone();
+
+         try { classfile = ClassFile.readBytesFromClasspathIfFound(classDesc); }
+         finally { TestRun.exitNoMockingZone(); }
+      }
+
+      return classfile;
+   }
+}
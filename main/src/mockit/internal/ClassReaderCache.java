@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal;
+
+import java.lang.ref.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import javax.annotation.*;
+
+import mockit.asm.classes.*;
+
+/**
+ * A size-bounded cache of the {@link ClassReader}s created by {@link ClassFile} from ".class" files, keyed by class loader and class
+ * name.
+ * <p>
+ * Entries are kept in a few segments, each one with its own lock and an equal part of a total byte budget (given in megabytes by the
+ * <tt>jmockit-classReaderCacheSize</tt> system property, 32 by default), and are evicted in least-recently-used order once the budget is
+ * exceeded.
+ * Evicted readers are still held through soft references, so that they get reused until memory is actually needed.
+ * With <tt>jmockit-classReaderCacheStats</tt>, the number of hits, soft hits, misses, and evictions is reported at the end of the test run.
+ */
+final class ClassReaderCache
+{
+   private static final int SEGMENT_COUNT = 8;
+
+   /**
+    * Identifies a class by name and by the class loader it was read for, without keeping the class loader from being collected.
+    * The keys of cached entries have their loader references registered with a queue, so that the entries of a collected class loader
+    * get removed; those created just for lookups don't.
+    */
+   private static final class Key {
+      @Nullable private final Reference<ClassLoader> loaderRef;
+      @Nonnull private final String classDesc;
+      private final int hashCode;
+
+      Key(@Nullable ClassLoader loader, @Nonnull String classDesc, @Nullable ReferenceQueue<ClassLoader> collectedLoaders) {
+         if (loader == null) {
+            loaderRef = null;
+         }
+         else if (collectedLoaders == null) {
+            loaderRef = new WeakReference<>(loader);
+         }
+         else {
+            loaderRef = new LoaderReference(loader, collectedLoaders, this);
+         }
+
+         this.classDesc = classDesc;
+         hashCode = 31 * System.identityHashCode(loader) + classDesc.hashCode();
+      }
+
+      @Nullable
+      private ClassLoader getLoader() { return loaderRef == null ? null : loaderRef.get(); }
+
+      @Override
+      public boolean equals(Object other) {
+         if (this == other) return true;
+         if (!(other instanceof Key)) return false;
+
+         Key that = (Key) other;
+         return
+            hashCode == that.hashCode && classDesc.equals(that.classDesc) && (loaderRef == null) == (that.loaderRef == null) &&
+            getLoader() == that.getLoader();
+      }
+
+      @Override
+      public int hashCode() { return hashCode; }
+   }
+
+   private static final class LoaderReference extends WeakReference<ClassLoader> {
+      @Nonnull final Key key;
+
+      LoaderReference(@Nonnull ClassLoader loader, @Nonnull ReferenceQueue<ClassLoader> queue, @Nonnull Key key) {
+         super(loader, queue);
+         this.key = key;
+      }
+   }
+
+   private static final class EvictedReader extends SoftReference<ClassReader> {
+      @Nonnull final Key key;
+
+      EvictedReader(@Nonnull Key key, @Nonnull ClassReader reader, @Nonnull ReferenceQueue<ClassReader> queue) {
+         super(reader, queue);
+         this.key = key;
+      }
+   }
+
+   private final class Segment extends LinkedHashMap<Key, ClassReader> {
+      private static final long serialVersionUID = 1L;
+      private final long byteBudget;
+      private long bytesCached;
+
+      Segment(long byteBudget) {
+         super(64, 0.75F, true);
+         this.byteBudget = byteBudget;
+      }
+
+      @Nullable
+      synchronized ClassReader getReader(@Nonnull Key key) { return get(key); }
+
+      synchronized void putReader(@Nonnull Key key, @Nonnull ClassReader reader) {
+         ClassReader previous = put(key, reader);
+
+         if (previous != null) {
+            bytesCached -= previous.getBytecode().length;
+         }
+
+         bytesCached += reader.getBytecode().length;
+         evictLeastRecentlyUsed();
+      }
+
+      synchronized void removeReader(@Nonnull Key key) {
+         ClassReader removed = remove(key);
+
+         if (removed != null) {
+            bytesCached -= removed.getBytecode().length;
+         }
+      }
+
+      private void evictLeastRecentlyUsed() {
+         Iterator<Map.Entry<Key, ClassReader>> entries = entrySet().iterator();
+
+         // The most recently added entry is always kept, even if larger than the whole budget.
+         while (bytesCached > byteBudget && size() > 1) {
+            Map.Entry<Key, ClassReader> eldest = entries.next();
+            ClassReader evictedReader = eldest.getValue();
+            entries.remove();
+            bytesCached -= evictedReader.getBytecode().length;
+            evictions.incrementAndGet();
+
+            Key evictedKey = eldest.getKey();
+            evictedReaders.put(evictedKey, new EvictedReader(evictedKey, evictedReader, collectedReaders));
+         }
+      }
+   }
+
+   @Nonnull private final Segment[] segments;
+   @Nonnull private final Map<Key, EvictedReader> evictedReaders;
+   @Nonnull private final ReferenceQueue<ClassReader> collectedReaders;
+   @Nonnull private final ReferenceQueue<ClassLoader> collectedLoaders;
+   @Nonnull private final AtomicLong hits;
+   @Nonnull private final AtomicLong softHits;
+   @Nonnull private final AtomicLong misses;
+   @Nonnull private final AtomicLong evictions;
+
+   ClassReaderCache() {
+      long byteBudget = Long.getLong("jmockit-classReaderCacheSize", 32L) * 1024 * 1024;
+      segments = new Segment[SEGMENT_COUNT];
+
+      for (int i = 0; i < SEGMENT_COUNT; i++) {
+         segments[i] = new Segment(byteBudget / SEGMENT_COUNT);
+      }
+
+      evictedReaders = new ConcurrentHashMap<>();
+      collectedReaders = new ReferenceQueue<>();
+      collectedLoaders = new ReferenceQueue<>();
+      hits = new AtomicLong();
+      softHits = new AtomicLong();
+      misses = new AtomicLong();
+      evictions = new AtomicLong();
+
+      if (Boolean.getBoolean("jmockit-classReaderCacheStats")) {
+         Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() { System.out.println("JMockit: Class reader cache: " + getStatistics()); }
+         });
+      }
+   }
+
+   @Nonnull
+   private Segment getSegment(@Nonnull Key key) {
+      int hash = key.hashCode;
+      hash ^= hash >>> 16;
+      return segments[(hash & 0x7FFFFFFF) % SEGMENT_COUNT];
+   }
+
+   @Nullable
+   ClassReader get(@Nullable ClassLoader loader, @Nonnull String classDesc) {
+      Key key = new Key(loader, classDesc, null);
+      Segment segment = getSegment(key);
+      ClassReader reader = segment.getReader(key);
+
+      if (reader != null) {
+         hits.incrementAndGet();
+         return reader;
+      }
+
+      EvictedReader evictedReader = evictedReaders.remove(key);
+      reader = evictedReader == null ? null : evictedReader.get();
+
+      if (reader == null) {
+         misses.incrementAndGet();
+         return null;
+      }
+
+      softHits.incrementAndGet();
+      segment.putReader(evictedReader.key, reader);
+      return reader;
+   }
+
+   void put(@Nullable ClassLoader loader, @Nonnull String classDesc, @Nonnull ClassReader reader) {
+      removeCollectedReaders();
+      removeEntriesOfCollectedLoaders();
+
+      Key key = new Key(loader, classDesc, collectedLoaders);
+      evictedReaders.remove(key);
+      getSegment(key).putReader(key, reader);
+   }
+
+   private void removeCollectedReaders() {
+      for (Reference<?> collected = collectedReaders.poll(); collected != null; collected = collectedReaders.poll()) {
+         EvictedReader evictedReader = (EvictedReader) collected;
+         evictedReaders.remove(evictedReader.key, evictedReader);
+      }
+   }
+
+   private void removeEntriesOfCollectedLoaders() {
+      for (Reference<?> collected = collectedLoaders.poll(); collected != null; collected = collectedLoaders.poll()) {
+         Key key = ((LoaderReference) collected).key;
+         getSegment(key).removeReader(key);
+         evictedReaders.remove(key);
+      }
+   }
+
+   @Nonnull
+   String getStatistics() {
+      long lookups = hits.get() + softHits.get() + misses.get();
+      long hitRate = lookups == 0 ? 0 : 100 * (hits.get() + softHits.get()) / lookups;
+      return
+         hits.get() + " hits, " + softHits.get() + " soft hits, " + misses.get() + " misses (" + hitRate + "% hit rate), " +
+         evictions.get() + " evictions";
+   }
+}
@@ -4,11 +4,11 @@
  */
 package mockit.internal.capturing;
 
+import java.util.*;
 import javax.annotation.*;
 
 import mockit.asm.classes.*;
 import mockit.internal.*;
-import mockit.internal.startup.*;
 import mockit.internal.state.*;
 
 public abstract class CaptureOfImplementations<M>
@@ -24,9 +24,10 @@ public abstract class CaptureOfImplementations<M>
    }
 
    private void redefineClassesAlreadyLoaded(@Nonnull CapturedType captureMetadata, @Nonnull Class<?> baseType, @Nullable M typeMetadata) {
-      Class<?>[] classesLoaded = Startup.instrumentation().getAllLoadedClasses();
+      CaptureTransformerMultiplexer.INSTANCE.installIfNeeded();
+      List<Class<?>> loadedSubtypes = CaptureTransformerMultiplexer.INSTANCE.typeHierarchy.findLoadedSubtypes(baseType);
 
-      for (Class<?> aClass : classesLoaded) {
+      for (Class<?> aClass : loadedSubtypes) {
          if (captureMetadata.isToBeCaptured(aClass)) {
             redefineClass(aClass, baseType, typeMetadata);
          }
@@ -64,7 +65,7 @@ public abstract class CaptureOfImplementations<M>
 
    private void createCaptureTransformer(@Nonnull CapturedType captureMetadata, boolean registerCapturedClasses, @Nullable M typeMetadata) {
       CaptureTransformer<M> transformer = new CaptureTransformer<>(captureMetadata, this, registerCapturedClasses, typeMetadata);
-      Startup.instrumentation().addTransformer(transformer, true);
+      transformer.activate();
       TestRun.mockFixture().addCaptureTransformer(transformer);
    }
 }
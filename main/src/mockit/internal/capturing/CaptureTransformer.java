@@ -4,20 +4,20 @@
  */
 package mockit.internal.capturing;
 
-import java.lang.instrument.*;
-import java.security.*;
 import java.util.*;
+import java.util.concurrent.*;
 import javax.annotation.*;
 
 import mockit.asm.classes.*;
-import mockit.asm.metadata.*;
 import mockit.asm.types.*;
 import mockit.internal.*;
-import mockit.internal.startup.*;
 import mockit.internal.state.*;
-import static mockit.internal.capturing.CapturedType.*;
 
-public final class CaptureTransformer<M> implements ClassFileTransformer
+/**
+ * Modifies the classes being loaded which implement or extend a given base type; all active instances are served by the
+ * {@link CaptureTransformerMultiplexer}, rather than being registered individually with the JVM.
+ */
+public final class CaptureTransformer<M>
 {
    @Nonnull private final CapturedType capturedType;
    @Nonnull private final String capturedTypeDesc;
@@ -25,7 +25,8 @@ public final class CaptureTransformer<M> implements ClassFileTransformer
    @Nonnull private final Map<ClassIdentification, byte[]> transformedClasses;
    @Nonnull private final Map<String, Boolean> superTypesSearched;
    @Nullable private final M typeMetadata;
-   private boolean inactive;
+   @Nullable private final SavePoint owner;
+   private volatile boolean inactive;
 
    CaptureTransformer(
       @Nonnull CapturedType capturedType, @Nonnull CaptureOfImplementations<M> captureOfImplementations, boolean registerTransformedClasses,
@@ -36,35 +37,44 @@ public final class CaptureTransformer<M> implements ClassFileTransformer
       this.captureOfImplementations = captureOfImplementations;
       transformedClasses = registerTransformedClasses ?
          new HashMap<ClassIdentification, byte[]>(2) : Collections.<ClassIdentification, byte[]>emptyMap();
-      superTypesSearched = new HashMap<>();
+      superTypesSearched = new ConcurrentHashMap<>();
       this.typeMetadata = typeMetadata;
+      owner = TestRun.getInnermostSavePoint();
    }
 
-   public void deactivate() {
+   void activate() { CaptureTransformerMultiplexer.INSTANCE.addTransformer(this); }
+
+   /**
+    * Stops capturing new classes, adding the original definitions of those already captured to the given ones to be restored.
+    */
+   public void deactivate(@Nonnull Map<Class<?>, byte[]> definitionsToRestore) {
       inactive = true;
+      CaptureTransformerMultiplexer.INSTANCE.removeTransformer(this);
 
       if (!transformedClasses.isEmpty()) {
          for (Map.Entry<ClassIdentification, byte[]> classNameAndOriginalBytecode : transformedClasses.entrySet()) {
             ClassIdentification classId = classNameAndOriginalBytecode.getKey();
             byte[] originalBytecode = classNameAndOriginalBytecode.getValue();
 
-            Startup.redefineMethods(classId, originalBytecode);
+            definitionsToRestore.put(classId.getLoadedClass(), originalBytecode);
          }
 
          transformedClasses.clear();
       }
    }
 
-   @Nullable @Override
-   public byte[] transform(
-      @Nullable ClassLoader loader, @Nonnull String classDesc, @Nullable Class<?> classBeingRedefined,
-      @Nullable ProtectionDomain protectionDomain, @Nonnull byte[] classfileBuffer
+   /**
+    * Modifies the given class being loaded if it's a subtype of the captured type, as determined from the names of its direct
+    * supertypes.
+    *
+    * @return the modified classfile, or <tt>null</tt> if the class is not to be captured
+    */
+   @Nullable
+   byte[] transform(
+      @Nullable ClassLoader loader, @Nonnull String classDesc, @Nullable String superName, @Nullable String[] interfaces,
+      @Nonnull byte[] classfileBuffer
    ) {
-      if (classBeingRedefined != null || inactive || isNotToBeCaptured(protectionDomain, classDesc)) {
-         return null;
-      }
-
-      if (isClassToBeCaptured(loader, classfileBuffer)) {
+      if (!inactive && isClassToBeCaptured(loader, superName, interfaces)) {
          String className = classDesc.replace('/', '.');
          ClassReader cr = new ClassReader(classfileBuffer);
          return modifyAndRegisterClass(loader, className, cr);
@@ -73,16 +83,11 @@ public final class CaptureTransformer<M> implements ClassFileTransformer
       return null;
    }
 
-   private boolean isClassToBeCaptured(@Nullable ClassLoader loader, @Nonnull byte[] classfileBuffer) {
-      ClassMetadataReader cmr = new ClassMetadataReader(classfileBuffer);
-      String superName = cmr.getSuperClass();
-
+   private boolean isClassToBeCaptured(@Nullable ClassLoader loader, @Nullable String superName, @Nullable String[] interfaces) {
       if (capturedTypeDesc.equals(superName)) {
          return true;
       }
 
-      String[] interfaces = cmr.getInterfaces();
-
       if (interfaces != null && isClassWhichImplementsACapturingInterface(interfaces)) {
          return true;
       }
@@ -124,14 +129,30 @@ public final class CaptureTransformer<M> implements ClassFileTransformer
       Boolean extendsCapturedType = superTypesSearched.get(superName);
 
       if (extendsCapturedType == null) {
-         byte[] classfileBytes = ClassFile.getClassFile(loader, superName);
-         extendsCapturedType = isClassToBeCaptured(loader, classfileBytes);
+         extendsCapturedType = isSubtypeOfCapturedType(loader, superName);
          superTypesSearched.put(superName, extendsCapturedType);
       }
 
       return extendsCapturedType;
    }
 
+   private boolean isSubtypeOfCapturedType(@Nullable ClassLoader loader, @Nonnull String typeDesc) {
+      String[] loadedSupertypes = CaptureTransformerMultiplexer.INSTANCE.typeHierarchy.getSupertypes(typeDesc);
+
+      if (loadedSupertypes == null) {
+         ClassMetadataIndex.Metadata typeMetadata = ClassMetadataIndex.getMetadata(loader, typeDesc);
+         return isClassToBeCaptured(loader, typeMetadata.superClass, typeMetadata.getInterfaces());
+      }
+
+      if (loadedSupertypes.length == 0) {
+         return false;
+      }
+
+      String superclassDesc = loadedSupertypes[0];
+      String[] interfaceDescs = Arrays.copyOfRange(loadedSupertypes, 1, loadedSupertypes.length);
+      return isClassToBeCaptured(loader, superclassDesc, interfaceDescs);
+   }
+
    @Nonnull
    private byte[] modifyAndRegisterClass(@Nullable ClassLoader loader, @Nonnull String className, @Nonnull ClassReader cr) {
       ClassVisitor modifier = captureOfImplementations.createModifier(loader, cr, capturedType.baseType, typeMetadata);
@@ -141,7 +162,7 @@ public final class CaptureTransformer<M> implements ClassFileTransformer
       byte[] originalBytecode = cr.getBytecode();
 
       if (transformedClasses == Collections.<ClassIdentification, byte[]>emptyMap()) {
-         TestRun.mockFixture().addTransformedClass(classId, originalBytecode);
+         TestRun.mockFixture().addTransformedClass(classId, originalBytecode, owner);
       }
       else {
          transformedClasses.put(classId, originalBytecode);
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.capturing;
+
+import java.lang.instrument.*;
+import java.security.*;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.annotation.*;
+
+import mockit.asm.metadata.*;
+import mockit.internal.startup.*;
+import static mockit.internal.capturing.CapturedType.*;
+
+/**
+ * The single class file transformer registered with the JVM on behalf of all active {@link CaptureTransformer}s.
+ * <p>
+ * Each class being loaded has its header parsed only once, for all capture transformers, and gets added to the
+ * {@linkplain LoadedTypeHierarchy loaded type hierarchy}.
+ * It gets removed from the JVM once no capture transformer is active, so that classes loaded from then on don't get parsed at all; the
+ * hierarchy is then brought up to date when capturing starts again.
+ */
+final class CaptureTransformerMultiplexer implements ClassFileTransformer
+{
+   @Nonnull static final CaptureTransformerMultiplexer INSTANCE = new CaptureTransformerMultiplexer();
+
+   @Nonnull private final List<CaptureTransformer<?>> activeTransformers;
+   @Nonnull final LoadedTypeHierarchy typeHierarchy;
+   private boolean installed;
+
+   private CaptureTransformerMultiplexer() {
+      activeTransformers = new CopyOnWriteArrayList<>();
+      typeHierarchy = new LoadedTypeHierarchy();
+   }
+
+   /**
+    * Registers this transformer with the JVM if not yet done, first adding the classes loaded so far to the type hierarchy.
+    * Classes loaded between that scan and the registration are added by a second scan, which only has to process those.
+    */
+   synchronized void installIfNeeded() {
+      if (!installed) {
+         Instrumentation instrumentation = Startup.instrumentation();
+         typeHierarchy.addLoadedClasses(instrumentation);
+         instrumentation.addTransformer(this, true);
+         typeHierarchy.addLoadedClasses(instrumentation);
+         installed = true;
+      }
+   }
+
+   synchronized void addTransformer(@Nonnull CaptureTransformer<?> transformer) {
+      installIfNeeded();
+      activeTransformers.add(transformer);
+   }
+
+   synchronized void removeTransformer(@Nonnull CaptureTransformer<?> transformer) {
+      activeTransformers.remove(transformer);
+
+      if (installed && activeTransformers.isEmpty()) {
+         Startup.instrumentation().removeTransformer(this);
+         installed = false;
+      }
+   }
+
+   @Nullable @Override
+   public byte[] transform(
+      @Nullable ClassLoader loader, @Nullable String classDesc, @Nullable Class<?> classBeingRedefined,
+      @Nullable ProtectionDomain protectionDomain, @Nonnull byte[] classfileBuffer
+   ) {
+      if (classDesc == null || classBeingRedefined != null) { // class name can be null for Java 8 lambdas
+         return null;
+      }
+
+      ClassMetadataReader cmr = new ClassMetadataReader(classfileBuffer);
+      String superName = cmr.getSuperClass();
+      String[] interfaces = cmr.getInterfaces();
+      typeHierarchy.addType(classDesc, superName, interfaces);
+
+      if (activeTransformers.isEmpty() || isNotToBeCaptured(protectionDomain, classDesc)) {
+         return null;
+      }
+
+      byte[] classfile = classfileBuffer;
+      boolean modified = false;
+      LoadedClassIndex.transformerStarted();
+
+      try {
+         for (CaptureTransformer<?> transformer : activeTransformers) {
+            byte[] modifiedClassfile = transformer.transform(loader, classDesc, superName, interfaces, classfile);
+
+            if (modifiedClassfile != null) {
+               classfile = modifiedClassfile;
+               modified = true;
+            }
+         }
+      }
+      finally {
+         LoadedClassIndex.transformerFinished();
+      }
+
+      return modified ? classfile : null;
+   }
+}
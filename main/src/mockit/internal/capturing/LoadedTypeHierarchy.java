@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.capturing;
+
+import java.lang.instrument.*;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.annotation.*;
+
+import mockit.internal.startup.*;
+
+/**
+ * An index of the direct supertypes and subtypes of the classes and interfaces loaded by the JVM, by internal name.
+ * <p>
+ * It gets seeded with a scan of the classes already loaded whenever capturing starts, and from then on is kept up to date by the
+ * {@link CaptureTransformerMultiplexer}, which sees every class being loaded while capturing is active; so, finding the loaded subtypes
+ * of a <code>@Capturing</code> type doesn't require going through all loaded classes again.
+ * <p>
+ * Since {@link #addType} gets called from inside a class file transformer, it only uses <tt>ConcurrentHashMap</tt>s, which are already
+ * loaded when the transformer gets registered; loading some other class from there could fail with a <tt>ClassCircularityError</tt>.
+ */
+final class LoadedTypeHierarchy
+{
+   @Nonnull private static final String[] NO_SUPERTYPES = {};
+
+   @Nonnull private final Map<String, String[]> supertypesByType;
+   @Nonnull private final ConcurrentMap<String, ConcurrentMap<String, Boolean>> subtypesByType;
+
+   LoadedTypeHierarchy() {
+      supertypesByType = new ConcurrentHashMap<>(1000);
+      subtypesByType = new ConcurrentHashMap<>(1000);
+   }
+
+   /**
+    * Adds the loaded classes not yet in the index.
+    */
+   void addLoadedClasses(@Nonnull Instrumentation instrumentation) {
+      for (Class<?> loadedClass : instrumentation.getAllLoadedClasses()) {
+         String className = loadedClass.getName();
+
+         // Skips arrays, primitives, and anonymous classes such as those generated for Java 8 lambdas.
+         if (
+            !loadedClass.isArray() && !loadedClass.isPrimitive() && className.indexOf('/') < 0 &&
+            !supertypesByType.containsKey(internalName(loadedClass))
+         ) {
+            Class<?> superclass = loadedClass.getSuperclass();
+            Class<?>[] interfaces = loadedClass.getInterfaces();
+            String[] interfaceDescs = new String[interfaces.length];
+
+            for (int i = 0; i < interfaces.length; i++) {
+               interfaceDescs[i] = internalName(interfaces[i]);
+            }
+
+            String superclassDesc =
+               superclass != null ? internalName(superclass) : loadedClass.isInterface() ? "java/lang/Object" : null;
+            addType(internalName(loadedClass), superclassDesc, interfaceDescs);
+         }
+      }
+   }
+
+   @Nonnull
+   private static String internalName(@Nonnull Class<?> aClass) { return aClass.getName().replace('.', '/'); }
+
+   void addType(@Nonnull String typeDesc, @Nullable String superclassDesc, @Nullable String[] interfaceDescs) {
+      int interfaceCount = interfaceDescs == null ? 0 : interfaceDescs.length;
+      String[] supertypes;
+
+      if (superclassDesc == null && interfaceCount == 0) {
+         supertypes = NO_SUPERTYPES;
+      }
+      else {
+         supertypes = new String[(superclassDesc == null ? 0 : 1) + interfaceCount];
+         int i = 0;
+
+         if (superclassDesc != null) {
+            supertypes[i++] = superclassDesc;
+         }
+
+         if (interfaceCount > 0) {
+            System.arraycopy(interfaceDescs, 0, supertypes, i, interfaceCount);
+         }
+      }
+
+      supertypesByType.put(typeDesc, supertypes);
+
+      for (String supertype : supertypes) {
+         ConcurrentMap<String, Boolean> subtypes = subtypesByType.get(supertype);
+
+         if (subtypes == null) {
+            ConcurrentMap<String, Boolean> newSubtypes = new ConcurrentHashMap<>(4);
+            subtypes = subtypesByType.putIfAbsent(supertype, newSubtypes);
+
+            if (subtypes == null) {
+               subtypes = newSubtypes;
+            }
+         }
+
+         subtypes.put(typeDesc, Boolean.TRUE);
+      }
+   }
+
+   /**
+    * Returns the internal names of the direct supertypes of the given type, or <tt>null</tt> if it hasn't been loaded yet.
+    */
+   @Nullable
+   String[] getSupertypes(@Nonnull String typeDesc) { return supertypesByType.get(typeDesc); }
+
+   /**
+    * Finds all loaded classes which are direct or indirect subtypes of the given base type, according to the index.
+    * Since the index only knows type names, each class found (by any class loader) is checked to actually be assignable to the base
+    * type.
+    */
+   @Nonnull
+   List<Class<?>> findLoadedSubtypes(@Nonnull Class<?> baseType) {
+      List<Class<?>> loadedSubtypes = new ArrayList<>();
+      Set<String> visitedTypes = new HashSet<>();
+      Deque<String> typesToVisit = new ArrayDeque<>();
+      typesToVisit.add(internalName(baseType));
+
+      while (!typesToVisit.isEmpty()) {
+         Map<String, Boolean> subtypes = subtypesByType.get(typesToVisit.remove());
+
+         if (subtypes != null) {
+            for (String subtype : subtypes.keySet()) {
+               if (visitedTypes.add(subtype)) {
+                  typesToVisit.add(subtype);
+
+                  for (Class<?> loadedSubtype : Startup.getClassesIfLoaded(subtype)) {
+                     if (baseType.isAssignableFrom(loadedSubtype)) {
+                        loadedSubtypes.add(loadedSubtype);
+                     }
+                  }
+               }
+            }
+         }
+      }
+
+      return loadedSubtypes;
+   }
+}
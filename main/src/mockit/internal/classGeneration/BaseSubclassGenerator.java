@@ -11,7 +11,6 @@ import static java.util.Arrays.*;
 
 import mockit.asm.classes.*;
 import mockit.asm.fields.*;
-import mockit.asm.metadata.*;
 import mockit.asm.metadata.ClassMetadataReader.*;
 import mockit.asm.jvmConstants.*;
 import mockit.asm.methods.*;
@@ -48,6 +47,21 @@ public class BaseSubclassGenerator extends BaseClassModifier
       implementedMethods = new ArrayList<>();
    }
 
+   @Nullable @Override
+   public String getCacheKeyParameters() {
+      String mockedTypeDescription = "";
+
+      if (mockedTypeInfo != null) {
+         mockedTypeDescription = mockedTypeInfo.typeDescriptionForCacheKey;
+
+         if (mockedTypeDescription == null) {
+            return null;
+         }
+      }
+
+      return subclassName + ' ' + mockedTypeDescription + ' ' + copyConstructors + ' ' + getClassLoadingBridgeHostForCacheKey();
+   }
+
    @Override
    public void visit(int version, int access, @Nonnull String name, @Nonnull ClassInfo additionalInfo) {
       ClassInfo subClassInfo = new ClassInfo();
@@ -146,15 +160,14 @@ public class BaseSubclassGenerator extends BaseClassModifier
 
    private void generateImplementationsForAbstractMethods(@Nonnull String typeName, boolean abstractClass) {
       if (!"java/lang/Object".equals(typeName)) {
-         byte[] typeBytecode = ClassFile.getClassFile(typeName);
-         ClassMetadataReader cmr = new ClassMetadataReader(typeBytecode);
-         String[] interfaces = cmr.getInterfaces();
+         ClassMetadataIndex.Metadata typeMetadata = ClassMetadataIndex.getMetadata(typeName);
+         String[] interfaces = typeMetadata.getInterfaces();
 
          if (interfaces != null) {
             superInterfaces.addAll(asList(interfaces));
          }
 
-         for (MethodInfo method : cmr.getMethods()) {
+         for (MethodInfo method : typeMetadata.methods) {
             if (abstractClass) {
                generateImplementationIfAbstractMethod(typeName, method.accessFlags, method.name, method.desc, null, null);
             }
@@ -164,8 +177,7 @@ public class BaseSubclassGenerator extends BaseClassModifier
          }
 
          if (abstractClass) {
-            String superClass = cmr.getSuperClass();
-            generateImplementationsForInheritedAbstractMethods(superClass);
+            generateImplementationsForInheritedAbstractMethods(typeMetadata.superClass);
          }
       }
    }
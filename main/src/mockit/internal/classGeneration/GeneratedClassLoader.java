@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.classGeneration;
+
+import java.lang.ref.*;
+import java.util.*;
+import javax.annotation.*;
+
+/**
+ * The class loader which defines the classes generated by {@link ImplementationClass}, one for each parent class loader; so, instead of
+ * a new class loader for every generated class, all of them (for a given parent) share the same one.
+ * <p>
+ * Since a class loader can define only one class with a given name, generated class names are
+ * {@linkplain #reserveUniqueName(String) made unique} when the same one is needed again (for example, for a different parameterization
+ * of a generic type).
+ * The loaders get {@linkplain #discardLoaders() discarded} at the end of each test class, releasing the names reserved in them.
+ */
+final class GeneratedClassLoader extends ClassLoader
+{
+   /**
+    * The loader for each parent; it's held weakly so that it can be collected (with its parent) once no generated class defined by it
+    * remains reachable, each generated class holding its loader.
+    */
+   @Nonnull private static final Map<ClassLoader, Reference<GeneratedClassLoader>> loadersByParent = new WeakHashMap<>();
+
+   @Nonnull private final Set<String> reservedNames;
+
+   private GeneratedClassLoader(@Nonnull ClassLoader parent) {
+      super(parent);
+      reservedNames = new HashSet<>();
+   }
+
+   @Nonnull
+   static GeneratedClassLoader forParent(@Nonnull ClassLoader parent) {
+      synchronized (loadersByParent) {
+         Reference<GeneratedClassLoader> loaderRef = loadersByParent.get(parent);
+         GeneratedClassLoader loader = loaderRef == null ? null : loaderRef.get();
+
+         if (loader == null) {
+            loader = new GeneratedClassLoader(parent);
+            loadersByParent.put(parent, new WeakReference<>(loader));
+         }
+
+         return loader;
+      }
+   }
+
+   /**
+    * Discards the current loaders, so that classes generated from now on get defined by new ones, where all names are available again.
+    * A discarded loader is still used by the classes it defined, for as long as they remain reachable.
+    */
+   static void discardLoaders() {
+      synchronized (loadersByParent) {
+         loadersByParent.clear();
+      }
+   }
+
+   /**
+    * Reserves the desired name for a class to be defined by this loader, or, if already taken, the same name with the lowest numeric
+    * suffix still available.
+    */
+   @Nonnull
+   synchronized String reserveUniqueName(@Nonnull String desiredName) {
+      String uniqueName = desiredName;
+
+      for (int suffix = 2; !reservedNames.add(uniqueName); suffix++) {
+         uniqueName = desiredName + '_' + suffix;
+      }
+
+      return uniqueName;
+   }
+
+   @Nonnull
+   synchronized Class<?> defineGeneratedClass(@Nonnull String name, @Nonnull byte[] classfile) {
+      return defineClass(name, classfile, 0, classfile.length);
+   }
+}
@@ -32,39 +32,55 @@ public abstract class ImplementationClass<T>
 
    @Nonnull
    public final Class<T> generateClass() {
+      ClassLoader parentLoader = ClassLoad.getClassLoaderWithAccess(sourceClass);
+      GeneratedClassLoader definingLoader = GeneratedClassLoader.forParent(parentLoader);
+      String desiredClassName = generatedClassName;
+      generatedClassName = definingLoader.reserveUniqueName(desiredClassName);
+
       ClassReader classReader = ClassFile.createReaderOrGetFromCache(sourceClass);
 
       ClassVisitor modifier = createMethodBodyGenerator(classReader);
-      classReader.accept(modifier);
 
-      return defineNewClass(modifier);
+      // A name made unique depends on which classes the same loader generated before, so it's not used as part of a cache key.
+      boolean cacheable = generatedClassName.equals(desiredClassName);
+      byte[] generatedClassfile = generateClassfile(classReader, modifier, cacheable);
+
+      @SuppressWarnings("unchecked")
+      Class<T> generatedClass = (Class<T>) definingLoader.defineGeneratedClass(generatedClassName, generatedClassfile);
+      return generatedClass;
    }
 
    @Nonnull
-   protected abstract ClassVisitor createMethodBodyGenerator(@Nonnull ClassReader cr);
+   private byte[] generateClassfile(@Nonnull ClassReader classReader, @Nonnull ClassVisitor modifier, boolean cacheable) {
+      String cacheKey = null;
 
-   @Nonnull
-   private Class<T> defineNewClass(@Nonnull ClassVisitor modifier) {
-      final ClassLoader parentLoader = ClassLoad.getClassLoaderWithAccess(sourceClass);
-      final byte[] modifiedClassfile = modifier.toByteArray();
-
-      try {
-         @SuppressWarnings("unchecked")
-         Class<T> generatedClass = (Class<T>) new ClassLoader(parentLoader) {
-            @Override
-            protected Class<?> findClass(String name) throws ClassNotFoundException {
-               if (!name.equals(generatedClassName)) {
-                  return parentLoader.loadClass(name);
-               }
-
-               return defineClass(name, modifiedClassfile, 0, modifiedClassfile.length);
-            }
-         }.findClass(generatedClassName);
+      if (cacheable && modifier instanceof BaseClassModifier) {
+         cacheKey = BytecodeCache.computeKey(sourceClass, classReader, (BaseClassModifier) modifier);
 
-         return generatedClass;
+         if (cacheKey != null) {
+            BytecodeCache.Entry cachedEntry = BytecodeCache.get(cacheKey);
+
+            if (cachedEntry != null && cachedEntry.modifiedClassfile != null) {
+               return cachedEntry.modifiedClassfile;
+            }
+         }
       }
-      catch (ClassNotFoundException e) {
-         throw new RuntimeException("Unable to define class: " + generatedClassName, e);
+
+      classReader.accept(modifier);
+      byte[] generatedClassfile = modifier.toByteArray();
+
+      if (cacheKey != null) {
+         BytecodeCache.put(cacheKey, generatedClassfile, null);
       }
+
+      return generatedClassfile;
    }
+
+   @Nonnull
+   protected abstract ClassVisitor createMethodBodyGenerator(@Nonnull ClassReader cr);
+
+   /**
+    * Releases the names of the classes generated so far, which are no longer needed once the test class that generated them has ended.
+    */
+   public static void releaseGeneratedClassNames() { GeneratedClassLoader.discardLoaders(); }
 }
@@ -15,7 +15,14 @@ public final class MockedTypeInfo
    @Nonnull public final GenericTypeReflection genericTypeMap;
    @Nonnull public final String implementationSignature;
 
+   /**
+    * The full description of the mocked type, or <tt>null</tt> if it refers to type variables, whose resolution depends on where they are
+    * declared.
+    */
+   @Nullable public final String typeDescriptionForCacheKey;
+
    public MockedTypeInfo(@Nonnull Type mockedType) {
+      typeDescriptionForCacheKey = hasTypeVariables(mockedType) ? null : mockedType.getTypeName();
       Class<?> mockedClass = Utilities.getClassType(mockedType);
       genericTypeMap = new GenericTypeReflection(mockedClass, mockedType);
 
@@ -24,6 +31,50 @@ public final class MockedTypeInfo
       implementationSignature = 'L' + classDesc + signature;
    }
 
+   private static boolean hasTypeVariables(@Nonnull Type type) {
+      if (type instanceof Class<?>) {
+         return false;
+      }
+
+      if (type instanceof ParameterizedType) {
+         ParameterizedType parameterizedType = (ParameterizedType) type;
+         Type ownerType = parameterizedType.getOwnerType();
+
+         if (ownerType != null && hasTypeVariables(ownerType)) {
+            return true;
+         }
+
+         for (Type typeArg : parameterizedType.getActualTypeArguments()) {
+            if (hasTypeVariables(typeArg)) {
+               return true;
+            }
+         }
+
+         return false;
+      }
+
+      if (type instanceof WildcardType) {
+         WildcardType wildcardType = (WildcardType) type;
+         return hasAnyTypeVariables(wildcardType.getUpperBounds()) || hasAnyTypeVariables(wildcardType.getLowerBounds());
+      }
+
+      if (type instanceof GenericArrayType) {
+         return hasTypeVariables(((GenericArrayType) type).getGenericComponentType());
+      }
+
+      return true;
+   }
+
+   private static boolean hasAnyTypeVariables(@Nonnull Type[] types) {
+      for (Type type : types) {
+         if (hasTypeVariables(type)) {
+            return true;
+         }
+      }
+
+      return false;
+   }
+
    @Nonnull
    private static String getGenericClassSignature(@Nonnull Type mockedType) {
       StringBuilder signature = new StringBuilder(100);
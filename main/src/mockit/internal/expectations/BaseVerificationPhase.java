@@ -30,6 +30,8 @@ public abstract class BaseVerificationPhase extends TestOnlyPhase
       @Nullable Object mock, int mockAccess, @Nonnull String mockClassDesc, @Nonnull String mockNameAndDesc,
       @Nullable String genericSignature, boolean withRealImpl, @Nonnull Object[] args
    ) {
+      replayPhase.verifyThatInvocationsWereKept(mockClassDesc);
+
       if (pendingError != null) {
          replayPhase.failureState.setErrorThrown(pendingError);
          pendingError = null;
@@ -7,7 +7,6 @@ package mockit.internal.expectations;
 import javax.annotation.*;
 
 import mockit.internal.expectations.invocation.*;
-import mockit.internal.util.*;
 
 final class Expectation
 {
@@ -48,10 +47,7 @@ final class Expectation
    }
 
    @Nonnull
-   Class<?> getReturnType() {
-      String resolvedReturnType = invocation.getSignatureWithResolvedReturnType();
-      return TypeDescriptor.getReturnType(resolvedReturnType);
-   }
+   Class<?> getReturnType() { return getResults().getReturnType(); }
 
    void addSequenceOfReturnValues(@Nonnull Object[] values) {
       int n = values.length - 1;
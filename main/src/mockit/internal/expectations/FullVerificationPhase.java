@@ -26,15 +26,19 @@ final class FullVerificationPhase extends UnorderedVerificationPhase
       }
 
       List<Expectation> expectationsInReplayOrder = replayPhase.invocations;
+      BitSet verifiedPositions = replayPhase.verifiedPositions;
+      Map<Expectation, List<VerifiedExpectation>> verificationsByExpectation = getVerificationsByExpectation();
       List<Expectation> notVerified = new ArrayList<>();
+      int n = expectationsInReplayOrder.size();
 
-      for (int i = 0, n = expectationsInReplayOrder.size(); i < n; i++) {
+      for (int i = verifiedPositions.nextClearBit(0); i < n; i = verifiedPositions.nextClearBit(i + 1)) {
          Expectation replayExpectation = expectationsInReplayOrder.get(i);
 
          if (replayExpectation != null && isEligibleForFullVerification(replayExpectation)) {
             Object[] replayArgs = replayPhase.invocationArguments.get(i);
+            List<VerifiedExpectation> verifications = verificationsByExpectation.get(replayExpectation);
 
-            if (!wasVerified(replayExpectation, replayArgs, i)) {
+            if (!wasVerified(replayExpectation, replayArgs, i, verifications)) {
                notVerified.add(replayExpectation);
             }
          }
@@ -56,12 +60,36 @@ final class FullVerificationPhase extends UnorderedVerificationPhase
       return !replayExpectation.executedRealImplementation && replayExpectation.constraints.minInvocations <= 0;
    }
 
-   private boolean wasVerified(@Nonnull Expectation replayExpectation, @Nonnull Object[] replayArgs, @Nonnegative int expectationIndex) {
+   /**
+    * Groups the verified expectations by the replayed expectation they refer to, so that each unverified invocation is only checked
+    * against the verifications of its own expectation.
+    */
+   @Nonnull
+   private Map<Expectation, List<VerifiedExpectation>> getVerificationsByExpectation() {
+      Map<Expectation, List<VerifiedExpectation>> verificationsByExpectation = new IdentityHashMap<>();
+
+      for (VerifiedExpectation verified : executionState.verifiedExpectations) {
+         List<VerifiedExpectation> verifications = verificationsByExpectation.get(verified.expectation);
+
+         if (verifications == null) {
+            verifications = new ArrayList<>();
+            verificationsByExpectation.put(verified.expectation, verifications);
+         }
+
+         verifications.add(verified);
+      }
+
+      return verificationsByExpectation;
+   }
+
+   private boolean wasVerified(
+      @Nonnull Expectation replayExpectation, @Nonnull Object[] replayArgs, @Nonnegative int expectationIndex,
+      @Nullable List<VerifiedExpectation> verifications
+   ) {
       InvocationArguments invokedArgs = replayExpectation.invocation.arguments;
-      List<VerifiedExpectation> verifiedExpectations = executionState.verifiedExpectations;
 
-      for (VerifiedExpectation verified : verifiedExpectations) {
-         if (verified.expectation == replayExpectation) {
+      if (verifications != null) {
+         for (VerifiedExpectation verified : verifications) {
             Object[] storedArgs = invokedArgs.prepareForVerification(verified.arguments, verified.argMatchers);
             boolean argumentsMatch = invokedArgs.isMatch(replayArgs, getInstanceMap());
             invokedArgs.setValuesWithNoMatchers(storedArgs);
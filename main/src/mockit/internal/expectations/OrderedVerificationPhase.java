@@ -14,21 +14,38 @@ import mockit.internal.expectations.invocation.*;
 final class OrderedVerificationPhase extends BaseVerificationPhase
 {
    @Nonnegative private final int expectationCount;
-   @Nonnegative private int indexIncrement;
 
    OrderedVerificationPhase(@Nonnull ReplayPhase replayPhase) {
       super(replayPhase);
       discardExpectationsAndArgumentsAlreadyVerified(replayPhase.invocations);
       expectationCount = replayPhase.invocations.size();
-      indexIncrement = 1;
    }
 
+   /**
+    * Discards, for each verified expectation, the first replayed invocation of that expectation not yet discarded, in a single pass over
+    * the replay log.
+    */
    private void discardExpectationsAndArgumentsAlreadyVerified(List<Expectation> expectationsInReplayOrder) {
+      Map<Expectation, Integer> verificationCounts = new IdentityHashMap<>();
+
       for (VerifiedExpectation verified : executionState.verifiedExpectations) {
-         int i = expectationsInReplayOrder.indexOf(verified.expectation);
+         Integer count = verificationCounts.get(verified.expectation);
+         verificationCounts.put(verified.expectation, count == null ? 1 : count + 1);
+      }
+
+      for (int i = 0, n = expectationsInReplayOrder.size(); i < n && !verificationCounts.isEmpty(); i++) {
+         Expectation replayExpectation = expectationsInReplayOrder.get(i);
+         Integer count = verificationCounts.get(replayExpectation);
 
-         if (i >= 0) {
+         if (count != null) {
             expectationsInReplayOrder.set(i, null);
+
+            if (count == 1) {
+               verificationCounts.remove(replayExpectation);
+            }
+            else {
+               verificationCounts.put(replayExpectation, count - 1);
+            }
          }
       }
    }
@@ -38,31 +55,34 @@ final class OrderedVerificationPhase extends BaseVerificationPhase
       @Nullable Object mock, @Nonnull String mockClassDesc, @Nonnull String mockNameAndDesc, @Nonnull Object[] args
    ) {
       Expectation expectation = currentVerification;
-      int i = replayIndex;
+      ReplayPhase.InvocationPositions candidatePositions = replayPhase.getPositionsOfInvocations(mockNameAndDesc);
 
-      while (i >= 0 && i < expectationCount) {
-         Expectation replayExpectation = replayPhase.invocations.get(i);
-         Object replayInstance = replayPhase.invocationInstances.get(i);
-         Object[] replayArgs = replayPhase.invocationArguments.get(i);
+      for (int k = candidatePositions.indexOfFirstAtOrAfter(replayIndex), n = candidatePositions.size(); k < n; k++) {
+         int i = candidatePositions.get(k);
 
-         i += indexIncrement;
+         if (i >= expectationCount) {
+            break;
+         }
+
+         Expectation replayExpectation = replayPhase.invocations.get(i);
 
          if (replayExpectation == null) {
             continue;
          }
 
+         Object replayInstance = replayPhase.invocationInstances.get(i);
+         Object[] replayArgs = replayPhase.invocationArguments.get(i);
+
          if (!matchInstance && executionState.isToBeMatchedOnInstance(mock, mockNameAndDesc)) {
             matchInstance = true;
          }
 
          if (matches(mock, mockClassDesc, mockNameAndDesc, args, replayExpectation, replayInstance, replayArgs)) {
             currentExpectation = replayExpectation;
-            i += 1 - indexIncrement;
-            indexIncrement = 1;
-            replayIndex = i;
+            replayIndex = i + 1;
 
             if (expectation != null) {
-               expectation.constraints.invocationCount++;
+               expectation.constraints.incrementInvocationCount();
             }
 
             break;
@@ -96,13 +116,16 @@ final class OrderedVerificationPhase extends BaseVerificationPhase
       ExpectedInvocation invocation = verifying.invocation;
       argMatchers = invocation.arguments.getMatchers();
       int invocationCount = 1;
+      ReplayPhase.InvocationPositions candidatePositions = replayPhase.getPositionsOfInvocations(invocation.getMethodNameAndDescription());
+      int k = candidatePositions.indexOfFirstAtOrAfter(replayIndex);
 
       while (replayIndex < expectationCount) {
-         Expectation replayExpectation = replayPhase.invocations.get(replayIndex);
+         boolean candidate = k < candidatePositions.size() && candidatePositions.get(k) == replayIndex;
+         Expectation replayExpectation = candidate ? replayPhase.invocations.get(replayIndex) : null;
 
          if (replayExpectation != null && matchesCurrentVerification(invocation, replayExpectation)) {
             invocationCount++;
-            verifying.constraints.invocationCount++;
+            verifying.constraints.incrementInvocationCount();
 
             if (invocationCount > maxInvocations) {
                if (maxInvocations >= 0) {
@@ -115,7 +138,13 @@ final class OrderedVerificationPhase extends BaseVerificationPhase
          else if (invocationCount >= minInvocations) {
             break;
          }
+         else if (!candidate) {
+            // Invocations to other methods can't match, so they are skipped until the next one to the same method, if any.
+            replayIndex = k < candidatePositions.size() ? Math.min(candidatePositions.get(k), expectationCount) : expectationCount;
+            continue;
+         }
 
+         k++;
          replayIndex++;
       }
 
@@ -149,7 +178,7 @@ final class OrderedVerificationPhase extends BaseVerificationPhase
 
    private void verifyMaxInvocations(@Nonnull Expectation verifying, int maxInvocations) {
       if (maxInvocations >= 0) {
-         int n = verifying.constraints.invocationCount - maxInvocations;
+         int n = verifying.constraints.getInvocationCount() - maxInvocations;
 
          if (n > 0) {
             Object[] replayArgs = replayPhase.invocationArguments.get(replayIndex - 1);
@@ -20,7 +20,6 @@ import static mockit.internal.util.Utilities.*;
 public final class RecordAndReplayExecution
 {
    public static final ReentrantLock RECORD_OR_REPLAY_LOCK = new ReentrantLock();
-   public static final ReentrantLock TEST_ONLY_PHASE_LOCK = new ReentrantLock();
 
    @Nullable private final PartialMocking partialMocking;
    @Nonnull  private final PhasedExecutionState executionState;
@@ -54,7 +53,7 @@ public final class RecordAndReplayExecution
          discoverMockedTypesAndInstancesForMatchingOnInstance();
 
          //noinspection LockAcquiredButNotSafelyReleased
-         TEST_ONLY_PHASE_LOCK.lock();
+         executingTest.getTestOnlyPhaseLock().lock();
       }
       catch (RuntimeException e) {
          executingTest.setRecordAndReplay(null);
@@ -147,9 +146,11 @@ public final class RecordAndReplayExecution
    }
 
    private static boolean notToBeMocked(@Nullable Object mock, @Nonnull String classDesc) {
+      ReentrantLock testOnlyPhaseLock = TestRun.getExecutingTest().getTestOnlyPhaseLock();
+
       return
          RECORD_OR_REPLAY_LOCK.isHeldByCurrentThread() ||
-         TEST_ONLY_PHASE_LOCK.isLocked() && !TEST_ONLY_PHASE_LOCK.isHeldByCurrentThread() ||
+         testOnlyPhaseLock.isLocked() && !testOnlyPhaseLock.isHeldByCurrentThread() ||
          !TestRun.mockFixture().isStillMocked(mock, classDesc);
    }
 
@@ -296,6 +297,7 @@ public final class RecordAndReplayExecution
          verificationPhase = new UnorderedVerificationPhase(replayPhase);
       }
       else {
+         replayPhase.verifyThatAllInvocationsWereKept();
          verificationPhase = new FullVerificationPhase(replayPhase, mockedTypesAndInstancesToVerify);
       }
 
@@ -310,8 +312,10 @@ public final class RecordAndReplayExecution
 
    @Nullable
    private Error endExecution() {
-      if (TEST_ONLY_PHASE_LOCK.isLocked()) {
-         TEST_ONLY_PHASE_LOCK.unlock();
+      ReentrantLock testOnlyPhaseLock = TestRun.getExecutingTest().getTestOnlyPhaseLock();
+
+      if (testOnlyPhaseLock.isLocked()) {
+         testOnlyPhaseLock.unlock();
       }
 
       ReplayPhase replay = switchFromRecordToReplayIfNotYet();
@@ -345,7 +349,7 @@ public final class RecordAndReplayExecution
    }
 
    void endInvocations() {
-      TEST_ONLY_PHASE_LOCK.unlock();
+      TestRun.getExecutingTest().getTestOnlyPhaseLock().unlock();
 
       if (verificationPhase == null) {
          switchFromRecordToReplayIfNotYet();
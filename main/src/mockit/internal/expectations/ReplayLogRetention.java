@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.expectations;
+
+import java.util.*;
+import javax.annotation.*;
+
+/**
+ * Selects the mocked types whose invocations are only counted during replay, instead of being kept in the replay log together with their
+ * mock instances and arguments, so that a test making millions of calls to mocks it never verifies doesn't keep all those arguments
+ * reachable.
+ * <p>
+ * The types are those declaring the mocked methods or constructors, as given by the <tt>jmockit-countOnlyMocks</tt> system property (a
+ * comma-separated list of fully qualified class names), or chosen for a single test through
+ * {@link mockit.internal.expectations.state.ExecutingTest#setReplayLogRetention(ReplayLogRetention)}.
+ * Recorded expectations still get their invocation counts checked, and verifications of other mocked types work as usual; a verification
+ * of an invocation to a count-only type, or a full verification, fails instead of giving a wrong result.
+ */
+public final class ReplayLogRetention
+{
+   @Nonnull static final ReplayLogRetention CONFIGURED = new ReplayLogRetention(System.getProperty("jmockit-countOnlyMocks", ""));
+
+   @Nonnull private final Set<String> countOnlyTypeDescs;
+
+   ReplayLogRetention(@Nonnull String commaSeparatedClassNames) {
+      countOnlyTypeDescs = new HashSet<>();
+
+      for (String className : commaSeparatedClassNames.split(",")) {
+         String trimmedName = className.trim();
+
+         if (!trimmedName.isEmpty()) {
+            countOnlyTypeDescs.add(trimmedName.replace('.', '/'));
+         }
+      }
+   }
+
+   public ReplayLogRetention(@Nonnull Class<?>... countOnlyTypes) {
+      countOnlyTypeDescs = new HashSet<>(countOnlyTypes.length * 2);
+
+      for (Class<?> countOnlyType : countOnlyTypes) {
+         countOnlyTypeDescs.add(countOnlyType.getName().replace('.', '/'));
+      }
+   }
+
+   boolean isCountOnly(@Nonnull String mockClassDesc) {
+      return countOnlyTypeDescs.contains(mockClassDesc);
+   }
+}
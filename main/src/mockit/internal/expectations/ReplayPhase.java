@@ -8,20 +8,77 @@ import java.util.*;
 import javax.annotation.*;
 
 import mockit.internal.expectations.invocation.*;
+import mockit.internal.state.*;
 
 final class ReplayPhase extends Phase
 {
+   /**
+    * The positions in the replay log of the invocations to a given method.
+    */
+   static final class InvocationPositions {
+      @Nonnull private int[] positions;
+      @Nonnegative private int count;
+
+      InvocationPositions() { positions = new int[4]; }
+
+      void add(@Nonnegative int position) {
+         if (count == positions.length) {
+            positions = Arrays.copyOf(positions, 2 * count);
+         }
+
+         positions[count++] = position;
+      }
+
+      @Nonnegative int size() { return count; }
+      @Nonnegative int get(@Nonnegative int index) { return positions[index]; }
+
+      /**
+       * Finds the index of the first position not before the given one, or the {@linkplain #size() size} if there is none.
+       */
+      @Nonnegative
+      int indexOfFirstAtOrAfter(@Nonnegative int position) {
+         int index = Arrays.binarySearch(positions, 0, count, position);
+         return index >= 0 ? index : -index - 1;
+      }
+   }
+
+   @Nonnull private static final InvocationPositions NO_POSITIONS = new InvocationPositions();
+   private static final String RETENTION_SETTING = "(see the jmockit-countOnlyMocks system property)";
+
    @Nonnull final FailureState failureState;
+
+   /**
+    * The types whose invocations are only counted, rather than kept in the replay log, and those among them which had invocations.
+    */
+   @Nonnull private final ReplayLogRetention retention;
+   @Nonnull private final Set<String> countOnlyMockClasses;
+
    @Nonnull final List<Expectation> invocations;
    @Nonnull final List<Object> invocationInstances;
    @Nonnull final List<Object[]> invocationArguments;
 
+   /**
+    * The positions of the replayed invocations by method name (not by class, since a verification on a captured base type matches
+    * invocations on its implementation classes), so that a verification only visits the invocations it can possibly match.
+    */
+   @Nonnull private final Map<String, InvocationPositions> positionsByMethodName;
+
+   /**
+    * The positions of the replayed invocations matched by unordered verifications, which need no further checking in a full verification.
+    */
+   @Nonnull final BitSet verifiedPositions;
+
    ReplayPhase(@Nonnull PhasedExecutionState executionState, @Nonnull FailureState failureState) {
       super(executionState);
       this.failureState = failureState;
+      ReplayLogRetention retentionForTest = TestRun.getExecutingTest().getReplayLogRetention();
+      retention = retentionForTest == null ? ReplayLogRetention.CONFIGURED : retentionForTest;
+      countOnlyMockClasses = new HashSet<>();
       invocations = new ArrayList<>();
       invocationInstances = new ArrayList<>();
       invocationArguments = new ArrayList<>();
+      positionsByMethodName = new HashMap<>();
+      verifiedPositions = new BitSet();
    }
 
    @Override @Nullable
@@ -41,12 +98,73 @@ final class ReplayPhase extends Phase
          registerNewInstanceAsEquivalentToOneFromRecordedConstructorInvocation(mock, expectation.invocation);
       }
 
+      addToReplayLog(expectation, mock, mockClassDesc, mockNameAndDesc, args);
+      expectation.constraints.incrementInvocationCount();
+
+      return produceResult(expectation, mock, withRealImpl, args);
+   }
+
+   private void addToReplayLog(
+      @Nonnull Expectation expectation, @Nullable Object mock, @Nonnull String mockClassDesc, @Nonnull String mockNameAndDesc,
+      @Nonnull Object[] args
+   ) {
+      if (retention.isCountOnly(mockClassDesc)) {
+         countOnlyMockClasses.add(mockClassDesc);
+         return;
+      }
+
+      addToPositionsOfInvocations(mockNameAndDesc, invocations.size());
       invocations.add(expectation);
       invocationInstances.add(mock);
       invocationArguments.add(args);
-      expectation.constraints.incrementInvocationCount();
+   }
 
-      return produceResult(expectation, mock, withRealImpl, args);
+   private void addToPositionsOfInvocations(@Nonnull String mockNameAndDesc, @Nonnegative int position) {
+      String methodName = getMethodName(mockNameAndDesc);
+      InvocationPositions positions = positionsByMethodName.get(methodName);
+
+      if (positions == null) {
+         positions = new InvocationPositions();
+         positionsByMethodName.put(methodName, positions);
+      }
+
+      positions.add(position);
+   }
+
+   @Nonnull
+   private static String getMethodName(@Nonnull String methodNameAndDesc) {
+      return methodNameAndDesc.substring(0, methodNameAndDesc.indexOf('('));
+   }
+
+   /**
+    * Gets the positions in replay order of the invocations to methods having the same name as the given one, which include all those that
+    * can match an invocation to it.
+    */
+   @Nonnull
+   InvocationPositions getPositionsOfInvocations(@Nonnull String methodNameAndDesc) {
+      InvocationPositions positions = positionsByMethodName.get(getMethodName(methodNameAndDesc));
+      return positions == null ? NO_POSITIONS : positions;
+   }
+
+   /**
+    * Fails if invocations to the given mocked type were only counted, in which case a verification would give a wrong result.
+    */
+   void verifyThatInvocationsWereKept(@Nonnull String mockClassDesc) {
+      if (countOnlyMockClasses.contains(mockClassDesc)) {
+         throw new IllegalStateException(
+            "Unable to verify invocations to " + mockClassDesc.replace('/', '.') + ", which were only counted " + RETENTION_SETTING);
+      }
+   }
+
+   /**
+    * Fails if any invocation was only counted, in which case a full verification would give a wrong result.
+    */
+   void verifyThatAllInvocationsWereKept() {
+      if (!countOnlyMockClasses.isEmpty()) {
+         throw new IllegalStateException(
+            "Unable to fully verify invocations, as those to " + countOnlyMockClasses.toString().replace('/', '.') +
+            " were only counted " + RETENTION_SETTING);
+      }
    }
 
    @Nonnull
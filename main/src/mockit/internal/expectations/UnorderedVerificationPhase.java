@@ -28,19 +28,22 @@ class UnorderedVerificationPhase extends BaseVerificationPhase
 
       replayIndex = -1;
       List<Expectation> expectationsInReplayOrder = replayPhase.invocations;
+      ReplayPhase.InvocationPositions candidatePositions = replayPhase.getPositionsOfInvocations(mockNameAndDesc);
       Expectation verification = currentVerification;
       List<ExpectedInvocation> matchingInvocationsWithDifferentArgs = new ArrayList<>();
 
-      for (int i = 0, n = expectationsInReplayOrder.size(); i < n; i++) {
+      for (int k = 0, n = candidatePositions.size(); k < n; k++) {
+         int i = candidatePositions.get(k);
          Expectation replayExpectation = expectationsInReplayOrder.get(i);
          Object replayInstance = replayPhase.invocationInstances.get(i);
          Object[] replayArgs = replayPhase.invocationArguments.get(i);
 
          if (matches(mock, mockClassDesc, mockNameAndDesc, args, replayExpectation, replayInstance, replayArgs)) {
             replayIndex = i;
+            replayPhase.verifiedPositions.set(i);
 
             if (verification != null) {
-               verification.constraints.invocationCount++;
+               verification.constraints.incrementInvocationCount();
             }
 
             currentExpectation = replayExpectation;
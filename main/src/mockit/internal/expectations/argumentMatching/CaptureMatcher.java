@@ -5,14 +5,20 @@
 package mockit.internal.expectations.argumentMatching;
 
 import java.util.*;
+import java.util.function.*;
 import javax.annotation.*;
 
 public final class CaptureMatcher<T> implements ArgumentMatcher<CaptureMatcher<T>>
 {
-   @Nonnull private final List<T> valueHolder;
+   @Nonnull private final Consumer<? super T> valueConsumer;
    @Nullable private Class<?> expectedType;
 
-   public CaptureMatcher(@Nonnull List<T> valueHolder) { this.valueHolder = valueHolder; }
+   public CaptureMatcher(@Nonnull List<T> valueHolder) { valueConsumer = valueHolder::add; }
+
+   /**
+    * Creates a matcher which hands each captured value to the given consumer as soon as it gets matched, without holding on to it.
+    */
+   public CaptureMatcher(@Nonnull Consumer<? super T> valueConsumer) { this.valueConsumer = valueConsumer; }
 
    public void setExpectedType(@Nonnull Class<?> expectedType) { this.expectedType = expectedType; }
 
@@ -23,7 +29,7 @@ public final class CaptureMatcher<T> implements ArgumentMatcher<CaptureMatcher<T
    public boolean matches(@Nullable Object argValue) {
       if (expectedType == null || expectedType.isInstance(argValue) || argValue == null && !expectedType.isPrimitive()) {
          //noinspection unchecked
-         valueHolder.add((T) argValue);
+         valueConsumer.accept((T) argValue);
       }
 
       return true;
@@ -4,7 +4,6 @@
  */
 package mockit.internal.expectations.argumentMatching;
 
-import java.lang.reflect.*;
 import javax.annotation.*;
 
 import mockit.*;
@@ -13,7 +12,7 @@ import mockit.internal.reflection.*;
 public final class ReflectiveMatcher implements ArgumentMatcher<ReflectiveMatcher>
 {
    @Nonnull private final Delegate<?> delegate;
-   @Nullable private Method handlerMethod;
+   @Nullable private MethodInvoker handlerMethod;
    @Nullable private Object matchedValue;
 
    public ReflectiveMatcher(@Nonnull Delegate<?> delegate) { this.delegate = delegate; }
@@ -24,11 +23,11 @@ public final class ReflectiveMatcher implements ArgumentMatcher<ReflectiveMatche
    @Override
    public boolean matches(@Nullable Object argValue) {
       if (handlerMethod == null) {
-         handlerMethod = MethodReflection.findNonPrivateHandlerMethod(delegate);
+         handlerMethod = MethodReflection.getHandlerMethodInvoker(delegate);
       }
 
       matchedValue = argValue;
-      Boolean result = MethodReflection.invoke(delegate, handlerMethod, argValue);
+      Boolean result = handlerMethod.invoke(delegate, new Object[] {argValue});
 
       return result == null || result;
    }
@@ -36,7 +35,7 @@ public final class ReflectiveMatcher implements ArgumentMatcher<ReflectiveMatche
    @Override
    public void writeMismatchPhrase(@Nonnull ArgumentMismatch argumentMismatch) {
       if (handlerMethod != null) {
-         argumentMismatch.append(handlerMethod.getName()).append('(');
+         argumentMismatch.append(handlerMethod.getMethod().getName()).append('(');
          argumentMismatch.appendFormatted(matchedValue);
          argumentMismatch.append(") (should return true, was false)");
       }
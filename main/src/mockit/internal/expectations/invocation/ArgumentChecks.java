@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.expectations.invocation;
+
+import java.util.*;
+import javax.annotation.*;
+
+import mockit.internal.expectations.argumentMatching.*;
+import mockit.internal.util.*;
+
+/**
+ * The checks for the regular (non-varargs) arguments of an invocation, compiled once from the values and matchers recorded or verified
+ * for it into a fixed chain specialized by each expected value, so that matching an invocation doesn't have to look up matchers, create
+ * equality matchers, and go through generic equality for every argument.
+ */
+final class ArgumentChecks
+{
+   private abstract static class Check {
+      abstract boolean matches(@Nullable Object actual, @Nonnull Map<Object, Object> instanceMap);
+   }
+
+   /**
+    * Checks an argument for which no value was given while matchers were used for other arguments.
+    */
+   private static final Check ANY_VALUE = new Check() {
+      @Override
+      boolean matches(@Nullable Object actual, @Nonnull Map<Object, Object> instanceMap) { return true; }
+   };
+
+   private static final Check NULL_VALUE = new Check() {
+      @Override
+      boolean matches(@Nullable Object actual, @Nonnull Map<Object, Object> instanceMap) { return actual == null; }
+   };
+
+   private static final class MatcherCheck extends Check {
+      @Nonnull private final ArgumentMatcher<?> matcher;
+      MatcherCheck(@Nonnull ArgumentMatcher<?> matcher) { this.matcher = matcher; }
+
+      @Override
+      boolean matches(@Nullable Object actual, @Nonnull Map<Object, Object> instanceMap) { return matcher.matches(actual); }
+   }
+
+   /**
+    * Checks an argument against a value which can be equal to a mocked instance, so the instance map gets looked up.
+    */
+   private static class ValueCheck extends Check {
+      @Nonnull final Object expected;
+      ValueCheck(@Nonnull Object expected) { this.expected = expected; }
+
+      @Override
+      boolean matches(@Nullable Object actual, @Nonnull Map<Object, Object> instanceMap) {
+         return
+            actual == expected ||
+            actual != null && (instanceMap.get(actual) == expected || EqualityMatcher.areEqualWhenNonNull(actual, expected));
+      }
+   }
+
+   /**
+    * Checks an argument against a string or a boxed primitive value, which can't be a mocked instance.
+    */
+   private static final class ImmutableValueCheck extends ValueCheck {
+      ImmutableValueCheck(@Nonnull Object expected) { super(expected); }
+
+      @Override
+      boolean matches(@Nullable Object actual, @Nonnull Map<Object, Object> instanceMap) {
+         return actual == expected || actual != null && actual.equals(expected);
+      }
+   }
+
+   /**
+    * Checks an argument against a primitive array, comparing the elements without boxing them when the argument is an array of the same
+    * type.
+    */
+   private static final class PrimitiveArrayCheck extends ValueCheck {
+      PrimitiveArrayCheck(@Nonnull Object expected) { super(expected); }
+
+      @Override
+      boolean matches(@Nullable Object actual, @Nonnull Map<Object, Object> instanceMap) {
+         if (actual == expected) {
+            return true;
+         }
+
+         if (actual == null) {
+            return false;
+         }
+
+         if (actual.getClass() != expected.getClass()) {
+            return EqualityMatcher.areEqualWhenNonNull(actual, expected);
+         }
+
+         if (expected instanceof int[])     return Arrays.equals((int[]) actual, (int[]) expected);
+         if (expected instanceof long[])    return Arrays.equals((long[]) actual, (long[]) expected);
+         if (expected instanceof byte[])    return Arrays.equals((byte[]) actual, (byte[]) expected);
+         if (expected instanceof char[])    return Arrays.equals((char[]) actual, (char[]) expected);
+         if (expected instanceof boolean[]) return Arrays.equals((boolean[]) actual, (boolean[]) expected);
+         if (expected instanceof double[])  return Arrays.equals((double[]) actual, (double[]) expected);
+         if (expected instanceof float[])   return Arrays.equals((float[]) actual, (float[]) expected);
+         return Arrays.equals((short[]) actual, (short[]) expected);
+      }
+   }
+
+   @Nonnull private final Object[] values;
+   @Nullable private final List<ArgumentMatcher<?>> matchers;
+   @Nonnull private final Check[] checks;
+
+   ArgumentChecks(@Nonnull ArgumentValuesAndMatchers valuesAndMatchers, @Nonnegative int parameterCount) {
+      values = valuesAndMatchers.values;
+      matchers = valuesAndMatchers.matchers;
+      checks = new Check[parameterCount];
+
+      for (int i = 0; i < parameterCount; i++) {
+         ArgumentMatcher<?> matcher = valuesAndMatchers.getArgumentMatcher(i);
+
+         if (matcher == null) {
+            checks[i] = createCheck(values[i]);
+         }
+         else if (matcher == AlwaysTrueMatcher.ANY_VALUE) {
+            checks[i] = ANY_VALUE;
+         }
+         else {
+            checks[i] = new MatcherCheck(matcher);
+         }
+      }
+   }
+
+   @Nonnull
+   private static Check createCheck(@Nullable Object expected) {
+      if (expected == null) {
+         return NULL_VALUE;
+      }
+
+      Class<?> expectedType = expected.getClass();
+
+      if (expectedType == String.class || AutoBoxing.isWrapperOfPrimitiveType(expectedType)) {
+         return new ImmutableValueCheck(expected);
+      }
+
+      if (expectedType.isArray() && expectedType.getComponentType().isPrimitive()) {
+         return new PrimitiveArrayCheck(expected);
+      }
+
+      return new ValueCheck(expected);
+   }
+
+   /**
+    * Tells whether these checks were compiled from the current values and matchers, which get replaced as a whole whenever they change.
+    */
+   boolean isFor(@Nonnull ArgumentValuesAndMatchers valuesAndMatchers, @Nonnegative int parameterCount) {
+      return values == valuesAndMatchers.values && matchers == valuesAndMatchers.matchers && checks.length == parameterCount;
+   }
+
+   boolean areMatching(@Nonnull Object[] actualValues, @Nonnull Map<Object, Object> instanceMap) {
+      for (int i = 0; i < checks.length; i++) {
+         if (!checks[i].matches(actualValues[i], instanceMap)) {
+            return false;
+         }
+      }
+
+      return true;
+   }
+}
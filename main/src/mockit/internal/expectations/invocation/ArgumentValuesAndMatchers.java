@@ -14,6 +14,7 @@ abstract class ArgumentValuesAndMatchers
    @Nonnull final InvocationArguments signature;
    @Nonnull Object[] values;
    @Nullable List<ArgumentMatcher<?>> matchers;
+   @Nullable private ArgumentChecks argumentChecks;
 
    ArgumentValuesAndMatchers(@Nonnull InvocationArguments signature, @Nonnull Object[] values) {
       this.signature = signature;
@@ -49,6 +50,21 @@ abstract class ArgumentValuesAndMatchers
       return matcher;
    }
 
+   /**
+    * Gets the checks for the first <tt>parameterCount</tt> arguments, compiled from the current values and matchers if not yet done.
+    */
+   @Nonnull
+   final ArgumentChecks getArgumentChecks(@Nonnegative int parameterCount) {
+      ArgumentChecks checks = argumentChecks;
+
+      if (checks == null || !checks.isFor(this, parameterCount)) {
+         checks = new ArgumentChecks(this, parameterCount);
+         argumentChecks = checks;
+      }
+
+      return checks;
+   }
+
    abstract boolean isMatch(@Nonnull Object[] replayArgs, @Nonnull Map<Object, Object> instanceMap);
 
    static boolean areEqual(
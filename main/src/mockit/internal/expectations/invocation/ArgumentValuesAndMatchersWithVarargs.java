@@ -55,7 +55,7 @@ final class ArgumentValuesAndMatchersWithVarargs extends ArgumentValuesAndMatche
    private boolean areEqual(@Nonnull Object[] replayArgs, @Nonnull Map<Object, Object> instanceMap) {
       int argCount = replayArgs.length;
 
-      if (!areEqual(values, replayArgs, argCount - 1, instanceMap)) {
+      if (!getArgumentChecks(argCount - 1).areMatching(replayArgs, instanceMap)) {
          return false;
       }
 
@@ -17,26 +17,7 @@ final class ArgumentValuesAndMatchersWithoutVarargs extends ArgumentValuesAndMat
 
    @Override
    boolean isMatch(@Nonnull Object[] replayArgs, @Nonnull Map<Object, Object> instanceMap) {
-      if (matchers == null) {
-         return areEqual(values, replayArgs, replayArgs.length, instanceMap);
-      }
-
-      for (int i = 0; i < replayArgs.length; i++) {
-         Object actual = replayArgs[i];
-         ArgumentMatcher<?> expected = getArgumentMatcher(i);
-
-         if (expected == null) {
-            Object arg = values[i];
-            if (arg == null) continue;
-            expected = new LenientEqualityMatcher(arg, instanceMap);
-         }
-
-         if (!expected.matches(actual)) {
-            return false;
-         }
-      }
-
-      return true;
+      return getArgumentChecks(values.length).areMatching(replayArgs, instanceMap);
    }
 
    @Override
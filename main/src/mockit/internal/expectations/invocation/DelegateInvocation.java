@@ -19,7 +19,7 @@ final class DelegateInvocation extends BaseInvocation
       @Nullable Object invokedInstance, @Nonnull Object[] invokedArguments, @Nonnull ExpectedInvocation expectedInvocation,
       @Nonnull InvocationConstraints constraints
    ) {
-      super(invokedInstance, invokedArguments, constraints.invocationCount);
+      super(invokedInstance, invokedArguments, constraints.getInvocationCount());
       invocationArguments = expectedInvocation.arguments;
    }
 
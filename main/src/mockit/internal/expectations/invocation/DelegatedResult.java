@@ -4,12 +4,10 @@
  */
 package mockit.internal.expectations.invocation;
 
-import java.lang.reflect.*;
 import java.util.concurrent.locks.*;
 import javax.annotation.*;
 
 import mockit.*;
-import mockit.asm.types.*;
 import mockit.internal.expectations.*;
 import mockit.internal.reflection.*;
 import mockit.internal.state.*;
@@ -22,20 +20,23 @@ final class DelegatedResult extends InvocationResult
 
    @Nonnull private final ExpectedInvocation recordedInvocation;
    @Nonnull private final Object targetObject;
-   @Nonnull private final Method methodToInvoke;
+   @Nonnull private final MethodInvoker methodToInvoke;
    @Nonnull private final Class<?> targetReturnType;
+   @Nonnull private final ReturnTypeConversion.Converter returnValueConverter;
    private final boolean hasInvocationParameter;
    private final int numberOfRegularParameters;
 
-   DelegatedResult(@Nonnull ExpectedInvocation recordedInvocation, @Nonnull Delegate<?> delegate) {
+   DelegatedResult(
+      @Nonnull ExpectedInvocation recordedInvocation, @Nonnull Delegate<?> delegate,
+      @Nonnull ReturnTypeConversion.Converter returnValueConverter
+   ) {
       this.recordedInvocation = recordedInvocation;
       targetObject = delegate;
-      methodToInvoke = findNonPrivateHandlerMethod(delegate);
-
-      JavaType returnType = JavaType.getReturnType(recordedInvocation.getMethodNameAndDescription());
-      targetReturnType = TypeDescriptor.getClassForType(returnType);
+      methodToInvoke = getHandlerMethodInvoker(delegate);
+      targetReturnType = returnValueConverter.returnType;
+      this.returnValueConverter = returnValueConverter;
 
-      Class<?>[] parameters = methodToInvoke.getParameterTypes();
+      Class<?>[] parameters = methodToInvoke.getMethod().getParameterTypes();
       int n = parameters.length;
 
       hasInvocationParameter = n > 0 && parameters[0] == Invocation.class;
@@ -86,8 +87,8 @@ final class DelegatedResult extends InvocationResult
 
    @Nullable
    private Object executeTargetMethod(@Nonnull Object[] args) {
-      Object returnValue = invoke(targetObject, methodToInvoke, args);
-      Class<?> fromReturnType = methodToInvoke.getReturnType();
+      Object returnValue = methodToInvoke.invoke(targetObject, args);
+      Class<?> fromReturnType = methodToInvoke.getMethod().getReturnType();
 
       if (returnValue == null || targetReturnType.isInstance(returnValue)) {
          if (fromReturnType == void.class && fromReturnType != targetReturnType && targetReturnType.isPrimitive()) {
@@ -101,8 +102,7 @@ final class DelegatedResult extends InvocationResult
          return returnValue;
       }
 
-      ReturnTypeConversion typeConversion = new ReturnTypeConversion(recordedInvocation, targetReturnType, returnValue);
-      @Nonnull Object convertedReturnValue = typeConversion.getConvertedValue();
+      @Nonnull Object convertedReturnValue = returnValueConverter.convert(returnValue);
       return convertedReturnValue;
    }
 }
\ No newline at end of file
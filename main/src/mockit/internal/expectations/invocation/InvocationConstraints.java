@@ -5,15 +5,17 @@
 package mockit.internal.expectations.invocation;
 
 import java.util.*;
+import java.util.concurrent.atomic.*;
 import javax.annotation.*;
 
 public final class InvocationConstraints
 {
    public int minInvocations;
    private int maxInvocations;
-   @Nonnegative public int invocationCount;
+   @Nonnull private final AtomicInteger invocationCount;
 
    public InvocationConstraints(boolean nonStrictInvocation) {
+      invocationCount = new AtomicInteger();
       setLimits(nonStrictInvocation ? 0 : 1, -1);
    }
 
@@ -30,18 +32,23 @@ public final class InvocationConstraints
 
    void setUnlimitedMaxInvocations() { maxInvocations = -1; }
 
-   public void incrementInvocationCount() { invocationCount++; }
+   @Nonnegative
+   public int getInvocationCount() { return invocationCount.get(); }
 
-   public boolean isInvocationCountLessThanMinimumExpected() { return invocationCount < minInvocations; }
+   public void incrementInvocationCount() { invocationCount.incrementAndGet(); }
+
+   public boolean isInvocationCountLessThanMinimumExpected() { return invocationCount.get() < minInvocations; }
 
    public boolean isInvocationCountMoreThanMaximumExpected() {
-      return maxInvocations >= 0 && invocationCount > maxInvocations;
+      return maxInvocations >= 0 && invocationCount.get() > maxInvocations;
    }
 
    @Nullable
    public Error verifyLowerLimit(@Nonnull ExpectedInvocation invocation, int lowerLimit) {
-      if (invocationCount < lowerLimit) {
-         int missingInvocations = lowerLimit - invocationCount;
+      int timesInvoked = invocationCount.get();
+
+      if (timesInvoked < lowerLimit) {
+         int missingInvocations = lowerLimit - timesInvoked;
          return invocation.errorForMissingInvocations(missingInvocations, Collections.<ExpectedInvocation>emptyList());
       }
 
@@ -51,7 +58,7 @@ public final class InvocationConstraints
    @Nullable
    public Error verifyUpperLimit(@Nonnull ExpectedInvocation invocation, @Nonnull Object[] replayArgs, int upperLimit) {
       if (upperLimit >= 0) {
-         int unexpectedInvocations = invocationCount - upperLimit;
+         int unexpectedInvocations = invocationCount.get() - upperLimit;
 
          if (unexpectedInvocations > 0) {
             return invocation.errorForUnexpectedInvocations(replayArgs, unexpectedInvocations);
@@ -65,6 +72,6 @@ public final class InvocationConstraints
    public Error errorForMissingExpectations(
       @Nonnull ExpectedInvocation invocation, @Nonnull List<ExpectedInvocation> nonMatchingInvocations
    ) {
-      return invocation.errorForMissingInvocations(minInvocations - invocationCount, nonMatchingInvocations);
+      return invocation.errorForMissingInvocations(minInvocations - invocationCount.get(), nonMatchingInvocations);
    }
 }
@@ -9,7 +9,9 @@ import java.util.*;
 import javax.annotation.*;
 
 import mockit.*;
+import mockit.asm.types.*;
 import mockit.internal.expectations.invocation.InvocationResult.*;
+import mockit.internal.util.*;
 
 public final class InvocationResults
 {
@@ -18,6 +20,8 @@ public final class InvocationResults
    @Nullable private InvocationResult currentResult;
    @Nullable private InvocationResult lastResult;
    @Nonnegative private int resultCount;
+   @Nullable private Class<?> returnType;
+   @Nullable private ReturnTypeConversion.Converter delegatedResultConverter;
 
    public InvocationResults(@Nonnull ExpectedInvocation invocation, @Nonnull InvocationConstraints constraints) {
       this.invocation = invocation;
@@ -34,10 +38,44 @@ public final class InvocationResults
    }
 
    public void addDelegatedResult(@Nonnull Delegate<?> delegate) {
-      InvocationResult result = new DelegatedResult(invocation, delegate);
+      InvocationResult result = new DelegatedResult(invocation, delegate, getDelegatedResultConverter());
       addResult(result);
    }
 
+   /**
+    * Returns the return type of the recorded method, as resolved from its generic signature when applicable, which is only done for the
+    * first result recorded.
+    */
+   @Nonnull
+   public Class<?> getReturnType() {
+      Class<?> resolvedReturnType = returnType;
+
+      if (resolvedReturnType == null) {
+         String resolvedSignature = invocation.getSignatureWithResolvedReturnType();
+         resolvedReturnType = TypeDescriptor.getReturnType(resolvedSignature);
+         returnType = resolvedReturnType;
+      }
+
+      return resolvedReturnType;
+   }
+
+   /**
+    * Returns the converter for the values returned by delegate methods, which is shared by all delegates recorded for the expectation so
+    * that the conversion to the return type of the recorded method is resolved only once.
+    */
+   @Nonnull
+   private ReturnTypeConversion.Converter getDelegatedResultConverter() {
+      ReturnTypeConversion.Converter converter = delegatedResultConverter;
+
+      if (converter == null) {
+         JavaType targetReturnType = JavaType.getReturnType(invocation.getMethodNameAndDescription());
+         converter = new ReturnTypeConversion.Converter(invocation, TypeDescriptor.getClassForType(targetReturnType));
+         delegatedResultConverter = converter;
+      }
+
+      return converter;
+   }
+
    private void addNewReturnValueResult(@Nullable Object value) {
       InvocationResult result = new ReturnValueResult(value);
       addResult(result);
@@ -44,29 +44,50 @@ public final class ReturnTypeConversion
       valueToReturn = value;
    }
 
-   @Nonnull
-   Object getConvertedValue() {
-      Class<?> wrapperType = getWrapperType();
-      Class<?> valueType = valueToReturn.getClass();
+   /**
+    * Converts the values produced on each invocation of an expectation (by a delegate, for example) to the return type of the recorded
+    * method, with the wrapper type for that return type looked up only once.
+    */
+   static final class Converter {
+      @Nonnull private final ExpectedInvocation invocation;
+      @Nonnull final Class<?> returnType;
+      @Nullable private final Class<?> wrapperType;
+
+      Converter(@Nonnull ExpectedInvocation invocation, @Nonnull Class<?> returnType) {
+         this.invocation = invocation;
+         this.returnType = returnType;
+         wrapperType = getWrapperType(returnType);
+      }
+
+      @Nonnull
+      Object convert(@Nonnull Object value) {
+         Class<?> valueType = value.getClass();
+
+         if (valueType == wrapperType) {
+            return value;
+         }
 
-      if (valueType == wrapperType) {
-         return valueToReturn;
-      }
+         Object convertedValue = null;
 
-      if (wrapperType != null && AutoBoxing.isWrapperOfPrimitiveType(valueType)) {
-         return getPrimitiveValueConvertingAsNeeded(wrapperType);
-      }
+         if (wrapperType != null && AutoBoxing.isWrapperOfPrimitiveType(valueType)) {
+            convertedValue = convertPrimitiveValue(wrapperType, value);
+         }
 
-      throw newIncompatibleTypesException();
+         if (convertedValue == null) {
+            throw new ReturnTypeConversion(invocation, returnType, value).newIncompatibleTypesException();
+         }
+
+         return convertedValue;
+      }
    }
 
    @Nullable
-   private Class<?> getWrapperType() {
+   private static Class<?> getWrapperType(@Nonnull Class<?> returnType) {
       return AutoBoxing.isWrapperOfPrimitiveType(returnType) ? returnType : AutoBoxing.getWrapperType(returnType);
    }
 
    public void addConvertedValue() {
-      Class<?> wrapperType = getWrapperType();
+      Class<?> wrapperType = getWrapperType(returnType);
       Class<?> valueType = valueToReturn.getClass();
 
       if (valueType == wrapperType) {
@@ -253,14 +274,7 @@ public final class ReturnTypeConversion
 
    @Nonnull
    private Object getPrimitiveValueConvertingAsNeeded(@Nonnull Class<?> targetType) {
-      Object convertedValue = null;
-
-      if (valueToReturn instanceof Number) {
-         convertedValue = convertFromNumber(targetType, (Number) valueToReturn);
-      }
-      else if (valueToReturn instanceof Character) {
-         convertedValue = convertFromChar(targetType, (Character) valueToReturn);
-      }
+      Object convertedValue = convertPrimitiveValue(targetType, valueToReturn);
 
       if (convertedValue == null) {
          throw newIncompatibleTypesException();
@@ -269,6 +283,19 @@ public final class ReturnTypeConversion
       return convertedValue;
    }
 
+   @Nullable
+   private static Object convertPrimitiveValue(@Nonnull Class<?> targetType, @Nonnull Object value) {
+      if (value instanceof Number) {
+         return convertFromNumber(targetType, (Number) value);
+      }
+
+      if (value instanceof Character) {
+         return convertFromChar(targetType, (Character) value);
+      }
+
+      return null;
+   }
+
    @Nullable
    private static Object convertFromNumber(@Nonnull Class<?> targetType, @Nonnull Number number) {
       if (targetType == Integer.class) {
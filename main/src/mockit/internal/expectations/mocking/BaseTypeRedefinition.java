@@ -7,6 +7,7 @@ package mockit.internal.expectations.mocking;
 import java.lang.instrument.*;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.*;
 import javax.annotation.*;
 import static java.lang.reflect.Modifier.*;
 
@@ -40,8 +41,8 @@ class BaseTypeRedefinition
       }
    }
 
-   @Nonnull private static final Map<Integer, MockedClass> mockedClasses = new HashMap<>();
-   @Nonnull private static final Map<Type, Class<?>> mockImplementations = new HashMap<>();
+   @Nonnull private static final Map<Integer, MockedClass> mockedClasses = new ConcurrentHashMap<>();
+   @Nonnull private static final Map<Type, Class<?>> mockImplementations = new ConcurrentHashMap<>();
 
    Class<?> targetClass;
    @Nullable MockedType typeMetadata;
@@ -202,10 +203,31 @@ class BaseTypeRedefinition
    }
 
    private void redefineClass(@Nonnull Class<?> realClass, @Nonnull ClassReader classReader, @Nonnull MockedClassModifier modifier) {
-      classReader.accept(modifier);
+      BytecodeCache.Entry cachedEntry = MockedClassPreparation.getPreparedModification(realClass, classReader, modifier);
+      String cacheKey = null;
 
-      if (modifier.wasModified()) {
-         byte[] modifiedClass = modifier.toByteArray();
+      // JRE classes are not cached, since the modifier validates whether each one can be mocked.
+      if (cachedEntry == null && !realClass.getName().startsWith("java.")) {
+         cacheKey = BytecodeCache.computeKey(realClass, classReader, modifier);
+         cachedEntry = cacheKey == null ? null : BytecodeCache.get(cacheKey);
+      }
+
+      byte[] modifiedClass;
+
+      if (cachedEntry != null) {
+         modifiedClass = cachedEntry.modifiedClassfile;
+         modifier.enumSubclasses = cachedEntry.relatedClassNames;
+      }
+      else {
+         classReader.accept(modifier);
+         modifiedClass = modifier.wasModified() ? modifier.toByteArray() : null;
+
+         if (cacheKey != null) {
+            BytecodeCache.put(cacheKey, modifiedClass, modifier.enumSubclasses);
+         }
+      }
+
+      if (modifiedClass != null) {
          applyClassRedefinition(realClass, modifiedClass);
       }
    }
@@ -287,12 +309,12 @@ class BaseTypeRedefinition
 
    @Nonnull
    private Class<?> generateConcreteSubclassForAbstractType(@Nonnull final Type typeToMock) {
-      final String subclassName = getNameForConcreteSubclassToCreate();
+      String subclassName = getNameForConcreteSubclassToCreate();
 
       Class<?> subclass = new ImplementationClass<Object>(targetClass, subclassName) {
          @Nonnull @Override
          protected ClassVisitor createMethodBodyGenerator(@Nonnull ClassReader cr) {
-            return new SubclassGenerationModifier(targetClass, typeToMock, cr, subclassName, false);
+            return new SubclassGenerationModifier(targetClass, typeToMock, cr, generatedClassName, false);
          }
       }.generateClass();
 
@@ -34,9 +34,9 @@ public final class CaptureOfNewInstances extends CaptureOfImplementations<Mocked
    @Override
    protected void redefineClass(@Nonnull Class<?> realClass, @Nonnull byte[] modifiedClass) {
       ClassDefinition newClassDefinition = new ClassDefinition(realClass, modifiedClass);
-      Startup.redefineMethods(newClassDefinition);
-
       MockFixture mockFixture = TestRun.mockFixture();
+      mockFixture.lockForRedefinition(realClass);
+      Startup.redefineMethods(newClassDefinition);
       mockFixture.addRedefinedClass(newClassDefinition);
       mockFixture.registerMockedClass(realClass);
    }
@@ -30,6 +30,7 @@ public final class FieldTypeRedefinitions extends TypeRedefinitions
       TestRun.enterNoMockingZone();
 
       try {
+         lockMockFieldTypesIfRunningInParallel(testClass);
          redefineFieldTypes(testClass);
       }
       finally {
@@ -37,11 +38,61 @@ public final class FieldTypeRedefinitions extends TypeRedefinitions
       }
    }
 
-   private void redefineFieldTypes(@Nonnull Class<?> classWithMockFields) {
+   /**
+    * When tests run in parallel, locks the types of all mock fields up front and in a fixed order, so that test classes which share
+    * some of them wait for each other rather than deadlock.
+    */
+   private static void lockMockFieldTypesIfRunningInParallel(@Nonnull Class<?> testClass) {
+      if (TestRun.getInnermostSavePoint() == null) {
+         return;
+      }
+
+      Map<String, Class<?>> mockFieldTypes = new TreeMap<>();
+
+      for (
+         Class<?> classWithMockFields = testClass;
+         classWithMockFields != null && classWithMockFields != Object.class && classWithMockFields != mockit.Expectations.class;
+         classWithMockFields = classWithMockFields.getSuperclass()
+      ) {
+         for (Field candidateField : classWithMockFields.getDeclaredFields()) {
+            if (
+               (candidateField.getModifiers() & FIELD_ACCESS_MASK) == 0 &&
+               (candidateField.isAnnotationPresent(mockit.Mocked.class) || candidateField.isAnnotationPresent(mockit.Injectable.class) ||
+                candidateField.isAnnotationPresent(mockit.Capturing.class))
+            ) {
+               Class<?> fieldType = candidateField.getType();
+               mockFieldTypes.put(fieldType.getName(), fieldType);
+            }
+         }
+      }
+
+      MockFixture mockFixture = TestRun.mockFixture();
+
+      for (Class<?> mockFieldType : mockFieldTypes.values()) {
+         mockFixture.lockForRedefinition(mockFieldType);
+      }
+   }
+
+   /**
+    * Redefines the types of the mock fields declared in the given test class and its superclasses, in declaration order.
+    * With {@linkplain MockedClassPreparation#prepareMockedTypesInParallel(List) parallel generation} enabled, the modified classes are
+    * generated in parallel up front.
+    */
+   private void redefineFieldTypes(@Nonnull Class<?> testClass) {
+      List<MockedType> mockFields = new ArrayList<>();
+      collectMockFields(testClass, mockFields);
+      MockedClassPreparation.prepareMockedTypesInParallel(mockFields);
+
+      for (MockedType mockField : mockFields) {
+         redefineFieldType(mockField);
+      }
+   }
+
+   private static void collectMockFields(@Nonnull Class<?> classWithMockFields, @Nonnull List<MockedType> mockFields) {
       Class<?> superClass = classWithMockFields.getSuperclass();
 
       if (superClass != null && superClass != Object.class && superClass != mockit.Expectations.class) {
-         redefineFieldTypes(superClass);
+         collectMockFields(superClass, mockFields);
       }
 
       Field[] fields = classWithMockFields.getDeclaredFields();
@@ -50,23 +101,26 @@ public final class FieldTypeRedefinitions extends TypeRedefinitions
          int fieldModifiers = candidateField.getModifiers();
 
          if ((fieldModifiers & FIELD_ACCESS_MASK) == 0) {
-            redefineFieldType(candidateField, fieldModifiers);
+            MockedType mockedType = new MockedType(candidateField);
+
+            if (mockedType.isMockableType()) {
+               mockFields.add(mockedType);
+            }
          }
       }
    }
 
-   private void redefineFieldType(@Nonnull Field field, int modifiers) {
-      MockedType mockedType = new MockedType(field);
+   private void redefineFieldType(@Nonnull MockedType mockedType) {
+      Field field = mockedType.field;
+      assert field != null;
 
-      if (mockedType.isMockableType()) {
-         boolean partialMocking = field.isAnnotationPresent(mockit.Tested.class);
-         boolean needsValueToSet = !isFinal(modifiers) && !partialMocking;
+      boolean partialMocking = field.isAnnotationPresent(mockit.Tested.class);
+      boolean needsValueToSet = !isFinal(field.getModifiers()) && !partialMocking;
 
-         redefineFieldType(mockedType, partialMocking, needsValueToSet);
+      redefineFieldType(mockedType, partialMocking, needsValueToSet);
 
-         if (!partialMocking) {
-            registerCaptureOfNewInstances(mockedType);
-         }
+      if (!partialMocking) {
+         registerCaptureOfNewInstances(mockedType);
       }
    }
 
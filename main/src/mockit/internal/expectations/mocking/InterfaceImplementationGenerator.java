@@ -13,7 +13,6 @@ import static java.lang.reflect.Modifier.isStatic;
 import mockit.asm.annotations.*;
 import mockit.asm.classes.*;
 import mockit.asm.fields.*;
-import mockit.asm.metadata.*;
 import mockit.asm.metadata.ClassMetadataReader.*;
 import mockit.asm.methods.*;
 import mockit.internal.*;
@@ -26,7 +25,6 @@ import static mockit.asm.jvmConstants.Opcodes.*;
 final class InterfaceImplementationGenerator extends BaseClassModifier
 {
    private static final int CLASS_ACCESS = PUBLIC + FINAL;
-   private static final EnumSet<Attribute> SIGNATURE = EnumSet.of(Attribute.Signature);
 
    @Nonnull private final MockedTypeInfo mockedTypeInfo;
    @Nonnull private final String implementationClassDesc;
@@ -42,6 +40,17 @@ final class InterfaceImplementationGenerator extends BaseClassModifier
       implementedMethods = new ArrayList<>();
    }
 
+   @Nullable @Override
+   public String getCacheKeyParameters() {
+      String mockedTypeDescription = mockedTypeInfo.typeDescriptionForCacheKey;
+
+      if (mockedTypeDescription == null) {
+         return null;
+      }
+
+      return implementationClassDesc + ' ' + mockedTypeDescription + ' ' + getClassLoadingBridgeHostForCacheKey();
+   }
+
    @Override
    public void visit(int version, int access, @Nonnull String name, @Nonnull ClassInfo additionalInfo) {
       interfaceName = name;
@@ -173,11 +182,10 @@ final class InterfaceImplementationGenerator extends BaseClassModifier
    private void generateImplementationsForInterfaceMethodsRecurringToSuperInterfaces(@Nonnull String anInterface) {
       methodOwner = anInterface;
 
-      byte[] interfaceBytecode = ClassFile.getClassFile(anInterface);
-      ClassMetadataReader cmr = new ClassMetadataReader(interfaceBytecode, SIGNATURE);
-      String[] superInterfaces = cmr.getInterfaces();
+      ClassMetadataIndex.Metadata interfaceMetadata = ClassMetadataIndex.getMetadata(anInterface);
+      String[] superInterfaces = interfaceMetadata.getInterfaces();
 
-      for (MethodInfo method : cmr.getMethods()) {
+      for (MethodInfo method : interfaceMetadata.methods) {
          generateMethodImplementation(method.accessFlags, method.name, method.desc, method.signature, null);
       }
 
@@ -55,10 +55,19 @@ final class MockedClassModifier extends BaseClassModifier
       executionMode = ExecutionMode.Partial;
    }
 
+   void usePerInstanceMocking() {
+      executionMode = ExecutionMode.PerInstance;
+   }
+
    void setClassNameForCapturedInstanceMethods(@Nonnull String internalClassName) {
       baseClassNameForCapturedInstanceMethods = internalClassName;
    }
 
+   @Nonnull @Override
+   public String getCacheKeyParameters() {
+      return executionMode + " " + baseClassNameForCapturedInstanceMethods + ' ' + getClassLoadingBridgeHostForCacheKey();
+   }
+
    @Override
    public void visit(int version, int access, @Nonnull String name, @Nonnull ClassInfo additionalInfo) {
       validateMockingOfJREClass(name);
@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.expectations.mocking;
+
+import java.lang.annotation.*;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.annotation.*;
+
+import mockit.*;
+import mockit.asm.classes.*;
+import mockit.asm.jvmConstants.*;
+import mockit.internal.*;
+import mockit.internal.expectations.*;
+import mockit.internal.state.*;
+import mockit.internal.util.*;
+import static mockit.internal.util.GeneratedClasses.*;
+
+/**
+ * Prepares, on a background thread, the modified bytecode of the classes to be mocked by upcoming test classes, as known in advance from
+ * the test plan exposed by the test runner; so, when a test class starts, setting up its mocks only requires redefining said classes.
+ * <p>
+ * It's enabled with the <tt>jmockit-prepareMocksInBackground</tt> system property.
+ * Only the classes declared in mock fields and mock parameters of test methods (along with their superclasses) get prepared; whatever
+ * isn't ready by the time it's needed is generated on the test thread, as usual.
+ * Prepared classes are discarded once restored, or once the test class they were prepared for has ended, unless still needed by an
+ * upcoming test class.
+ * <p>
+ * Separately, with the <tt>jmockit-parallelMockGeneration</tt> system property, the classes about to be mocked for the mock fields of a
+ * test class or the mock parameters of a test method, along with their superclasses and implemented interfaces, get prepared in
+ * parallel right before being redefined.
+ */
+public final class MockedClassPreparation
+{
+   private static final boolean ENABLED = Boolean.getBoolean("jmockit-prepareMocksInBackground");
+   private static final boolean PARALLEL = Boolean.getBoolean("jmockit-parallelMockGeneration");
+   private static final int FIELD_ACCESS_MASK = Access.SYNTHETIC + Access.STATIC;
+
+   private static final class PreparedClass {
+      @Nonnull final byte[] sourceClassfile;
+      @Nonnull final BytecodeCache.Entry modification;
+
+      PreparedClass(@Nonnull byte[] sourceClassfile, @Nonnull BytecodeCache.Entry modification) {
+         this.sourceClassfile = sourceClassfile;
+         this.modification = modification;
+      }
+   }
+
+   /**
+    * The prepared modifications of each class, by the {@linkplain BaseClassModifier#getCacheKeyParameters() configuration} of the
+    * modifier.
+    */
+   @Nonnull private static final ClassValue<Map<String, PreparedClass>> preparedClasses = new ClassValue<Map<String, PreparedClass>>() {
+      @Override
+      protected Map<String, PreparedClass> computeValue(Class<?> type) { return new ConcurrentHashMap<>(2); }
+   };
+
+   /**
+    * The classes prepared (or found already prepared) in the background for each upcoming test class, until it ends.
+    */
+   @Nonnull private static final Map<Class<?>, Set<Class<?>>> classesPreparedForTestClass = new ConcurrentHashMap<>();
+
+   @Nullable private static ExecutorService preparationThread;
+
+   private MockedClassPreparation() {}
+
+   public static boolean isEnabled() { return ENABLED; }
+
+   static boolean isParallelGenerationEnabled() { return PARALLEL; }
+
+   /**
+    * Starts preparing, in the background and in the given order, the mocked classes for the given test classes, if enabled.
+    */
+   public static void prepareMockedClasses(@Nonnull Collection<Class<?>> upcomingTestClasses) {
+      if (!ENABLED || upcomingTestClasses.isEmpty()) {
+         return;
+      }
+
+      final List<Class<?>> testClasses = new ArrayList<>(upcomingTestClasses);
+
+      getPreparationThread().execute(new Runnable() {
+         @Override
+         public void run() {
+            TestRun.enterNoMockingZone();
+
+            try {
+               for (Class<?> testClass : testClasses) {
+                  prepareMockedClasses(testClass);
+               }
+            }
+            finally { TestRun.exitNoMockingZone(); }
+         }
+      });
+   }
+
+   @Nonnull
+   private static synchronized ExecutorService getPreparationThread() {
+      if (preparationThread == null) {
+         preparationThread = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(@Nonnull Runnable task) {
+               Thread thread = new Thread(task, "JMockit mocked class preparation");
+               thread.setDaemon(true);
+               thread.setPriority(Thread.MIN_PRIORITY);
+               return thread;
+            }
+         });
+      }
+
+      return preparationThread;
+   }
+
+   private static void prepareMockedClasses(@Nonnull Class<?> testClass) {
+      Set<Class<?>> classesPrepared = new HashSet<>();
+
+      try {
+         for (
+            Class<?> classWithMocks = testClass;
+            classWithMocks != null && classWithMocks != Object.class && classWithMocks != Expectations.class;
+            classWithMocks = classWithMocks.getSuperclass()
+         ) {
+            prepareClassesForMockFields(classesPrepared, classWithMocks);
+            prepareClassesForMockParameters(classesPrepared, classWithMocks);
+         }
+      }
+      catch (LinkageError | RuntimeException ignore) {
+         // The types of some fields or parameters are not available; the test class will fail on its own, later.
+      }
+
+      if (!classesPrepared.isEmpty()) {
+         classesPreparedForTestClass.put(testClass, classesPrepared);
+      }
+   }
+
+   private static void prepareClassesForMockFields(@Nonnull Set<Class<?>> classesPrepared, @Nonnull Class<?> classWithMockFields) {
+      for (Field field : classWithMockFields.getDeclaredFields()) {
+         if ((field.getModifiers() & FIELD_ACCESS_MASK) == 0 && !field.isAnnotationPresent(Tested.class)) {
+            prepareMockedClass(classesPrepared, field.getType(), field.getDeclaredAnnotations());
+         }
+      }
+   }
+
+   private static void prepareClassesForMockParameters(@Nonnull Set<Class<?>> classesPrepared, @Nonnull Class<?> testClass) {
+      for (Method method : testClass.getDeclaredMethods()) {
+         Class<?>[] parameterTypes = method.getParameterTypes();
+
+         if (parameterTypes.length > 0) {
+            Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+
+            for (int i = 0; i < parameterTypes.length; i++) {
+               prepareMockedClass(classesPrepared, parameterTypes[i], parameterAnnotations[i]);
+            }
+         }
+      }
+   }
+
+   private static void prepareMockedClass(
+      @Nonnull Set<Class<?>> classesPrepared, @Nonnull Class<?> mockedClass, @Nonnull Annotation[] annotations
+   ) {
+      boolean injectable = false;
+      boolean mocked = false;
+
+      for (Annotation annotation : annotations) {
+         Class<? extends Annotation> annotationType = annotation.annotationType();
+
+         if (annotationType == Injectable.class) {
+            injectable = true;
+         }
+         else if (annotationType == Mocked.class || annotationType == Capturing.class) {
+            mocked = true;
+         }
+      }
+
+      if (injectable || mocked) {
+         ExecutionMode executionMode = injectable ? ExecutionMode.PerInstance : ExecutionMode.Regular;
+         prepareClassAndItsSuperclasses(classesPrepared, mockedClass, executionMode);
+      }
+   }
+
+   /**
+    * Mirrors {@link BaseTypeRedefinition}, which modifies the mocked class and each of its superclasses with the same configuration.
+    */
+   private static void prepareClassAndItsSuperclasses(
+      @Nonnull Set<Class<?>> classesPrepared, @Nonnull Class<?> mockedClass, @Nonnull ExecutionMode executionMode
+   ) {
+      for (
+         Class<?> realClass = mockedClass;
+         realClass != null && realClass != Object.class && realClass != Proxy.class && realClass != Enum.class;
+         realClass = realClass.getSuperclass()
+      ) {
+         if (!isToBePrepared(realClass) || !prepareClass(realClass, executionMode)) {
+            break;
+         }
+
+         classesPrepared.add(realClass);
+      }
+   }
+
+   private static boolean isToBePrepared(@Nonnull Class<?> realClass) {
+      return !realClass.isInterface() && isToBePreparedIfInterface(realClass);
+   }
+
+   private static boolean isToBePreparedIfInterface(@Nonnull Class<?> realClass) {
+      return
+         !realClass.isArray() && !realClass.isPrimitive() && !realClass.getName().startsWith("java.") &&
+         !isGeneratedClass(realClass.getName());
+   }
+
+   private static boolean prepareClass(@Nonnull Class<?> realClass, @Nonnull ExecutionMode executionMode) {
+      ClassReader classReader;
+
+      // Class readers keep state while visiting, so the one cached for the test thread can't be used here.
+      try { classReader = new ClassReader(ClassFile.createReaderOrGetFromCache(realClass).getBytecode()); }
+      catch (ClassFile.NotFoundException ignore) { return false; }
+
+      if (realClass.isInterface() && classReader.getVersion() < ClassVersion.V8) {
+         return true;
+      }
+
+      MockedClassModifier modifier = new MockedClassModifier(realClass.getClassLoader(), classReader, null);
+
+      if (executionMode == ExecutionMode.PerInstance) {
+         modifier.usePerInstanceMocking();
+      }
+      else if (executionMode == ExecutionMode.Partial) {
+         modifier.useDynamicMocking();
+      }
+
+      Map<String, PreparedClass> preparedModifications = preparedClasses.get(realClass);
+      String modifierConfiguration = modifier.getCacheKeyParameters();
+
+      if (!preparedModifications.containsKey(modifierConfiguration)) {
+         try {
+            classReader.accept(modifier);
+         }
+         catch (VisitInterruptedException ignore) {
+            return false;
+         }
+
+         byte[] modifiedClassfile = modifier.wasModified() ? modifier.toByteArray() : null;
+         BytecodeCache.Entry modification = new BytecodeCache.Entry(modifiedClassfile, modifier.enumSubclasses);
+         preparedModifications.put(modifierConfiguration, new PreparedClass(classReader.getBytecode(), modification));
+      }
+
+      return true;
+   }
+
+   /**
+    * Prepares, in parallel and before returning, the classes to be mocked for the given mock fields or parameters, when enabled.
+    * Each class to be modified (the mocked class, its superclasses, and the interfaces implemented by any of them) is a separate task in
+    * the common fork/join pool, so that a test class with many mock fields doesn't have them all modified one after the other.
+    * <p>
+    * The caller still redefines the mocked types one by one, in declaration order, using the prepared modifications; that way, the order
+    * in which mocked types get registered doesn't change.
+    */
+   static void prepareMockedTypesInParallel(@Nonnull List<MockedType> mockedTypes) {
+      if (!PARALLEL) {
+         return;
+      }
+
+      Map<String, Callable<Void>> preparationTasks = new LinkedHashMap<>();
+
+      for (MockedType mockedType : mockedTypes) {
+         Class<?> mockedClass = mockedType.getClassType();
+
+         if (mockedClass != TypeVariable.class) {
+            ExecutionMode executionMode = getExecutionMode(mockedType);
+
+            if (mockedClass.isInterface()) {
+               addInterfaceTasks(preparationTasks, mockedClass, executionMode);
+            }
+            else {
+               addClassTasks(preparationTasks, mockedClass, executionMode);
+            }
+         }
+      }
+
+      if (preparationTasks.size() > 1) {
+         ForkJoinPool.commonPool().invokeAll(preparationTasks.values());
+      }
+   }
+
+   @Nonnull
+   private static ExecutionMode getExecutionMode(@Nonnull MockedType mockedType) {
+      if (mockedType.field != null && mockedType.field.isAnnotationPresent(Tested.class)) {
+         return ExecutionMode.Partial;
+      }
+
+      return mockedType.injectable ? ExecutionMode.PerInstance : ExecutionMode.Regular;
+   }
+
+   private static void addClassTasks(
+      @Nonnull Map<String, Callable<Void>> tasks, @Nonnull Class<?> mockedClass, @Nonnull ExecutionMode executionMode
+   ) {
+      for (
+         Class<?> realClass = mockedClass;
+         realClass != null && realClass != Object.class && realClass != Proxy.class && realClass != Enum.class;
+         realClass = realClass.getSuperclass()
+      ) {
+         if (isToBePrepared(realClass)) {
+            addTask(tasks, realClass, executionMode);
+         }
+
+         if (Utilities.JAVA8) {
+            for (Class<?> implementedInterface : realClass.getInterfaces()) {
+               addInterfaceTasks(tasks, implementedInterface, executionMode);
+            }
+         }
+      }
+   }
+
+   private static void addInterfaceTasks(
+      @Nonnull Map<String, Callable<Void>> tasks, @Nonnull Class<?> anInterface, @Nonnull ExecutionMode executionMode
+   ) {
+      if (Utilities.JAVA8 && isToBePreparedIfInterface(anInterface)) {
+         addTask(tasks, anInterface, executionMode);
+
+         for (Class<?> superInterface : anInterface.getInterfaces()) {
+            addInterfaceTasks(tasks, superInterface, executionMode);
+         }
+      }
+   }
+
+   private static void addTask(
+      @Nonnull Map<String, Callable<Void>> tasks, @Nonnull final Class<?> realClass, @Nonnull final ExecutionMode executionMode
+   ) {
+      String taskKey = realClass.getName() + ' ' + executionMode;
+
+      if (!tasks.containsKey(taskKey) && !isPrepared(realClass, executionMode)) {
+         tasks.put(taskKey, new Callable<Void>() {
+            @Override
+            public Void call() {
+               // A task can also be run by the calling thread while it waits, so its no-mocking zone is entered and exited, not cleared.
+               TestRun.enterNoMockingZone();
+
+               try { prepareClass(realClass, executionMode); }
+               catch (LinkageError | RuntimeException ignore) {
+                  // The class will fail to be modified on the test thread as well, which then reports it.
+               }
+               finally { TestRun.exitNoMockingZone(); }
+
+               return null;
+            }
+         });
+      }
+   }
+
+   static boolean isPrepared(@Nonnull Class<?> realClass, @Nonnull ExecutionMode executionMode) {
+      for (String modifierConfiguration : preparedClasses.get(realClass).keySet()) {
+         if (modifierConfiguration.startsWith(executionMode.name() + ' ')) {
+            return true;
+         }
+      }
+
+      return false;
+   }
+
+   /**
+    * Returns the modification prepared in the background for the given class and modifier, if any and if made from the same class file.
+    */
+   @Nullable
+   static BytecodeCache.Entry getPreparedModification(
+      @Nonnull Class<?> realClass, @Nonnull ClassReader classReader, @Nonnull MockedClassModifier modifier
+   ) {
+      if (!ENABLED && !PARALLEL) {
+         return null;
+      }
+
+      PreparedClass preparedClass = preparedClasses.get(realClass).get(modifier.getCacheKeyParameters());
+
+      if (preparedClass != null) {
+         byte[] sourceClassfile = classReader.getBytecode();
+
+         if (preparedClass.sourceClassfile == sourceClassfile || Arrays.equals(preparedClass.sourceClassfile, sourceClassfile)) {
+            return preparedClass.modification;
+         }
+      }
+
+      return null;
+   }
+
+   /**
+    * Discards the classes prepared for the given test class, which has ended, except for those still needed by an upcoming one.
+    */
+   public static void discardClassesPreparedFor(@Nonnull Class<?> testClass) {
+      Set<Class<?>> preparedClassesForTestClass = classesPreparedForTestClass.remove(testClass);
+
+      if (preparedClassesForTestClass != null) {
+         for (Class<?> preparedClass : preparedClassesForTestClass) {
+            discardPreparedClassIfNotNeeded(preparedClass);
+         }
+      }
+   }
+
+   /**
+    * Discards the modifications prepared for a class which got restored, unless it's still needed by an upcoming test class.
+    */
+   public static void discardPreparedClass(@Nonnull Class<?> restoredClass) {
+      if (ENABLED || PARALLEL) {
+         discardPreparedClassIfNotNeeded(restoredClass);
+      }
+   }
+
+   private static void discardPreparedClassIfNotNeeded(@Nonnull Class<?> preparedClass) {
+      for (Set<Class<?>> classesNeeded : classesPreparedForTestClass.values()) {
+         if (classesNeeded.contains(preparedClass)) {
+            return;
+         }
+      }
+
+      preparedClasses.remove(preparedClass);
+   }
+}
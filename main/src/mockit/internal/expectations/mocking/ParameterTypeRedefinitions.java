@@ -28,7 +28,7 @@ public final class ParameterTypeRedefinitions extends TypeRedefinitions
          createMockedTypeFromMockParameterDeclaration(i, mock);
       }
 
-      InstanceFactory[] instanceFactories = redefineMockedTypes();
+      InstanceFactory[] instanceFactories = prepareAndRedefineMockedTypes();
       instantiateMockedTypes(instanceFactories);
    }
 
@@ -48,6 +48,27 @@ public final class ParameterTypeRedefinitions extends TypeRedefinitions
       }
    }
 
+   /**
+    * Same as {@link #redefineMockedTypes()}, but with {@linkplain MockedClassPreparation#prepareMockedTypesInParallel(List) parallel
+    * generation} of the modified classes when enabled.
+    */
+   @Nonnull
+   private InstanceFactory[] prepareAndRedefineMockedTypes() {
+      if (MockedClassPreparation.isParallelGenerationEnabled()) {
+         List<MockedType> mockedTypes = new ArrayList<>(mockParameters.length);
+
+         for (MockedType mockedType : mockParameters) {
+            if (mockedType != null) {
+               mockedTypes.add(mockedType);
+            }
+         }
+
+         MockedClassPreparation.prepareMockedTypesInParallel(mockedTypes);
+      }
+
+      return redefineMockedTypes();
+   }
+
    @Nonnull
    private InstanceFactory[] redefineMockedTypes() {
       int n = mockParameters.length;
@@ -6,6 +6,7 @@ package mockit.internal.expectations.state;
 
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.locks.*;
 import javax.annotation.*;
 
 import mockit.internal.*;
@@ -18,6 +19,12 @@ public final class ExecutingTest
    @Nullable private RecordAndReplayExecution currentRecordAndReplay;
    @Nullable private RecordAndReplayExecution recordAndReplayForLastTestMethod;
 
+   /**
+    * Held by the thread which is recording or verifying expectations; while held, calls to mocked types from other threads of the
+    * same test are not mocked.
+    */
+   @Nonnull private final ReentrantLock testOnlyPhaseLock;
+
    @Nonnull private final ThreadLocal<Boolean> shouldIgnoreMockingCallbacks;
    @Nonnull private final ThreadLocal<BaseInvocation> proceedingInvocation;
    private boolean proceeding;
@@ -27,8 +34,10 @@ public final class ExecutingTest
    @Nonnull private final List<Object> regularMocks;
    @Nonnull private final List<Object> injectableMocks;
    @Nonnull private final CascadingTypes cascadingTypes;
+   @Nullable private ReplayLogRetention replayLogRetention;
 
    public ExecutingTest() {
+      testOnlyPhaseLock = new ReentrantLock();
       shouldIgnoreMockingCallbacks = new ThreadLocal<Boolean>() { @Override protected Boolean initialValue() { return false; } };
       proceedingInvocation = new ThreadLocal<>();
       regularMocks = new ArrayList<>();
@@ -59,6 +68,8 @@ public final class ExecutingTest
 
    @Nullable public RecordAndReplayExecution getCurrentRecordAndReplay() { return currentRecordAndReplay; }
 
+   @Nonnull public ReentrantLock getTestOnlyPhaseLock() { return testOnlyPhaseLock; }
+
    public boolean isShouldIgnoreMockingCallbacks() { return shouldIgnoreMockingCallbacks.get(); }
 
    public boolean setShouldIgnoreMockingCallbacks(boolean flag) {
@@ -117,7 +128,7 @@ public final class ExecutingTest
       }
 
       //noinspection LockAcquiredButNotSafelyReleased
-      RecordAndReplayExecution.TEST_ONLY_PHASE_LOCK.lock();
+      testOnlyPhaseLock.lock();
 
       return currentRecordAndReplay;
    }
@@ -166,6 +177,14 @@ public final class ExecutingTest
 
    @Nonnull public CascadingTypes getCascadingTypes() { return cascadingTypes; }
 
+   @Nullable public ReplayLogRetention getReplayLogRetention() { return replayLogRetention; }
+
+   /**
+    * Chooses the mocked types whose invocations are only counted during the replay phases started from now until the current test ends,
+    * instead of those given by the <tt>jmockit-countOnlyMocks</tt> system property.
+    */
+   public void setReplayLogRetention(@Nullable ReplayLogRetention retention) { replayLogRetention = retention; }
+
    public void finishExecution() {
       recordAndReplayForLastTestMethod = currentRecordAndReplay;
       currentRecordAndReplay = null;
@@ -176,5 +195,6 @@ public final class ExecutingTest
       }
 
       cascadingTypes.clearNonSharedCascadingTypes();
+      replayLogRetention = null;
    }
 }
\ No newline at end of file
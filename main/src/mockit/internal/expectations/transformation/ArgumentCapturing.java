@@ -37,7 +37,8 @@ public final class ArgumentCapturing
             parameterForCapture = false;
          }
          else {
-            parameterForCapture = true;
+            // A value captured into a consumer is handed over during matching, so it isn't stored in a local variable.
+            parameterForCapture = !methodDesc.contains("Consumer");
          }
       }
       else {
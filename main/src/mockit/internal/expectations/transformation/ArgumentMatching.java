@@ -18,6 +18,7 @@ final class ArgumentMatching
       "with(Lmockit/Delegate;)Ljava/lang/Object; " +
       "withAny(Ljava/lang/Object;)Ljava/lang/Object; " +
       "withCapture()Ljava/lang/Object; withCapture(Ljava/util/List;)Ljava/lang/Object; " +
+      "withCapture(Ljava/util/function/Consumer;)Ljava/lang/Object; " +
       "withCapture(Ljava/lang/Object;)Ljava/util/List; " +
       "withEqual(Ljava/lang/Object;)Ljava/lang/Object; withEqual(DD)D withEqual(FD)F " +
       "withInstanceLike(Ljava/lang/Object;)Ljava/lang/Object; " +
@@ -63,8 +64,9 @@ final class ArgumentMatching
    }
 
    boolean handleInvocationParameters(@Nonnegative int stackSize, @Nonnull String desc) {
-      parameterTypes = JavaType.getArgumentTypes(desc);
-      int stackAfter = stackSize - getSumOfParameterSizes();
+      MethodDescriptor methodDesc = MethodDescriptor.of(desc);
+      parameterTypes = methodDesc.getArgumentTypes();
+      int stackAfter = stackSize - methodDesc.getArgumentsSize();
       boolean mockedInvocationUsingTheMatchers = stackAfter < matcherStacks[0];
 
       if (mockedInvocationUsingTheMatchers) {
@@ -76,17 +78,6 @@ final class ArgumentMatching
       return mockedInvocationUsingTheMatchers;
    }
 
-   @Nonnegative
-   private int getSumOfParameterSizes() {
-      @Nonnegative int sum = 0;
-
-      for (JavaType argType : parameterTypes) {
-         sum += argType.getSize();
-      }
-
-      return sum;
-   }
-
    private void generateCallsToMoveArgMatchers(@Nonnegative int initialStack) {
       @Nonnegative int stack = initialStack;
       @Nonnegative int nextMatcher = 0;
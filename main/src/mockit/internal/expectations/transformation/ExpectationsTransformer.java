@@ -10,6 +10,7 @@ import javax.annotation.*;
 
 import mockit.asm.classes.*;
 import mockit.asm.methods.*;
+import mockit.internal.startup.*;
 import mockit.internal.util.*;
 
 public final class ExpectationsTransformer implements ClassFileTransformer
@@ -33,7 +34,8 @@ public final class ExpectationsTransformer implements ClassFileTransformer
                return null;
             }
 
-            return modifyInvocationsSubclass(cr, className);
+            LoadedClassIndex.transformerStarted();
+            try { return modifyInvocationsSubclass(cr, className); } finally { LoadedClassIndex.transformerFinished(); }
          }
       }
 
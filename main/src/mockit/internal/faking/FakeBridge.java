@@ -25,14 +25,15 @@ public final class FakeBridge extends ClassLoadingBridge
       TestRun.enterNoMockingZone();
 
       try {
-         String fakeClassDesc = (String) args[0];
+         int fakeClassId = (Integer) args[0];
+         String fakeClassDesc = TestRun.getFakeClasses().getFakeClassDesc(fakeClassId);
 
          if (notToBeMocked(faked, fakeClassDesc)) {
             return false;
          }
 
          Integer fakeStateIndex = (Integer) args[1];
-         return TestRun.updateFakeState(fakeClassDesc, fakeStateIndex);
+         return TestRun.updateFakeState(fakeClassId, fakeStateIndex);
       }
       finally {
          TestRun.exitNoMockingZone();
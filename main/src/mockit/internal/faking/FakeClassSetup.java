@@ -89,6 +89,11 @@ public final class FakeClassSetup
 
    void applyClassModifications(@Nonnull Class<?> classToModify, @Nonnull byte[] modifiedClassFile) {
       ClassDefinition classDef = new ClassDefinition(classToModify, modifiedClassFile);
+
+      if (!forStartupFake) {
+         TestRun.mockFixture().lockForRedefinition(classToModify);
+      }
+
       Startup.redefineMethods(classDef);
 
       if (forStartupFake) {
@@ -7,9 +7,12 @@ package mockit.internal.faking;
 import java.lang.reflect.*;
 import java.util.*;
 import java.util.Map.*;
+import java.util.concurrent.*;
 import javax.annotation.*;
 
 import mockit.*;
+import mockit.asm.types.*;
+import mockit.internal.state.TestRun;
 import mockit.internal.util.*;
 
 public final class FakeClasses
@@ -29,16 +32,74 @@ public final class FakeClasses
       catch (InvocationTargetException e) { e.getCause().printStackTrace(); }
    }
 
+   /**
+    * A fake class as identified in generated bytecode, by its id in {@link #fakeClassesById}.
+    */
+   private static final class IdentifiedFakeClass {
+      @Nonnull final String fakeClassDesc;
+      @Nullable volatile Class<?> fakeClass;
+
+      IdentifiedFakeClass(@Nonnull String fakeClassDesc) { this.fakeClassDesc = fakeClassDesc; }
+   }
+
    @Nonnull private final Map<String, MockUp<?>> startupFakes;
    @Nonnull private final Map<Class<?>, MockUp<?>> fakeClassesToFakeInstances;
+   @Nonnull private final Map<Integer, IdentifiedFakeClass> fakeClassesById;
+   @Nonnull private final Map<String, Integer> fakeClassIds;
+   @Nonnegative private int nextFakeClassId;
+
+   /**
+    * The save-points owning each fake class applied by tests running in parallel.
+    */
+   @Nonnull private final Map<Class<?>, Object> fakeClassesToOwners;
+
    @Nonnull public final FakeStates fakeStates;
 
    public FakeClasses() {
       startupFakes = new IdentityHashMap<>(8);
-      fakeClassesToFakeInstances = new IdentityHashMap<>();
+      fakeClassesToFakeInstances = new ConcurrentHashMap<>();
+      fakeClassesToOwners = new ConcurrentHashMap<>();
+      fakeClassesById = new ConcurrentHashMap<>();
+      fakeClassIds = new HashMap<>();
       fakeStates = new FakeStates();
    }
 
+   /**
+    * Gets the integer id which identifies the given fake class in the bytecode generated for faked classes, assigning a new one if needed.
+    * Ids are not reused after being released, so that a faked class still holding an old one never gets a different fake.
+    */
+   @Nonnegative
+   int getFakeClassId(@Nonnull String fakeClassDesc) {
+      synchronized (fakeClassIds) {
+         Integer fakeClassId = fakeClassIds.get(fakeClassDesc);
+
+         if (fakeClassId == null) {
+            fakeClassId = nextFakeClassId++;
+            fakeClassesById.put(fakeClassId, new IdentifiedFakeClass(fakeClassDesc));
+            fakeClassIds.put(fakeClassDesc, fakeClassId);
+         }
+
+         return fakeClassId;
+      }
+   }
+
+   private void releaseFakeClassId(@Nonnull Class<?> fakeClass) {
+      String fakeClassDesc = JavaType.getInternalName(fakeClass);
+
+      synchronized (fakeClassIds) {
+         Integer fakeClassId = fakeClassIds.remove(fakeClassDesc);
+
+         if (fakeClassId != null) {
+            fakeClassesById.remove(fakeClassId);
+         }
+      }
+   }
+
+   @Nonnull
+   public String getFakeClassDesc(@Nonnegative int fakeClassId) {
+      return fakeClassesById.get(fakeClassId).fakeClassDesc;
+   }
+
    void addFake(@Nonnull String fakeClassDesc, @Nonnull MockUp<?> fake) {
       startupFakes.put(fakeClassDesc, fake);
    }
@@ -46,17 +107,30 @@ public final class FakeClasses
    void addFake(@Nonnull MockUp<?> fake) {
       Class<?> fakeClass = fake.getClass();
       fakeClassesToFakeInstances.put(fakeClass, fake);
+
+      Object owner = TestRun.getInnermostSavePoint();
+
+      if (owner != null) {
+         fakeClassesToOwners.put(fakeClass, owner);
+      }
    }
 
    @Nonnull
-   public MockUp<?> getFake(@Nonnull String fakeClassDesc) {
-      MockUp<?> startupFake = startupFakes.get(fakeClassDesc);
+   public MockUp<?> getFake(@Nonnegative int fakeClassId) {
+      IdentifiedFakeClass identifiedFakeClass = fakeClassesById.get(fakeClassId);
+      MockUp<?> startupFake = startupFakes.get(identifiedFakeClass.fakeClassDesc);
 
       if (startupFake != null) {
          return startupFake;
       }
 
-      Class<?> fakeClass = ClassLoad.loadByInternalName(fakeClassDesc);
+      Class<?> fakeClass = identifiedFakeClass.fakeClass;
+
+      if (fakeClass == null) {
+         fakeClass = ClassLoad.loadByInternalName(identifiedFakeClass.fakeClassDesc);
+         identifiedFakeClass.fakeClass = fakeClass;
+      }
+
       MockUp<?> fakeInstance = fakeClassesToFakeInstances.get(fakeClass);
       return fakeInstance;
    }
@@ -69,8 +143,14 @@ public final class FakeClasses
 
    public final class SavePoint {
       @Nonnull private final Map<Class<?>, Boolean> previousFakeClasses;
-
-      public SavePoint() {
+      @Nullable private final Object owner;
+
+      /**
+       * @param owner if not null, the save-point of a test running in parallel with others, so that only the fakes it applied get
+       *              discarded on rollback
+       */
+      public SavePoint(@Nullable Object owner) {
+         this.owner = owner;
          previousFakeClasses = new IdentityHashMap<>();
 
          for (Entry<Class<?>, MockUp<?>> fakeClassAndInstance : fakeClassesToFakeInstances.entrySet()) {
@@ -80,7 +160,10 @@ public final class FakeClasses
       }
 
       public void rollback() {
-         if (previousFakeClasses.isEmpty()) {
+         if (owner != null) {
+            discardFakeInstancesOwned();
+         }
+         else if (previousFakeClasses.isEmpty()) {
             discardAllFakeInstances();
          }
          else {
@@ -90,14 +173,31 @@ public final class FakeClasses
 
       private void discardAllFakeInstances() {
          if (!fakeClassesToFakeInstances.isEmpty()) {
-            for (MockUp<?> fakeInstance : fakeClassesToFakeInstances.values()) {
-               notifyOfTearDown(fakeInstance);
+            for (Entry<Class<?>, MockUp<?>> fakeClassAndInstance : fakeClassesToFakeInstances.entrySet()) {
+               notifyOfTearDown(fakeClassAndInstance.getValue());
+               releaseFakeClassId(fakeClassAndInstance.getKey());
             }
 
             fakeClassesToFakeInstances.clear();
          }
       }
 
+      private void discardFakeInstancesOwned() {
+         for (Entry<Class<?>, Object> fakeClassAndOwner : fakeClassesToOwners.entrySet()) {
+            Class<?> fakeClass = fakeClassAndOwner.getKey();
+
+            if (fakeClassAndOwner.getValue() == owner && !previousFakeClasses.containsKey(fakeClass)) {
+               MockUp<?> fakeInstance = fakeClassesToFakeInstances.remove(fakeClass);
+               fakeClassesToOwners.remove(fakeClass);
+
+               if (fakeInstance != null) {
+                  notifyOfTearDown(fakeInstance);
+                  releaseFakeClassId(fakeClass);
+               }
+            }
+         }
+      }
+
       private void discardFakeInstancesExceptPreviousOnes() {
          for (Entry<Class<?>, MockUp<?>> fakeClassAndInstances : fakeClassesToFakeInstances.entrySet()) {
             Class<?> fakeClass = fakeClassAndInstances.getKey();
@@ -105,6 +205,7 @@ public final class FakeClasses
             if (!previousFakeClasses.containsKey(fakeClass)) {
                MockUp<?> fakeInstance = fakeClassAndInstances.getValue();
                notifyOfTearDown(fakeInstance);
+               releaseFakeClassId(fakeClass);
             }
          }
 
@@ -24,10 +24,10 @@ public final class FakeInvocation extends BaseInvocation
 
    @Nonnull // called by generated bytecode
    public static FakeInvocation create(
-      @Nullable Object invokedInstance, @Nullable Object[] invokedArguments, @Nonnull String fakeClassDesc, @Nonnegative int fakeStateIndex,
+      @Nullable Object invokedInstance, @Nullable Object[] invokedArguments, @Nonnegative int fakeClassId, @Nonnegative int fakeStateIndex,
       @Nonnull String fakedClassDesc, @Nonnull String fakedMethodName, @Nonnull String fakedMethodDesc
    ) {
-      Object fake = TestRun.getFake(fakeClassDesc);
+      Object fake = TestRun.getFake(fakeClassId);
       FakeState fakeState = TestRun.getFakeStates().getFakeState(fake, fakeStateIndex);
       Object[] args = invokedArguments == null ? NO_ARGS : invokedArguments;
       return new FakeInvocation(invokedInstance, args, fakeState, fakedClassDesc, fakedMethodName, fakedMethodDesc);
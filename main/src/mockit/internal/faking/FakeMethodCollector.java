@@ -8,7 +8,6 @@ import java.util.*;
 import javax.annotation.*;
 
 import mockit.*;
-import mockit.asm.metadata.*;
 import mockit.asm.metadata.ClassMetadataReader.*;
 import mockit.asm.types.*;
 import mockit.internal.*;
@@ -23,7 +22,6 @@ import static mockit.asm.jvmConstants.Access.*;
 final class FakeMethodCollector
 {
    private static final int INVALID_METHOD_ACCESSES = BRIDGE + SYNTHETIC + ABSTRACT + NATIVE;
-   private static final EnumSet<Attribute> ANNOTATIONS = EnumSet.of(Attribute.Annotations);
 
    @Nonnull private final FakeMethods fakeMethods;
    private boolean collectingFromSuperClass;
@@ -37,9 +35,7 @@ final class FakeMethodCollector
       Class<?> classToCollectFakesFrom = fakeClass;
 
       do {
-         byte[] classfileBytes = ClassFile.readBytesFromClassFile(classToCollectFakesFrom);
-         ClassMetadataReader cmr = new ClassMetadataReader(classfileBytes, ANNOTATIONS);
-         List<MethodInfo> methods = cmr.getMethods();
+         List<MethodInfo> methods = ClassMetadataIndex.getMetadata(classToCollectFakesFrom).methods;
          addFakeMethods(methods);
 
          classToCollectFakesFrom = classToCollectFakesFrom.getSuperclass();
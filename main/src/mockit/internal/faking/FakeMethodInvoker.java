@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.faking;
+
+import java.lang.reflect.*;
+import java.util.concurrent.*;
+import javax.annotation.*;
+
+import mockit.internal.reflection.*;
+import mockit.internal.util.*;
+
+/**
+ * Invokes a fake method called through the {@link FakeMethodBridge}, as done when the fake class or method isn't public or when the
+ * faked class can't access the fake class directly.
+ * <p>
+ * The fake method is looked up only once, and then invoked through a {@link MethodInvoker} instead of through reflection.
+ */
+final class FakeMethodInvoker
+{
+   /**
+    * The invokers of fake methods not having a {@link FakeState}, for each fake class, by method name and descriptor.
+    */
+   private static final ClassValue<ConcurrentMap<String, FakeMethodInvoker>> INVOKERS_BY_FAKE_CLASS =
+      new ClassValue<ConcurrentMap<String, FakeMethodInvoker>>() {
+         @Override
+         protected ConcurrentMap<String, FakeMethodInvoker> computeValue(Class<?> fakeClass) { return new ConcurrentHashMap<>(); }
+      };
+
+   @Nonnull private final MethodInvoker invoker;
+
+   FakeMethodInvoker(@Nonnull Method fakeMethod) { invoker = new MethodInvoker(fakeMethod); }
+
+   /**
+    * Gets the invoker for a fake method that has no {@link FakeState}, looking it up by name and descriptor on first use.
+    */
+   @Nonnull
+   static FakeMethodInvoker forFakeMethod(@Nonnull Class<?> fakeClass, @Nonnull String fakeName, @Nonnull String fakeDesc) {
+      ConcurrentMap<String, FakeMethodInvoker> invokers = INVOKERS_BY_FAKE_CLASS.get(fakeClass);
+      String fakeNameAndDesc = fakeName + fakeDesc;
+      FakeMethodInvoker invoker = invokers.get(fakeNameAndDesc);
+
+      if (invoker == null) {
+         Class<?>[] parameterTypes = TypeDescriptor.getParameterTypes(fakeDesc);
+         Method fakeMethod = MethodReflection.findSpecifiedMethod(fakeClass, fakeName, parameterTypes);
+         invoker = new FakeMethodInvoker(fakeMethod);
+         invokers.put(fakeNameAndDesc, invoker);
+      }
+
+      return invoker;
+   }
+
+   @Nullable
+   Object invoke(@Nullable Object fake, @Nonnull Object[] fakeArgs) throws Throwable {
+      return invoker.invokeWithCheckedThrows(fake, fakeArgs);
+   }
+}
@@ -28,6 +28,7 @@ final class FakeMethods
    @Nullable private FakeMethod adviceMethod;
    @Nonnull private final GenericTypeReflection typeParametersToTypeArguments;
    @Nonnull private String fakeClassInternalName;
+   @Nonnegative private int fakeClassId;
    @Nullable private List<FakeState> fakeStates;
 
    final class FakeMethod {
@@ -199,7 +200,12 @@ final class FakeMethods
    }
 
    @Nonnull String getFakeClassInternalName() { return fakeClassInternalName; }
-   void setFakeClassInternalName(@Nonnull String fakeClassInternalName) { this.fakeClassInternalName = fakeClassInternalName.intern(); }
+   @Nonnegative int getFakeClassId() { return fakeClassId; }
+
+   void setFakeClassInternalName(@Nonnull String fakeClassInternalName) {
+      this.fakeClassInternalName = fakeClassInternalName.intern();
+      fakeClassId = TestRun.getFakeClasses().getFakeClassId(this.fakeClassInternalName);
+   }
 
    boolean hasUnusedFakes() {
       if (adviceMethod != null) {
@@ -5,6 +5,7 @@
 package mockit.internal.faking;
 
 import java.lang.reflect.*;
+import java.util.concurrent.atomic.*;
 import javax.annotation.*;
 
 import mockit.internal.faking.FakeMethods.*;
@@ -16,20 +17,17 @@ final class FakeState
    private static final ClassLoader THIS_CL = FakeState.class.getClassLoader();
 
    @Nonnull final FakeMethod fakeMethod;
-   @Nullable private Method actualFakeMethod;
+   @Nullable private FakeMethodInvoker fakeMethodInvoker;
    @Nullable private Member realMethodOrConstructor;
    @Nullable private Object realClass;
 
    // Current fake invocation state:
-   private int invocationCount;
+   @Nonnull private final AtomicInteger invocationCount;
    @Nullable private ThreadLocal<FakeInvocation> proceedingInvocation;
 
-   // Helper field just for synchronization:
-   @Nonnull private final Object invocationCountLock;
-
    FakeState(@Nonnull FakeMethod fakeMethod) {
       this.fakeMethod = fakeMethod;
-      invocationCountLock = new Object();
+      invocationCount = new AtomicInteger();
 
       if (fakeMethod.canBeReentered()) {
          makeReentrant();
@@ -50,18 +48,11 @@ final class FakeState
          }
       }
 
-      synchronized (invocationCountLock) {
-         invocationCount++;
-      }
-
+      invocationCount.incrementAndGet();
       return true;
    }
 
-   int getTimesInvoked() {
-      synchronized (invocationCountLock) {
-         return invocationCount;
-      }
-   }
+   int getTimesInvoked() { return invocationCount.get(); }
 
    @Nonnull
    Member getRealMethodOrConstructor(@Nonnull String fakedClassDesc, @Nonnull String fakedMethodName, @Nonnull String fakedMethodDesc) {
@@ -135,11 +126,16 @@ final class FakeState
    }
 
    @Nonnull
-   Method getFakeMethod(@Nonnull Class<?> fakeClass, @Nonnull Class<?>[] parameterTypes) {
-      if (actualFakeMethod == null) {
-         actualFakeMethod = MethodReflection.findCompatibleMethod(fakeClass, fakeMethod.name, parameterTypes);
+   FakeMethodInvoker getFakeMethodInvoker(@Nonnull Class<?> fakeClass) {
+      FakeMethodInvoker invoker = fakeMethodInvoker;
+
+      if (invoker == null) {
+         Class<?>[] parameterTypes = TypeDescriptor.getParameterTypes(fakeMethod.desc);
+         Method actualFakeMethod = MethodReflection.findCompatibleMethod(fakeClass, fakeMethod.name, parameterTypes);
+         invoker = new FakeMethodInvoker(actualFakeMethod);
+         fakeMethodInvoker = invoker;
       }
 
-      return actualFakeMethod;
+      return invoker;
    }
 }
\ No newline at end of file
@@ -27,7 +27,7 @@ public final class FakeStates
 
    FakeStates() {
       startupFakesToFakeStates = new IdentityHashMap<>(2);
-      fakesToFakeStates = new IdentityHashMap<>(8);
+      fakesToFakeStates = Collections.synchronizedMap(new IdentityHashMap<Object, List<FakeState>>(8));
    }
 
    void addStartupFakeAndItsFakeStates(@Nonnull Object fake, @Nonnull List<FakeState> fakeStates) {
@@ -56,29 +56,34 @@ public final class FakeStates
    }
 
    private void removeFakeStates(@Nonnull Class<?> redefinedClass) {
-      Iterator<List<FakeState>> itr = fakesToFakeStates.values().iterator();
+      synchronized (fakesToFakeStates) {
+         Iterator<List<FakeState>> itr = fakesToFakeStates.values().iterator();
 
-      while (itr.hasNext()) {
-         List<FakeState> fakeStates = itr.next();
-         FakeState fakeState = fakeStates.get(0);
+         while (itr.hasNext()) {
+            List<FakeState> fakeStates = itr.next();
+            FakeState fakeState = fakeStates.get(0);
 
-         if (fakeState.getRealClass() == redefinedClass) {
-            fakeStates.clear();
-            itr.remove();
+            if (fakeState.getRealClass() == redefinedClass) {
+               fakeStates.clear();
+               itr.remove();
+            }
          }
       }
    }
 
    private void removeFakeStates(@Nonnull String fakeClassInternalName) {
       Class<?> fakeClass = ClassLoad.loadClass(fakeClassInternalName.replace('/', '.'));
-      Iterator<Entry<Object, List<FakeState>>> itr = fakesToFakeStates.entrySet().iterator();
 
-      while (itr.hasNext()) {
-         Entry<Object, List<FakeState>> fakeAndFakeStates = itr.next();
-         Object fake = fakeAndFakeStates.getKey();
+      synchronized (fakesToFakeStates) {
+         Iterator<Entry<Object, List<FakeState>>> itr = fakesToFakeStates.entrySet().iterator();
+
+         while (itr.hasNext()) {
+            Entry<Object, List<FakeState>> fakeAndFakeStates = itr.next();
+            Object fake = fakeAndFakeStates.getKey();
 
-         if (fake.getClass() == fakeClass) {
-            itr.remove();
+            if (fake.getClass() == fakeClass) {
+               itr.remove();
+            }
          }
       }
    }
@@ -22,7 +22,6 @@ import static mockit.asm.jvmConstants.Opcodes.INVOKESTATIC;
 import static mockit.asm.jvmConstants.Opcodes.INVOKEVIRTUAL;
 import static mockit.asm.jvmConstants.Opcodes.IRETURN;
 import static mockit.asm.jvmConstants.Opcodes.RETURN;
-import static mockit.asm.jvmConstants.Opcodes.SIPUSH;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
@@ -64,8 +63,8 @@ final class FakedClassModifier extends BaseClassModifier
      * <p/>
      * The fake instance provided will receive calls for any instance methods defined in the fake class.
      * Therefore, it needs to be later recovered by the modified bytecode inside the real method.
-     * To enable this, the fake instance is added to a global data structure made available through the {@link TestRun#getFake(String)}
-     * method.
+     * To enable this, the fake instance is added to a global data structure made available through the {@link TestRun#getFake(int)}
+     * method, with the fake class identified by an integer id.
      *
      * @param cr the class file reader for the real class
      * @param realClass the class to be faked, or a base type of an implementation class to be faked
@@ -188,9 +187,9 @@ final class FakedClassModifier extends BaseClassModifier
             mw.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z", false);
         }
         else {
-            mw.visitLdcInsn(fakeMethods.getFakeClassInternalName());
-            mw.visitIntInsn(SIPUSH, fakeMethod.getIndexForFakeState());
-            mw.visitMethodInsn(INVOKESTATIC, "mockit/internal/state/TestRun", "updateFakeState", "(Ljava/lang/String;I)Z", false);
+            generateCodeToPushInt(fakeMethods.getFakeClassId());
+            generateCodeToPushInt(fakeMethod.getIndexForFakeState());
+            mw.visitMethodInsn(INVOKESTATIC, "mockit/internal/state/TestRun", "updateFakeState", "(II)Z", false);
         }
     }
 
@@ -205,7 +204,7 @@ final class FakedClassModifier extends BaseClassModifier
         generateCodeToCreateArrayOfObject(2);
 
         int i = 0;
-        generateCodeToFillArrayElement(i++, fakeMethods.getFakeClassInternalName());
+        generateCodeToFillArrayElement(i++, fakeMethods.getFakeClassId());
         generateCodeToFillArrayElement(i, fakeMethod.getIndexForFakeState());
 
         generateCallToInvocationHandler();
@@ -265,7 +264,7 @@ final class FakedClassModifier extends BaseClassModifier
         generateCodeToCreateArrayOfObject(6 + argTypes.length);
 
         int i = 0;
-        generateCodeToFillArrayElement(i++, fakeMethods.getFakeClassInternalName());
+        generateCodeToFillArrayElement(i++, fakeMethods.getFakeClassId());
         generateCodeToFillArrayElement(i++, classDesc);
         generateCodeToFillArrayElement(i++, methodAccess);
 
@@ -305,8 +304,8 @@ final class FakedClassModifier extends BaseClassModifier
     }
 
     private void generateCodeToObtainFakeInstance(@Nonnull String fakeClassDesc) {
-        mw.visitLdcInsn(fakeClassDesc);
-        mw.visitMethodInsn(INVOKESTATIC, "mockit/internal/state/TestRun", "getFake", "(Ljava/lang/String;)Ljava/lang/Object;", false);
+        generateCodeToPushInt(fakeMethods.getFakeClassId());
+        mw.visitMethodInsn(INVOKESTATIC, "mockit/internal/state/TestRun", "getFake", "(I)Ljava/lang/Object;", false);
         mw.visitTypeInsn(CHECKCAST, fakeClassDesc);
     }
 
@@ -346,15 +345,15 @@ final class FakedClassModifier extends BaseClassModifier
             generateCodeToFillArrayWithParameterValues(argTypes, 0, initialParameterIndex);
         }
 
-        mw.visitLdcInsn(fakeMethods.getFakeClassInternalName());
-        mw.visitIntInsn(SIPUSH, fakeMethod.getIndexForFakeState());
+        generateCodeToPushInt(fakeMethods.getFakeClassId());
+        generateCodeToPushInt(fakeMethod.getIndexForFakeState());
         mw.visitLdcInsn(classDesc);
         mw.visitLdcInsn(methodName);
         mw.visitLdcInsn(methodDesc);
 
         mw.visitMethodInsn(
                 INVOKESTATIC, "mockit/internal/faking/FakeInvocation", "create",
-                "(Ljava/lang/Object;[Ljava/lang/Object;Ljava/lang/String;ILjava/lang/String;Ljava/lang/String;Ljava/lang/String;)" +
+                "(Ljava/lang/Object;[Ljava/lang/Object;IILjava/lang/String;Ljava/lang/String;Ljava/lang/String;)" +
                         "Lmockit/internal/faking/FakeInvocation;", false);
     }
 
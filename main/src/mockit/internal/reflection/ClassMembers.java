@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.reflection;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An index of the members declared by a class, built once per class from the reflective arrays that would otherwise be copied on each
+ * lookup, with methods and fields keyed by name.
+ * <p>
+ * The same <tt>Method</tt>, <tt>Constructor</tt>, and <tt>Field</tt> objects are handed out for every lookup, so each member gets made
+ * accessible only once, and information cached by reflection in them (such as generic types) gets reused.
+ * The arrays returned are shared, and must not be modified.
+ */
+final class ClassMembers
+{
+    private static final ClassValue<ClassMembers> MEMBERS_BY_CLASS = new ClassValue<ClassMembers>() {
+        @Override
+        protected ClassMembers computeValue(Class<?> aClass) { return new ClassMembers(aClass); }
+    };
+
+    private static final Declared<?>[] NO_METHODS = {};
+
+    /**
+     * A declared method or constructor, together with its parameter types.
+     */
+    static final class Declared<E extends Executable> {
+        @Nonnull final E member;
+        @Nonnull final Class<?>[] parameterTypes;
+
+        Declared(@Nonnull E member) {
+            this.member = member;
+            parameterTypes = member.getParameterTypes();
+        }
+    }
+
+    @Nonnull private final Map<String, Field> fieldsByName;
+    @Nonnull private final Field[] nonSyntheticFields;
+    @Nonnull private final Map<String, Declared<Method>[]> methodsByName;
+    @Nonnull private final Declared<Constructor<?>>[] constructors;
+
+    private ClassMembers(@Nonnull Class<?> aClass) {
+        Field[] declaredFields = aClass.getDeclaredFields();
+        fieldsByName = new HashMap<>(declaredFields.length * 2);
+        List<Field> fields = new ArrayList<>(declaredFields.length);
+
+        for (Field field : declaredFields) {
+            if (!fieldsByName.containsKey(field.getName())) {
+                fieldsByName.put(field.getName(), field);
+            }
+
+            if (!field.isSynthetic()) {
+                fields.add(field);
+            }
+        }
+
+        nonSyntheticFields = fields.toArray(new Field[0]);
+        methodsByName = indexMethodsByName(aClass.getDeclaredMethods());
+
+        Constructor<?>[] declaredConstructors = aClass.getDeclaredConstructors();
+        //noinspection unchecked
+        constructors = new Declared[declaredConstructors.length];
+
+        for (int i = 0; i < declaredConstructors.length; i++) {
+            constructors[i] = new Declared<Constructor<?>>(declaredConstructors[i]);
+        }
+    }
+
+    @Nonnull
+    private static Map<String, Declared<Method>[]> indexMethodsByName(@Nonnull Method[] declaredMethods) {
+        Map<String, List<Declared<Method>>> methodLists = new HashMap<>();
+
+        for (Method declaredMethod : declaredMethods) {
+            List<Declared<Method>> methodsWithName = methodLists.get(declaredMethod.getName());
+
+            if (methodsWithName == null) {
+                methodsWithName = new ArrayList<>(1);
+                methodLists.put(declaredMethod.getName(), methodsWithName);
+            }
+
+            methodsWithName.add(new Declared<>(declaredMethod));
+        }
+
+        Map<String, Declared<Method>[]> methods = new HashMap<>(methodLists.size() * 2);
+
+        for (Map.Entry<String, List<Declared<Method>>> nameAndMethods : methodLists.entrySet()) {
+            //noinspection unchecked
+            methods.put(nameAndMethods.getKey(), nameAndMethods.getValue().toArray(new Declared[0]));
+        }
+
+        return methods;
+    }
+
+    @Nonnull
+    static ClassMembers of(@Nonnull Class<?> aClass) { return MEMBERS_BY_CLASS.get(aClass); }
+
+    /**
+     * Returns the field of the given name declared by the class, if any, same as <tt>Class#getDeclaredField(String)</tt>.
+     */
+    @Nullable
+    Field getField(@Nonnull String name) { return fieldsByName.get(name); }
+
+    /**
+     * Returns the non-synthetic fields declared by the class, in the same order as <tt>Class#getDeclaredFields()</tt>.
+     */
+    @Nonnull
+    Field[] getNonSyntheticFields() { return nonSyntheticFields; }
+
+    /**
+     * Returns the methods of the given name declared by the class, in the same order as <tt>Class#getDeclaredMethods()</tt>.
+     */
+    @Nonnull
+    Declared<Method>[] getMethods(@Nonnull String name) {
+        Declared<Method>[] methods = methodsByName.get(name);
+        //noinspection unchecked
+        return methods == null ? (Declared<Method>[]) NO_METHODS : methods;
+    }
+
+    /**
+     * Returns the constructors declared by the class, in the same order as <tt>Class#getDeclaredConstructors()</tt>.
+     */
+    @Nonnull
+    Declared<Constructor<?>>[] getConstructors() { return constructors; }
+}
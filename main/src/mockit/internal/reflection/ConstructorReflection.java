@@ -40,13 +40,13 @@ public final class ConstructorReflection
 
     @Nonnull
     static <T> Constructor<T> findSpecifiedConstructor(@Nonnull Class<?> theClass, @Nonnull Class<?>[] paramTypes) {
-        for (Constructor<?> declaredConstructor : theClass.getDeclaredConstructors()) {
-            Class<?>[] declaredParameterTypes = declaredConstructor.getParameterTypes();
+        for (ClassMembers.Declared<Constructor<?>> declaredConstructor : ClassMembers.of(theClass).getConstructors()) {
+            Class<?>[] declaredParameterTypes = declaredConstructor.parameterTypes;
             int firstRealParameter = indexOfFirstRealParameter(declaredParameterTypes, paramTypes);
 
             if (firstRealParameter >= 0 && matchesParameterTypes(declaredParameterTypes, paramTypes, firstRealParameter)) {
                 //noinspection unchecked
-                return (Constructor<T>) declaredConstructor;
+                return (Constructor<T>) declaredConstructor.member;
             }
         }
 
@@ -179,10 +179,10 @@ public final class ConstructorReflection
                                                                 @Nonnull Class<?>[] argTypes) {
         Constructor<T> found = null;
         Class<?>[] foundParameters = null;
-        Constructor<?>[] declaredConstructors = theClass.getDeclaredConstructors();
+        ClassMembers.Declared<Constructor<?>>[] declaredConstructors = ClassMembers.of(theClass).getConstructors();
 
-        for (Constructor<?> declaredConstructor : declaredConstructors) {
-            Class<?>[] declaredParamTypes = declaredConstructor.getParameterTypes();
+        for (ClassMembers.Declared<Constructor<?>> declaredConstructor : declaredConstructors) {
+            Class<?>[] declaredParamTypes = declaredConstructor.parameterTypes;
             int firstRealParameter = indexOfFirstRealParameter(declaredParamTypes, argTypes);
 
             if (firstRealParameter >= 0
@@ -190,7 +190,7 @@ public final class ConstructorReflection
                             || acceptsArgumentTypes(declaredParamTypes, argTypes, firstRealParameter))
                     && (found == null || hasMoreSpecificTypes(declaredParamTypes, foundParameters))) {
                 //noinspection unchecked
-                found = (Constructor<T>) declaredConstructor;
+                found = (Constructor<T>) declaredConstructor.member;
                 foundParameters = declaredParamTypes;
             }
         }
@@ -200,7 +200,7 @@ public final class ConstructorReflection
         }
 
         Class<?> declaringClass = theClass.getDeclaringClass();
-        Class<?>[] paramTypes = declaredConstructors[0].getParameterTypes();
+        Class<?>[] paramTypes = declaredConstructors[0].parameterTypes;
 
         if (paramTypes.length > argTypes.length && paramTypes[0] == declaringClass) {
             throw new IllegalArgumentException("Invalid instantiation of inner class; use newInnerInstance instead");
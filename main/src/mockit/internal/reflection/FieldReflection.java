@@ -54,19 +54,21 @@ public final class FieldReflection
     @Nonnull
     private static Field getDeclaredField(@Nonnull Class<?> theClass, @Nonnull String fieldName,
                                           boolean instanceField) {
-        try {
-            return theClass.getDeclaredField(fieldName);
-        } catch (NoSuchFieldException ignore) {
-            Class<?> superClass = theClass.getSuperclass();
+        Field field = ClassMembers.of(theClass).getField(fieldName);
 
-            if (superClass != null && superClass != Object.class) {
-                return getDeclaredField(superClass, fieldName, instanceField);
-            }
+        if (field != null) {
+            return field;
+        }
 
-            String kind = instanceField ? "instance" : "static";
-            throw new IllegalArgumentException(
-                    "No " + kind + " field of name \"" + fieldName + "\" found in " + theClass);
+        Class<?> superClass = theClass.getSuperclass();
+
+        if (superClass != null && superClass != Object.class) {
+            return getDeclaredField(superClass, fieldName, instanceField);
         }
+
+        String kind = instanceField ? "instance" : "static";
+        throw new IllegalArgumentException(
+                "No " + kind + " field of name \"" + fieldName + "\" found in " + theClass);
     }
 
     @Nonnull
@@ -95,20 +97,18 @@ public final class FieldReflection
                                                        boolean instanceField, boolean forAssignment) {
         Field found = null;
 
-        for (Field field : theClass.getDeclaredFields()) {
-            if (!field.isSynthetic()) {
-                Type fieldType = field.getGenericType();
+        for (Field field : ClassMembers.of(theClass).getNonSyntheticFields()) {
+            Type fieldType = field.getGenericType();
 
-                if (instanceField != isStatic(field.getModifiers())
-                        && isCompatibleFieldType(fieldType, desiredType, forAssignment)) {
-                    if (found != null) {
-                        String message = errorMessageForMoreThanOneFieldFound(desiredType, instanceField, forAssignment,
-                                found, field);
-                        throw new IllegalArgumentException(message);
-                    }
-
-                    found = field;
+            if (instanceField != isStatic(field.getModifiers())
+                    && isCompatibleFieldType(fieldType, desiredType, forAssignment)) {
+                if (found != null) {
+                    String message = errorMessageForMoreThanOneFieldFound(desiredType, instanceField, forAssignment,
+                            found, field);
+                    throw new IllegalArgumentException(message);
                 }
+
+                found = field;
             }
         }
 
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.reflection;
+
+import java.lang.invoke.*;
+import java.lang.reflect.*;
+import javax.annotation.*;
+import static java.lang.reflect.Modifier.*;
+
+import mockit.internal.util.*;
+
+/**
+ * Invokes a given method many times through a method handle adapted to take the target instance (ignored for a static method) and an
+ * array with the arguments, and to return an <tt>Object</tt>, which is cheaper than invoking it through reflection once created.
+ * <p>
+ * Failures are reported the same way as by {@link MethodReflection#invoke(Object, Method, Object...)} and
+ * {@link MethodReflection#invokeWithCheckedThrows(Object, Method, Object...)}.
+ */
+public final class MethodInvoker
+{
+   private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+   @Nonnull private final Method method;
+   @Nonnull private final Class<?>[] parameterTypes;
+   @Nonnull private final MethodHandle invoker;
+
+   public MethodInvoker(@Nonnull Method method) {
+      this.method = method;
+      parameterTypes = method.getParameterTypes();
+      Utilities.ensureThatMemberIsAccessible(method);
+
+      MethodHandle methodHandle;
+      try { methodHandle = MethodHandles.lookup().unreflect(method).asFixedArity(); }
+      catch (IllegalAccessException e) { throw new IllegalStateException(e); }
+
+      if (isStatic(method.getModifiers())) {
+         methodHandle = MethodHandles.dropArguments(methodHandle, 0, Object.class);
+      }
+      else {
+         methodHandle = methodHandle.asType(methodHandle.type().changeParameterType(0, Object.class));
+      }
+
+      invoker = methodHandle.asSpreader(Object[].class, parameterTypes.length).asType(INVOKER_TYPE);
+   }
+
+   @Nonnull
+   public Method getMethod() { return method; }
+
+   @Nullable
+   public <T> T invokeWithCheckedThrows(@Nullable Object targetInstance, @Nonnull Object[] methodArgs) throws Throwable {
+      if (!areValidArguments(targetInstance, methodArgs)) {
+         return MethodReflection.invokeWithCheckedThrows(targetInstance, method, methodArgs);
+      }
+
+      //noinspection unchecked
+      return (T) invoker.invokeExact(targetInstance, methodArgs);
+   }
+
+   @Nullable
+   public <T> T invoke(@Nullable Object targetInstance, @Nonnull Object[] methodArgs) {
+      try {
+         return invokeWithCheckedThrows(targetInstance, methodArgs);
+      }
+      catch (Error | RuntimeException e) {
+         throw e;
+      }
+      catch (Throwable checkedException) {
+         ThrowOfCheckedException.doThrow((Exception) checkedException);
+         return null;
+      }
+   }
+
+   /**
+    * Checks the arguments against the parameters of the method, requiring the exact wrapper type for each primitive parameter; otherwise,
+    * the method handle would throw a <tt>ClassCastException</tt>, which couldn't be told apart from one thrown by the method itself.
+    * Arguments failing the check are passed through reflection instead, so that a mismatch gets reported with the original
+    * <tt>IllegalArgumentException</tt> as its cause.
+    */
+   private boolean areValidArguments(@Nullable Object targetInstance, @Nonnull Object[] methodArgs) {
+      if (methodArgs.length != parameterTypes.length) {
+         return false;
+      }
+
+      if (!isStatic(method.getModifiers()) && !method.getDeclaringClass().isInstance(targetInstance)) {
+         return false;
+      }
+
+      for (int i = 0; i < methodArgs.length; i++) {
+         Object arg = methodArgs[i];
+         Class<?> parameterType = parameterTypes[i];
+
+         if (parameterType.isPrimitive()) {
+            if (arg == null || arg.getClass() != AutoBoxing.getWrapperType(parameterType)) {
+               return false;
+            }
+         }
+         else if (arg != null && !parameterType.isInstance(arg)) {
+            return false;
+         }
+      }
+
+      return true;
+   }
+}
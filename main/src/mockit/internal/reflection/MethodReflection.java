@@ -29,6 +29,17 @@ public final class MethodReflection
 {
     @Nonnull public static final Pattern JAVA_LANG = Pattern.compile("java.lang.", Pattern.LITERAL);
 
+    /**
+     * The invokers of the handler methods of delegate and invocation handler classes; a class having no single handler method gets no
+     * value, so that the failure is reported again on every attempt.
+     */
+    private static final ClassValue<MethodInvoker> HANDLER_METHOD_INVOKERS = new ClassValue<MethodInvoker>() {
+        @Override
+        protected MethodInvoker computeValue(Class<?> handlerClass) {
+            return new MethodInvoker(findNonPrivateHandlerMethod(handlerClass));
+        }
+    };
+
     private MethodReflection() {}
 
 
@@ -88,7 +99,7 @@ public final class MethodReflection
         throw new IllegalArgumentException("No compatible static method found: " + methodName + argTypesDesc);
     }
     @Nonnull
-    private static Method findSpecifiedMethod(@Nonnull Class<?> theClass, @Nonnull String methodName, @Nonnull Class<?>[] paramTypes) {
+    public static Method findSpecifiedMethod(@Nonnull Class<?> theClass, @Nonnull String methodName, @Nonnull Class<?>[] paramTypes) {
         while (true) {
             Method declaredMethod = findSpecifiedMethodInGivenClass(theClass, methodName, paramTypes);
 
@@ -112,14 +123,12 @@ public final class MethodReflection
     private static Method findSpecifiedMethodInGivenClass(
                                                           @Nonnull Class<?> theClass, @Nonnull String methodName, @Nonnull Class<?>[] paramTypes
             ) {
-        for (Method declaredMethod : theClass.getDeclaredMethods()) {
-            if (declaredMethod.getName().equals(methodName)) {
-                Class<?>[] declaredParameterTypes = declaredMethod.getParameterTypes();
-                int firstRealParameter = indexOfFirstRealParameter(declaredParameterTypes, paramTypes);
+        for (ClassMembers.Declared<Method> declaredMethod : ClassMembers.of(theClass).getMethods(methodName)) {
+            Class<?>[] declaredParameterTypes = declaredMethod.parameterTypes;
+            int firstRealParameter = indexOfFirstRealParameter(declaredParameterTypes, paramTypes);
 
-                if (firstRealParameter >= 0 && matchesParameterTypes(declaredMethod.getParameterTypes(), paramTypes, firstRealParameter)) {
-                    return declaredMethod;
-                }
+            if (firstRealParameter >= 0 && matchesParameterTypes(declaredParameterTypes, paramTypes, firstRealParameter)) {
+                return declaredMethod.member;
             }
         }
 
@@ -236,20 +245,18 @@ public final class MethodReflection
         Method found = null;
         Class<?>[] foundParamTypes = null;
 
-        for (Method declaredMethod : theClass.getDeclaredMethods()) {
-            if (declaredMethod.getName().equals(methodName)) {
-                Class<?>[] declaredParamTypes = declaredMethod.getParameterTypes();
-                int firstRealParameter = indexOfFirstRealParameter(declaredParamTypes, argTypes);
-
-                if (
-                        firstRealParameter >= 0 &&
-                        (matchesParameterTypes(declaredParamTypes, argTypes, firstRealParameter) ||
-                                acceptsArgumentTypes(declaredParamTypes, argTypes, firstRealParameter)) &&
-                        (foundParamTypes == null || hasMoreSpecificTypes(declaredParamTypes, foundParamTypes))
-                        ) {
-                    found = declaredMethod;
-                    foundParamTypes = declaredParamTypes;
-                }
+        for (ClassMembers.Declared<Method> declaredMethod : ClassMembers.of(theClass).getMethods(methodName)) {
+            Class<?>[] declaredParamTypes = declaredMethod.parameterTypes;
+            int firstRealParameter = indexOfFirstRealParameter(declaredParamTypes, argTypes);
+
+            if (
+                    firstRealParameter >= 0 &&
+                    (matchesParameterTypes(declaredParamTypes, argTypes, firstRealParameter) ||
+                            acceptsArgumentTypes(declaredParamTypes, argTypes, firstRealParameter)) &&
+                    (foundParamTypes == null || hasMoreSpecificTypes(declaredParamTypes, foundParamTypes))
+                    ) {
+                found = declaredMethod.member;
+                foundParamTypes = declaredParamTypes;
             }
         }
 
@@ -258,19 +265,24 @@ public final class MethodReflection
 
     @Nonnull
     public static Method findNonPrivateHandlerMethod(@Nonnull Object handler) {
-        Class<?> handlerClass = handler.getClass();
+        return findNonPrivateHandlerMethod(handler.getClass());
+    }
+
+    @Nonnull
+    private static Method findNonPrivateHandlerMethod(@Nonnull Class<?> handlerClass) {
+        Class<?> classToSearch = handlerClass;
         Method nonPrivateMethod;
 
         do {
-            nonPrivateMethod = findNonPrivateHandlerMethod(handlerClass);
+            nonPrivateMethod = findNonPrivateHandlerMethodInClass(classToSearch);
 
             if (nonPrivateMethod != null) {
                 break;
             }
 
-            handlerClass = handlerClass.getSuperclass();
+            classToSearch = classToSearch.getSuperclass();
         }
-        while (handlerClass != null && handlerClass != Object.class);
+        while (classToSearch != null && classToSearch != Object.class);
 
         if (nonPrivateMethod == null) {
             throw new IllegalArgumentException("No non-private instance method found");
@@ -279,8 +291,17 @@ public final class MethodReflection
         return nonPrivateMethod;
     }
 
+    /**
+     * Gets an invoker for the {@linkplain #findNonPrivateHandlerMethod(Object) handler method} of the given handler object, which is
+     * looked up and compiled only once for each handler class.
+     */
+    @Nonnull
+    public static MethodInvoker getHandlerMethodInvoker(@Nonnull Object handler) {
+        return HANDLER_METHOD_INVOKERS.get(handler.getClass());
+    }
+
     @Nullable
-    private static Method findNonPrivateHandlerMethod(@Nonnull Class<?> handlerClass) {
+    private static Method findNonPrivateHandlerMethodInClass(@Nonnull Class<?> handlerClass) {
         Method[] declaredMethods = handlerClass.getDeclaredMethods();
         Method found = null;
 
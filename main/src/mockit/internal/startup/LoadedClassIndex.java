@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.startup;
+
+import java.lang.instrument.*;
+import java.lang.ref.*;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.annotation.*;
+
+import mockit.internal.state.*;
+
+/**
+ * An index of the classes loaded by the JVM, from their names to the classes themselves (or their defining class loaders, until first
+ * looked up), held through weak references.
+ * There can be more than one class with the same name, each one defined by a different class loader.
+ * <p>
+ * The index is filled by the {@link CachedClassfiles} transformer, which gets called for every class loaded or redefined after the
+ * agent started, and seeded with a single scan of {@link Instrumentation#getAllLoadedClasses()} for those loaded before; so, looking
+ * up a loaded class doesn't need to go through the tens of thousands of classes a large test suite can have loaded, and a name missing
+ * from the index is that of a class not loaded.
+ * <p>
+ * A class recorded while being loaded gets resolved on its first lookup, through its defining class loader, which by then has it
+ * already loaded.
+ * The exception is a lookup made from a transformer of this agent, as the JVM doesn't notify a transformer of classes loaded while it is
+ * itself running, and a class being loaded by the same thread isn't defined yet; such a lookup falls back to a full scan.
+ *
+ * @see Startup#getClassIfLoaded(String)
+ * @see Startup#getClassesIfLoaded(String)
+ */
+public final class LoadedClassIndex
+{
+   private static final class LoadedClass {
+      @Nullable private final Reference<ClassLoader> definingLoader;
+      @Nullable private volatile Reference<Class<?>> loadedClass;
+
+      LoadedClass(@Nullable ClassLoader definingLoader) {
+         this.definingLoader = definingLoader == null ? null : new WeakReference<>(definingLoader);
+      }
+
+      LoadedClass(@Nonnull Class<?> loadedClass) {
+         this(loadedClass.getClassLoader());
+         this.loadedClass = new WeakReference<Class<?>>(loadedClass);
+      }
+
+      boolean isDefinedBy(@Nullable ClassLoader loader) {
+         if (definingLoader == null) {
+            return loader == null;
+         }
+
+         ClassLoader thisLoader = definingLoader.get();
+         return thisLoader != null && thisLoader == loader;
+      }
+
+      boolean isResolved() { return loadedClass != null; }
+
+      /**
+       * Returns the class, or <tt>null</tt> if it wasn't seen yet by a lookup, or has since been garbage collected.
+       */
+      @Nullable
+      Class<?> getLoadedClass() {
+         Reference<Class<?>> classRef = loadedClass;
+         return classRef == null ? null : classRef.get();
+      }
+
+      /**
+       * Gets the class recorded while being loaded from its defining class loader, without initializing it.
+       *
+       * @return the class provided by the loader, possibly defined by another one, or <tt>null</tt> if the loader is gone or can't
+       * provide it
+       */
+      @Nullable
+      Class<?> findThroughDefiningLoader(@Nonnull String className) {
+         ClassLoader loader = null;
+
+         if (definingLoader != null) {
+            loader = definingLoader.get();
+
+            if (loader == null) {
+               return null;
+            }
+         }
+
+         try { return Class.forName(className, false, loader); }
+         catch (ClassNotFoundException | LinkageError ignore) { return null; }
+      }
+
+      void resolve(@Nonnull Class<?> aClass) { loadedClass = new WeakReference<Class<?>>(aClass); }
+   }
+
+   @Nonnull private static final LoadedClass[] NO_CLASSES = {};
+   @Nonnull private static final ConcurrentMap<String, LoadedClass[]> classesByName = new ConcurrentHashMap<>(1000);
+   @Nonnull private static final ThreadLocal<Boolean> runningTransformer = new ThreadLocal<>();
+   private static volatile boolean seeded;
+
+   private LoadedClassIndex() {}
+
+   /**
+    * Marks the current thread as running a transformer of this agent, until {@link #transformerFinished()} gets called, so that its
+    * lookups don't rely on the index for classes it may have loaded or be loading.
+    */
+   public static void transformerStarted() { runningTransformer.set(true); }
+   public static void transformerFinished() { runningTransformer.remove(); }
+
+   /**
+    * Records a class about to be defined by the given class loader, as notified to a {@link ClassFileTransformer}; the class itself
+    * only gets resolved on the first lookup, since it isn't available yet.
+    */
+   public static void classBeingLoaded(@Nullable ClassLoader loader, @Nonnull String classDesc) {
+      String className = classDesc.replace('/', '.');
+      addOrReplace(className, loader, new LoadedClass(loader), true);
+   }
+
+   /**
+    * Records a class being redefined or retransformed, which is obviously already loaded.
+    */
+   public static void classBeingRedefined(@Nonnull Class<?> redefinedClass) {
+      addOrReplace(redefinedClass.getName(), redefinedClass.getClassLoader(), new LoadedClass(redefinedClass), false);
+   }
+
+   private static void addOrReplace(
+      @Nonnull String className, @Nullable ClassLoader loader, @Nonnull LoadedClass newEntry, boolean replaceResolved
+   ) {
+      while (true) {
+         LoadedClass[] entries = classesByName.get(className);
+
+         if (entries == null) {
+            if (classesByName.putIfAbsent(className, new LoadedClass[] {newEntry}) == null) {
+               return;
+            }
+
+            continue;
+         }
+
+         LoadedClass[] newEntries = null;
+
+         for (int i = 0; i < entries.length; i++) {
+            LoadedClass entry = entries[i];
+
+            if (entry.isDefinedBy(loader)) {
+               if (entry.isResolved() && !replaceResolved) {
+                  return;
+               }
+
+               newEntries = entries.clone();
+               newEntries[i] = newEntry;
+               break;
+            }
+         }
+
+         if (newEntries == null) {
+            newEntries = Arrays.copyOf(entries, entries.length + 1);
+            newEntries[entries.length] = newEntry;
+         }
+
+         if (classesByName.replace(className, entries, newEntries)) {
+            return;
+         }
+      }
+   }
+
+   @Nullable
+   static Class<?> getClassIfLoaded(@Nonnull Instrumentation instrumentation, @Nonnull String className) {
+      List<Class<?>> loadedClasses = getClassesIfLoaded(instrumentation, className);
+      return loadedClasses.isEmpty() ? null : loadedClasses.get(0);
+   }
+
+   @Nonnull
+   static List<Class<?>> getClassesIfLoaded(@Nonnull Instrumentation instrumentation, @Nonnull String className) {
+      if (!seeded) {
+         seedFromAllLoadedClasses(instrumentation);
+      }
+
+      boolean fromTransformer = runningTransformer.get() != null;
+      LoadedClass[] entries = classesByName.get(className);
+
+      if (entries == null) {
+         return fromTransformer ? findByScanningAllLoadedClasses(instrumentation, className) : Collections.<Class<?>>emptyList();
+      }
+
+      List<Class<?>> loadedClasses = new ArrayList<>(entries.length);
+      List<LoadedClass> liveEntries = new ArrayList<>(entries.length);
+
+      for (LoadedClass entry : entries) {
+         Class<?> loadedClass = entry.getLoadedClass();
+
+         if (loadedClass == null && !entry.isResolved()) {
+            if (fromTransformer) {
+               return findByScanningAllLoadedClasses(instrumentation, className);
+            }
+
+            loadedClass = entry.findThroughDefiningLoader(className);
+
+            if (loadedClass != null) {
+               if (!entry.isDefinedBy(loadedClass.getClassLoader())) {
+                  return findByScanningAllLoadedClasses(instrumentation, className);
+               }
+
+               entry.resolve(loadedClass);
+            }
+         }
+
+         if (loadedClass != null) {
+            loadedClasses.add(loadedClass);
+            liveEntries.add(entry);
+         }
+      }
+
+      if (liveEntries.size() < entries.length) {
+         discardEntriesOfClassesNoLongerLoaded(className, entries, liveEntries);
+      }
+
+      return loadedClasses;
+   }
+
+   private static void discardEntriesOfClassesNoLongerLoaded(
+      @Nonnull String className, @Nonnull LoadedClass[] entries, @Nonnull List<LoadedClass> liveEntries
+   ) {
+      if (liveEntries.isEmpty()) {
+         classesByName.remove(className, entries);
+      }
+      else {
+         classesByName.replace(className, entries, liveEntries.toArray(NO_CLASSES));
+      }
+   }
+
+   private static synchronized void seedFromAllLoadedClasses(@Nonnull Instrumentation instrumentation) {
+      if (!seeded) {
+         for (Class<?> loadedClass : instrumentation.getAllLoadedClasses()) {
+            if (!loadedClass.isArray()) {
+               classBeingRedefined(loadedClass);
+            }
+         }
+
+         seeded = true;
+      }
+   }
+
+   @Nonnull
+   private static List<Class<?>> findByScanningAllLoadedClasses(@Nonnull Instrumentation instrumentation, @Nonnull String className) {
+      List<Class<?>> loadedClasses = new ArrayList<>(2);
+      List<LoadedClass> entries = new ArrayList<>(2);
+
+      for (Class<?> aClass : instrumentation.getAllLoadedClasses()) {
+         if (aClass.getName().equals(className) && !loadedClasses.contains(aClass)) {
+            loadedClasses.add(aClass);
+            entries.add(new LoadedClass(aClass));
+         }
+      }
+
+      if (entries.isEmpty()) {
+         classesByName.remove(className);
+      }
+      else {
+         classesByName.put(className, entries.toArray(NO_CLASSES));
+      }
+
+      return loadedClasses;
+   }
+}
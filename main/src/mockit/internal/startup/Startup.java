@@ -5,6 +5,7 @@
 package mockit.internal.startup;
 
 import java.lang.instrument.*;
+import java.util.*;
 import javax.annotation.*;
 
 import mockit.internal.*;
@@ -87,6 +88,62 @@ public final class Startup
       }
    }
 
+   /**
+    * Redefines the given classes with a single call to the JVM.
+    * If that fails, each class is then redefined separately, so that a single bad definition doesn't prevent the others from being
+    * applied; the first failure is then rethrown.
+    */
+   public static void redefineMethods(@Nonnull Map<Class<?>, byte[]> classesAndDefinitions) {
+      if (classesAndDefinitions.isEmpty()) {
+         return;
+      }
+
+      ClassDefinition[] classDefs = new ClassDefinition[classesAndDefinitions.size()];
+      int i = 0;
+
+      for (Map.Entry<Class<?>, byte[]> classAndDefinition : classesAndDefinitions.entrySet()) {
+         classDefs[i++] = new ClassDefinition(classAndDefinition.getKey(), classAndDefinition.getValue());
+      }
+
+      if (classDefs.length == 1) {
+         redefineMethods(classDefs[0]);
+         return;
+      }
+
+      try {
+         //noinspection ConstantConditions
+         instrumentation.redefineClasses(classDefs);
+      }
+      catch (ClassNotFoundException | UnmodifiableClassException | RuntimeException | LinkageError | InternalError ignore) {
+         // The JVM redefines either all classes or none of them, so each one gets redefined on its own, with the failure handling of
+         // a single redefinition; that way, a class causing an InternalError doesn't leave all the others with their current definitions.
+         redefineMethodsSeparately(classDefs);
+      }
+   }
+
+   private static void redefineMethodsSeparately(@Nonnull ClassDefinition[] classDefs) {
+      Throwable firstFailure = null;
+
+      for (ClassDefinition classDef : classDefs) {
+         try {
+            redefineMethods(classDef);
+         }
+         catch (RuntimeException | LinkageError e) {
+            if (firstFailure == null) {
+               firstFailure = e;
+            }
+         }
+      }
+
+      if (firstFailure instanceof RuntimeException) {
+         throw (RuntimeException) firstFailure;
+      }
+
+      if (firstFailure != null) {
+         throw (Error) firstFailure;
+      }
+   }
+
    private static void detectMissingDependenciesIfAny(@Nonnull Class<?> mockedClass) {
       try {
          Class.forName(mockedClass.getName(), false, mockedClass.getClassLoader());
@@ -102,14 +159,17 @@ public final class Startup
    @Nullable
    public static Class<?> getClassIfLoaded(@Nonnull String classDescOrName) {
       String className = classDescOrName.replace('/', '.');
-      @SuppressWarnings("ConstantConditions") Class<?>[] loadedClasses = instrumentation.getAllLoadedClasses();
-
-      for (Class<?> aClass : loadedClasses) {
-         if (aClass.getName().equals(className)) {
-            return aClass;
-         }
-      }
+      //noinspection ConstantConditions
+      return LoadedClassIndex.getClassIfLoaded(instrumentation, className);
+   }
 
-      return null;
+   /**
+    * Returns all loaded classes having the given name, each one defined by a different class loader.
+    */
+   @Nonnull
+   public static List<Class<?>> getClassesIfLoaded(@Nonnull String classDescOrName) {
+      String className = classDescOrName.replace('/', '.');
+      //noinspection ConstantConditions
+      return LoadedClassIndex.getClassesIfLoaded(instrumentation, className);
    }
 }
\ No newline at end of file
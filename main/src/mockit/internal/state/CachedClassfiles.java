@@ -5,8 +5,12 @@
 package mockit.internal.state;
 
 import java.lang.instrument.*;
+import java.lang.ref.*;
 import java.security.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.zip.*;
 import javax.annotation.*;
 
 import mockit.internal.startup.*;
@@ -23,16 +27,145 @@ import mockit.internal.startup.*;
  * <p>
  * This bytecode cache allows classes to be mocked and un-mocked correctly, even in the presence of other
  * bytecode modification agents such as the AspectJ load-time weaver.
+ * <p>
+ * Identical classfiles (such as those of a class loaded by more than one class loader) are stored only once.
+ * With the <tt>jmockit-compressCachedClassfiles</tt> system property, classfiles are held compressed, with an uncompressed copy kept
+ * only while memory allows, so that those not used recently take less heap space.
+ * With <tt>jmockit-cachedClassfilesStats</tt>, the number of hits, misses, and bytes stored is reported at the end of the test run.
  */
 public final class CachedClassfiles implements ClassFileTransformer
 {
    @Nonnull public static final CachedClassfiles INSTANCE = new CachedClassfiles();
+   private static final boolean COMPRESSING = Boolean.getBoolean("jmockit-compressCachedClassfiles");
+
+   /**
+    * A classfile as stored, either as is or compressed, and compared by content so that identical ones can be shared.
+    */
+   private static final class StoredClassfile {
+      @Nonnull private final byte[] content;
+      private final int length;
+      private final int hashCode;
+      @Nullable private volatile Reference<byte[]> uncompressed;
+
+      StoredClassfile(@Nonnull byte[] classfile) {
+         length = classfile.length;
+         hashCode = Arrays.hashCode(classfile);
+
+         if (COMPRESSING) {
+            content = compress(classfile);
+            uncompressed = new SoftReference<>(classfile);
+         }
+         else {
+            content = classfile;
+         }
+      }
+
+      @Nonnull
+      private static byte[] compress(@Nonnull byte[] classfile) {
+         Deflater deflater = new Deflater();
+         deflater.setInput(classfile);
+         deflater.finish();
+
+         byte[] buffer = new byte[classfile.length / 2 + 64];
+         int compressedLength = 0;
+
+         while (!deflater.finished()) {
+            if (compressedLength == buffer.length) {
+               buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+
+            compressedLength += deflater.deflate(buffer, compressedLength, buffer.length - compressedLength);
+         }
+
+         deflater.end();
+         return Arrays.copyOf(buffer, compressedLength);
+      }
+
+      @Nonnull
+      byte[] getClassfile() {
+         if (!COMPRESSING) {
+            return content;
+         }
+
+         Reference<byte[]> uncompressedRef = uncompressed;
+         byte[] classfile = uncompressedRef == null ? null : uncompressedRef.get();
+
+         if (classfile == null) {
+            classfile = decompress();
+            uncompressed = new SoftReference<>(classfile);
+         }
+
+         return classfile;
+      }
 
-   @Nonnull private final Map<ClassLoader, Map<String, byte[]>> classLoadersAndClassfiles;
-   @Nullable private Class<?> classBeingCached;
+      @Nonnull
+      private byte[] decompress() {
+         Inflater inflater = new Inflater();
+         inflater.setInput(content);
+         byte[] classfile = new byte[length];
+
+         try {
+            int decompressedLength = 0;
+
+            while (decompressedLength < length) {
+               decompressedLength += inflater.inflate(classfile, decompressedLength, length - decompressedLength);
+            }
+         }
+         catch (DataFormatException e) {
+            throw new IllegalStateException(e);
+         }
+         finally {
+            inflater.end();
+         }
+
+         return classfile;
+      }
+
+      @Override
+      public boolean equals(Object other) {
+         if (this == other) return true;
+         if (!(other instanceof StoredClassfile)) return false;
+
+         StoredClassfile that = (StoredClassfile) other;
+         return hashCode == that.hashCode && length == that.length && Arrays.equals(content, that.content);
+      }
+
+      @Override
+      public int hashCode() { return hashCode; }
+   }
+
+   @Nonnull private final Map<ClassLoader, Map<String, StoredClassfile>> classLoadersAndClassfiles;
+
+   /**
+    * The distinct classfiles stored for all class loaders, held weakly so that those belonging to collected class loaders go away.
+    */
+   @Nonnull private final Map<StoredClassfile, Reference<StoredClassfile>> distinctClassfiles;
+
+   /**
+    * The class being retransformed by each thread in order to have its classfile cached, which gets done in the same thread.
+    */
+   @Nonnull private final ThreadLocal<Class<?>> classBeingCached;
+
+   @Nonnull private final AtomicLong hits;
+   @Nonnull private final AtomicLong misses;
+   @Nonnull private final AtomicLong bytesAdded;
+   @Nonnull private final AtomicLong bytesStored;
 
    private CachedClassfiles() {
       classLoadersAndClassfiles = new WeakHashMap<>(2);
+      distinctClassfiles = new WeakHashMap<>(100);
+      classBeingCached = new ThreadLocal<>();
+      hits = new AtomicLong();
+      misses = new AtomicLong();
+      bytesAdded = new AtomicLong();
+      bytesStored = new AtomicLong();
+
+      if (Boolean.getBoolean("jmockit-cachedClassfilesStats")) {
+         Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() { System.out.println("JMockit: Cached classfiles: " + getStatistics()); }
+         });
+      }
    }
 
    @Nullable @Override
@@ -41,9 +174,16 @@ public final class CachedClassfiles implements ClassFileTransformer
       @Nullable ProtectionDomain protectionDomain, @Nonnull byte[] classfileBuffer
    ) {
       if (classDesc != null) { // can be null for Java 8 lambdas
-         if (classBeingRedefinedOrRetransformed != null && classBeingRedefinedOrRetransformed == classBeingCached) {
-            addClassfile(loader, classDesc, classfileBuffer);
-            classBeingCached = null;
+         if (classBeingRedefinedOrRetransformed == null) {
+            LoadedClassIndex.classBeingLoaded(loader, classDesc);
+         }
+         else {
+            LoadedClassIndex.classBeingRedefined(classBeingRedefinedOrRetransformed);
+
+            if (classBeingRedefinedOrRetransformed == classBeingCached.get()) {
+               addClassfile(loader, classDesc, classfileBuffer);
+               classBeingCached.remove();
+            }
          }
       }
 
@@ -51,77 +191,147 @@ public final class CachedClassfiles implements ClassFileTransformer
    }
 
    private void addClassfile(@Nullable ClassLoader loader, @Nonnull String classDesc, @Nonnull byte[] classfile) {
-      Map<String, byte[]> classfiles = getClassfiles(loader);
-      classfiles.put(classDesc, classfile);
+      Map<String, StoredClassfile> classfiles = getClassfiles(loader);
+      classfiles.put(classDesc, getDistinctClassfile(classfile));
    }
 
    @Nonnull
-   private Map<String, byte[]> getClassfiles(@Nullable ClassLoader loader) {
-      Map<String, byte[]> classfiles = classLoadersAndClassfiles.get(loader);
+   private StoredClassfile getDistinctClassfile(@Nonnull byte[] classfile) {
+      StoredClassfile newClassfile = new StoredClassfile(classfile);
+      bytesAdded.addAndGet(classfile.length);
 
-      if (classfiles == null) {
-         classfiles = new HashMap<>(100);
-         classLoadersAndClassfiles.put(loader, classfiles);
+      synchronized (distinctClassfiles) {
+         Reference<StoredClassfile> existingRef = distinctClassfiles.get(newClassfile);
+         StoredClassfile existing = existingRef == null ? null : existingRef.get();
+
+         if (existing != null) {
+            return existing;
+         }
+
+         distinctClassfiles.put(newClassfile, new WeakReference<>(newClassfile));
+      }
+
+      bytesStored.addAndGet(newClassfile.content.length);
+      return newClassfile;
+   }
+
+   @Nonnull
+   private Map<String, StoredClassfile> getClassfiles(@Nullable ClassLoader loader) {
+      synchronized (classLoadersAndClassfiles) {
+         Map<String, StoredClassfile> classfiles = classLoadersAndClassfiles.get(loader);
+
+         if (classfiles == null) {
+            classfiles = new ConcurrentHashMap<>(100);
+            classLoadersAndClassfiles.put(loader, classfiles);
+         }
+
+         return classfiles;
       }
+   }
 
-      return classfiles;
+   @Nonnull
+   private List<Map<String, StoredClassfile>> getClassfilesForAllClassLoaders() {
+      synchronized (classLoadersAndClassfiles) {
+         return new ArrayList<>(classLoadersAndClassfiles.values());
+      }
    }
 
    @Nullable
    private byte[] findClassfile(@Nonnull Class<?> aClass) {
+      return findClassfile(aClass.getClassLoader(), getInternalName(aClass));
+   }
+
+   @Nonnull
+   private static String getInternalName(@Nonnull Class<?> aClass) {
       String className = aClass.getName();
 
       // Discards an invalid numerical suffix from a synthetic Java 8 class, if detected.
       int p = className.indexOf('/');
       if (p > 0) className = className.substring(0, p);
 
-      Map<String, byte[]> classfiles = getClassfiles(aClass.getClassLoader());
-      return classfiles.get(className.replace('.', '/'));
+      return className.replace('.', '/');
    }
 
    @Nullable
-   public static synchronized byte[] getClassfile(@Nonnull String classDesc) {
+   public static byte[] getClassfile(@Nonnull String classDesc) {
       return INSTANCE.findClassfile(classDesc);
    }
 
    @Nullable
    private byte[] findClassfile(@Nonnull String classDesc) {
-      byte[] classfile = null;
-
-      for (Map<String, byte[]> classfiles : classLoadersAndClassfiles.values()) {
-         classfile = classfiles.get(classDesc);
+      for (Map<String, StoredClassfile> classfiles : getClassfilesForAllClassLoaders()) {
+         StoredClassfile classfile = classfiles.get(classDesc);
 
          if (classfile != null) {
-            return classfile;
+            hits.incrementAndGet();
+            return classfile.getClassfile();
          }
       }
 
+      misses.incrementAndGet();
       Class<?> desiredClass = Startup.getClassIfLoaded(classDesc);
 
-      if (desiredClass != null) {
-         classBeingCached = desiredClass;
-         Startup.retransformClass(desiredClass);
-         ClassLoader classLoader = desiredClass.getClassLoader();
-         classfile = INSTANCE.findClassfile(classLoader, classDesc);
+      if (desiredClass == null) {
+         return null;
+      }
+
+      retransformToCache(desiredClass);
+      return getStoredClassfile(desiredClass.getClassLoader(), classDesc);
+   }
+
+   private void retransformToCache(@Nonnull Class<?> aClass) {
+      classBeingCached.set(aClass);
+
+      try { Startup.retransformClass(aClass); }
+      finally { classBeingCached.remove(); }
+   }
+
+   @Nullable
+   private byte[] findClassfile(@Nullable ClassLoader loader, @Nonnull String classDesc) {
+      byte[] classfile = getStoredClassfile(loader, classDesc);
+
+      if (classfile == null) {
+         misses.incrementAndGet();
+      }
+      else {
+         hits.incrementAndGet();
       }
 
       return classfile;
    }
 
    @Nullable
-   private synchronized byte[] findClassfile(@Nullable ClassLoader loader, @Nonnull String classDesc) {
-      Map<String, byte[]> classfiles = getClassfiles(loader);
-      return classfiles.get(classDesc);
+   private byte[] getStoredClassfile(@Nullable ClassLoader loader, @Nonnull String classDesc) {
+      StoredClassfile classfile = getClassfiles(loader).get(classDesc);
+      return classfile == null ? null : classfile.getClassfile();
    }
 
    @Nullable
-   public static synchronized byte[] getClassfile(@Nonnull Class<?> aClass) {
+   public static byte[] getClassfile(@Nonnull Class<?> aClass) {
       byte[] cached = INSTANCE.findClassfile(aClass);
       if (cached != null) return cached;
 
-      INSTANCE.classBeingCached = aClass;
-      Startup.retransformClass(aClass);
-      return INSTANCE.findClassfile(aClass);
+      INSTANCE.retransformToCache(aClass);
+      return INSTANCE.getStoredClassfile(aClass.getClassLoader(), getInternalName(aClass));
+   }
+
+   /**
+    * Same as {@link #getClassfile(String)}, but without retransforming the class when its classfile isn't cached yet, so it's safe to
+    * call while another class is being loaded or transformed.
+    */
+   @Nullable
+   public static byte[] getClassfileIfCached(@Nonnull String classDesc) {
+      for (Map<String, StoredClassfile> classfiles : INSTANCE.getClassfilesForAllClassLoaders()) {
+         StoredClassfile classfile = classfiles.get(classDesc);
+
+         if (classfile != null) {
+            INSTANCE.hits.incrementAndGet();
+            return classfile.getClassfile();
+         }
+      }
+
+      INSTANCE.misses.incrementAndGet();
+      return null;
    }
 
    @Nullable
@@ -132,4 +342,16 @@ public final class CachedClassfiles implements ClassFileTransformer
    public static void addClassfile(@Nonnull Class<?> aClass, @Nonnull byte[] classfile) {
       INSTANCE.addClassfile(aClass.getClassLoader(), aClass.getName().replace('.', '/'), classfile);
    }
+
+   /**
+    * Describes the number of lookups which found a cached classfile (hits) or not (misses), and the total size of the classfiles added to
+    * the cache versus the space actually taken by the distinct (and possibly compressed) ones.
+    */
+   @Nonnull
+   public static String getStatistics() {
+      CachedClassfiles cache = INSTANCE;
+      return
+         cache.hits.get() + " hits, " + cache.misses.get() + " misses, " + cache.bytesAdded.get() + " bytes added, " +
+         cache.bytesStored.get() + " bytes stored" + (COMPRESSING ? " (compressed)" : "");
+   }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.state;
+
+import java.util.*;
+import javax.annotation.*;
+
+import static mockit.internal.expectations.RecordAndReplayExecution.*;
+
+/**
+ * Coordinates the redefinition of classes by tests which execute in parallel, each with its own
+ * {@linkplain TestRun#newThreadBoundState() thread-bound state}.
+ * <p/>
+ * A class redefined (mocked, faked, or captured) while a save-point is active becomes <em>owned</em> by that save-point, until it gets
+ * rolled back; the same applies to any other piece of mocking state which a save-point needs to discard on rollback.
+ * A save-point wanting to redefine a class owned by a non-related save-point has to wait until the class is released, while one which is
+ * nested inside the owner (a test inside its test class, for example) takes over the ownership, giving it back when rolled back.
+ * So, tests which don't share mocked types run at the same time, while the others are serialized.
+ */
+final class ClassRedefinitionLocks
+{
+   @Nonnull private final Map<Object, SavePoint> owners;
+   @Nonnull private final Map<SavePoint, Map<Object, SavePoint>> previousOwners;
+   @Nonnull private final Map<SavePoint, Object> pendingLocks;
+
+   ClassRedefinitionLocks() {
+      owners = new HashMap<>();
+      previousOwners = new IdentityHashMap<>();
+      pendingLocks = new IdentityHashMap<>();
+   }
+
+   /**
+    * Makes the given save-point the owner of the given class, waiting for it to be released if currently owned by a non-related
+    * save-point.
+    *
+    * @throws IllegalStateException if waiting would cause a deadlock between the tests involved
+    */
+   synchronized void lock(@Nonnull Class<?> classToRedefine, @Nonnull SavePoint requester) {
+      SavePoint owner;
+
+      while ((owner = owners.get(classToRedefine)) != null && !areRelated(owner, requester)) {
+         if (RECORD_OR_REPLAY_LOCK.isHeldByCurrentThread()) {
+            // Happens for cascaded types mocked during replay; the owner can't be waited for, since its rollback would need the lock.
+            return;
+         }
+
+         if (wouldDeadlock(owner, requester)) {
+            throw new IllegalStateException(
+               "Tests running in parallel are waiting on each other to mock " + classToRedefine.getName() +
+               "; declare the mocked types in the same order, or run the tests in the same thread");
+         }
+
+         pendingLocks.put(requester, classToRedefine);
+
+         try { wait(); }
+         catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+         }
+         finally {
+            pendingLocks.remove(requester);
+         }
+      }
+
+      takeOwnership(classToRedefine, owner, requester);
+   }
+
+   /**
+    * Makes the given save-point the owner of the given key, without waiting; if currently owned by a non-related save-point, nothing is
+    * done.
+    */
+   synchronized void record(@Nonnull Object key, @Nonnull SavePoint requester) {
+      SavePoint owner = owners.get(key);
+
+      if (owner == null || areRelated(owner, requester)) {
+         takeOwnership(key, owner, requester);
+      }
+   }
+
+   private static boolean areRelated(@Nonnull SavePoint owner, @Nonnull SavePoint requester) {
+      return requester.isNestedIn(owner) || owner.isNestedIn(requester);
+   }
+
+   private void takeOwnership(@Nonnull Object key, @Nullable SavePoint owner, @Nonnull SavePoint requester) {
+      if (owner == requester || owner != null && owner.isNestedIn(requester)) {
+         return;
+      }
+
+      owners.put(key, requester);
+
+      if (owner != null) {
+         Map<Object, SavePoint> taken = previousOwners.get(requester);
+
+         if (taken == null) {
+            taken = new HashMap<>();
+            previousOwners.put(requester, taken);
+         }
+
+         taken.put(key, owner);
+      }
+   }
+
+   private boolean wouldDeadlock(@Nonnull SavePoint owner, @Nonnull SavePoint requester) {
+      Set<SavePoint> visited = Collections.newSetFromMap(new IdentityHashMap<SavePoint, Boolean>());
+      SavePoint waiting = owner;
+
+      while (visited.add(waiting)) {
+         Object awaitedKey = findPendingLock(waiting);
+
+         if (awaitedKey == null) {
+            return false;
+         }
+
+         SavePoint nextOwner = owners.get(awaitedKey);
+
+         if (nextOwner == null) {
+            return false;
+         }
+
+         if (areRelated(nextOwner, requester)) {
+            return true;
+         }
+
+         waiting = nextOwner;
+      }
+
+      return false;
+   }
+
+   @Nullable
+   private Object findPendingLock(@Nonnull SavePoint savePoint) {
+      for (Map.Entry<SavePoint, Object> waiterAndKey : pendingLocks.entrySet()) {
+         SavePoint waiter = waiterAndKey.getKey();
+
+         if (waiter == savePoint || waiter.isNestedIn(savePoint)) {
+            return waiterAndKey.getValue();
+         }
+      }
+
+      return null;
+   }
+
+   synchronized boolean isOwnedBy(@Nonnull Object key, @Nonnull SavePoint savePoint) {
+      return owners.get(key) == savePoint;
+   }
+
+   /**
+    * Releases everything owned by the given save-point, giving back to previous owners whatever was taken over from them.
+    */
+   synchronized void release(@Nonnull SavePoint savePoint) {
+      Map<Object, SavePoint> taken = previousOwners.remove(savePoint);
+      Iterator<Map.Entry<Object, SavePoint>> itr = owners.entrySet().iterator();
+
+      while (itr.hasNext()) {
+         Map.Entry<Object, SavePoint> keyAndOwner = itr.next();
+
+         if (keyAndOwner.getValue() == savePoint) {
+            SavePoint previousOwner = taken == null ? null : taken.get(keyAndOwner.getKey());
+
+            if (previousOwner == null) {
+               itr.remove();
+            }
+            else {
+               keyAndOwner.setValue(previousOwner);
+            }
+         }
+      }
+
+      for (Map<Object, SavePoint> takenByOther : previousOwners.values()) {
+         takenByOther.values().removeAll(Collections.singleton(savePoint));
+      }
+
+      notifyAll();
+   }
+}
@@ -13,6 +13,8 @@ import static mockit.internal.util.Utilities.getClassType;
 import java.lang.instrument.ClassDefinition;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -23,6 +25,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -32,6 +35,7 @@ import mockit.internal.ClassIdentification;
 import mockit.internal.capturing.CaptureTransformer;
 import mockit.internal.expectations.mocking.CaptureOfNewInstances;
 import mockit.internal.expectations.mocking.InstanceFactory;
+import mockit.internal.expectations.mocking.MockedClassPreparation;
 import mockit.internal.startup.Startup;
 import mockit.internal.util.ClassLoad;
 
@@ -44,9 +48,9 @@ public final class MockFixture
      * Similar to {@link #redefinedClasses}, but for classes modified by a <tt>ClassFileTransformer</tt> such as the
      * <tt>CaptureTransformer</tt>, and containing the pre-transform bytecode instead of the modified one.
      *
-     * @see #addTransformedClass(ClassIdentification, byte[])
+     * @see #addTransformedClass(ClassIdentification, byte[], SavePoint)
      * @see #getTransformedClasses()
-     * @see #restoreTransformedClasses(Set)
+     * @see #restoreTransformedClasses(Set, SavePoint, Map)
      */
     @Nonnull private final Map<ClassIdentification, byte[]> transformedClasses;
 
@@ -63,7 +67,7 @@ public final class MockFixture
      * @see #getRedefinedClasses()
      * @see #getRedefinedClassfile(Class)
      * @see #containsRedefinedClass(Class)
-     * @see #restoreRedefinedClasses(Map)
+     * @see #restoreRedefinedClasses(Map, SavePoint, Map, boolean)
      */
     @Nonnull private final Map<Class<?>, byte[]> redefinedClasses;
 
@@ -78,76 +82,222 @@ public final class MockFixture
     @Nonnull private final Map<Class<?>, String> realClassesToFakeClasses;
 
     /**
-     * A list of classes that are currently mocked.
-     * Said classes are also added to {@link #mockedTypesAndInstances}.
+     * A list of "capturing" class file transformers, used by both the mocking and faking APIs.
      *
-     * @see #registerMockedClass(Class)
-     * @see #getMockedClasses()
-     * @see #isStillMocked(Object, String)
-     * @see #isInstanceOfMockedClass(Object)
-     * @see #removeMockedClasses(List)
+     * @see #addCaptureTransformer(CaptureTransformer)
+     * @see #areCapturedClasses(Class, Class)
+     * @see #isCaptured(Object)
+     * @see #getCaptureTransformerCount()
+     * @see #removeCaptureTransformers(int, Map)
      */
-    @Nonnull private final List<Class<?>> mockedClasses;
+    @Nonnull private final List<CaptureTransformer<?>> captureTransformers;
 
     /**
-     * A map of mocked types to their corresponding {@linkplain InstanceFactory mocked instance factories}.
+     * Owners of the redefined/transformed/mocked classes and of the capture transformers above, when tests run in parallel.
      *
-     * @see #registerInstanceFactoryForMockedType(Class, InstanceFactory)
-     * @see #findInstanceFactory(Type)
-     * @see #isStillMocked(Object, String)
-     * @see #removeMockedClasses(List)
+     * @see #lockForRedefinition(Class)
+     * @see #releaseClassesOwnedBy(SavePoint)
      */
-    @Nonnull private final Map<Type, InstanceFactory> mockedTypesAndInstances;
+    @Nonnull private final ClassRedefinitionLocks classLocks;
 
     /**
-     * A list of "capturing" class file transformers, used by both the mocking and faking APIs.
+     * Whether the restoration of mocked classes at the end of a test class is deferred, as enabled with the
+     * <tt>jmockit-deferredRestoration</tt> system property.
      *
-     * @see #addCaptureTransformer(CaptureTransformer)
-     * @see #areCapturedClasses(Class, Class)
-     * @see #isCaptured(Object)
-     * @see #getCaptureTransformerCount()
-     * @see #removeCaptureTransformers(int)
+     * @see #restoreRedefinedClasses(Map, SavePoint, Map, boolean)
      */
-    @Nonnull private final List<CaptureTransformer<?>> captureTransformers;
+    private final boolean deferringRestorations;
+
+    /**
+     * Classes no longer mocked but whose restoration was deferred, and the mocked bytecodes they are still defined with in the JVM.
+     * <p/>
+     * Such a class doesn't need to be redefined again if the next test class mocks it the same way; otherwise, it gets restored once
+     * the next test class has its mock fields set up, so that its tests only see the classes they actually mock. Until then, the
+     * leftover bytecode behaves as the original one, since the class is no longer in the
+     * {@linkplain MockedClassSet set of mocked classes}.
+     *
+     * @see #redefineClasses(ClassDefinition...)
+     * @see #restoreDeferredClasses()
+     */
+    @Nonnull private final Map<Class<?>, byte[]> deferredRestorations;
 
     MockFixture() {
         transformedClasses = new HashMap<>(2);
         redefinedClasses = new ConcurrentHashMap<>(8);
         realClassesToFakeClasses = new IdentityHashMap<>(8);
-        mockedClasses = new ArrayList<>();
-        mockedTypesAndInstances = new IdentityHashMap<>();
-        captureTransformers = new ArrayList<>();
+        captureTransformers = new CopyOnWriteArrayList<>();
+        classLocks = new ClassRedefinitionLocks();
+        deferringRestorations = Boolean.getBoolean("jmockit-deferredRestoration");
+        deferredRestorations = new ConcurrentHashMap<>(8);
+    }
+
+    /**
+     * Cached answers to whether a class is mocked, each one encoded as <tt>generation * 2 + (mocked ? 1 : 0)</tt> so that it can be
+     * validated and read with a single volatile read.
+     */
+    private static final class MockedVerdicts {
+        private static final long NONE = -1L;
+
+        volatile long stillMocked = NONE;
+        volatile long instanceOfMockedClass = NONE;
+
+        static long stamp(int generation, boolean mocked) { return (generation & 0xFFFFFFFFL) << 1 | (mocked ? 1L : 0L); }
+        static boolean isValid(long verdict, int generation) { return verdict >= 0 && verdict >>> 1 == (generation & 0xFFFFFFFFL); }
+        static boolean isMocked(long verdict) { return (verdict & 1L) != 0; }
+    }
+
+    /**
+     * The classes currently mocked for a {@link TestRun} state, so that a class mocked by a test class running in parallel with others
+     * isn't seen as mocked by those which don't mock it.
+     * The collections are concurrent, since they are read on every call to a mocked method, while changes are made only when holding the
+     * lock on the <tt>MockFixture</tt>.
+     *
+     * @see TestRun#getMockedClassSet()
+     */
+    static final class MockedClassSet {
+        /**
+         * A list of classes that are currently mocked.
+         * Said classes are also added to {@link #mockedTypesAndInstances}.
+         *
+         * @see MockFixture#registerMockedClass(Class)
+         * @see MockFixture#getMockedClasses()
+         * @see MockFixture#isStillMocked(Object, String)
+         * @see MockFixture#isInstanceOfMockedClass(Object)
+         * @see MockFixture#removeMockedClasses(List, SavePoint)
+         */
+        @Nonnull final List<Class<?>> mockedClasses = new CopyOnWriteArrayList<>();
+
+        /**
+         * A map of mocked types to their corresponding {@linkplain InstanceFactory mocked instance factories}.
+         *
+         * @see MockFixture#registerInstanceFactoryForMockedType(Class, InstanceFactory)
+         * @see MockFixture#findInstanceFactory(Type)
+         * @see MockFixture#isStillMocked(Object, String)
+         * @see MockFixture#removeMockedClasses(List, SavePoint)
+         */
+        @Nonnull final Map<Type, InstanceFactory> mockedTypesAndInstances = new ConcurrentHashMap<>();
+
+        /**
+         * Incremented whenever {@link #mockedClasses} or {@link #mockedTypesAndInstances} change, so that cached verdicts computed for
+         * an earlier generation of the mocked set are discarded.
+         */
+        volatile int generation;
+
+        /**
+         * Verdicts of {@link MockFixture#isStillMocked(Object, String)} and {@link MockFixture#isInstanceOfMockedClass(Object)} for the classes of the
+         * instances passed, each one stamped with the generation it was computed for.
+         */
+        @Nonnull final ClassValue<MockedVerdicts> verdictsForInstanceClasses = new ClassValue<MockedVerdicts>() {
+            @Override
+            protected MockedVerdicts computeValue(Class<?> type) { return new MockedVerdicts(); }
+        };
+
+        /**
+         * Verdicts of {@link MockFixture#isStillMocked(Object, String)} for static methods, by the internal name of the class declaring the method.
+         */
+        @Nonnull final Map<String, MockedVerdicts> verdictsForStaticCalls = new ConcurrentHashMap<>();
+
+        void changed() {
+            //noinspection NonAtomicOperationOnVolatileField
+            generation++;
+        }
     }
 
     // Methods to add/remove transformed/redefined classes /////////////////////////////////////////////////////////////
 
-    public void addTransformedClass(@Nonnull ClassIdentification classId, @Nonnull byte[] pretransformClassfile) {
+    public synchronized void addTransformedClass(
+        @Nonnull ClassIdentification classId, @Nonnull byte[] pretransformClassfile, @Nullable SavePoint owner
+    ) {
         transformedClasses.put(classId, pretransformClassfile);
+
+        if (owner != null) {
+            classLocks.record(classId, owner);
+        }
     }
 
     // Methods used by both the Mocking and Faking APIs.
 
+    /**
+     * When tests run in parallel, waits until the given class is not owned by a test other than the current one, before it gets
+     * redefined; must not be called while holding the lock on this object.
+     */
+    public void lockForRedefinition(@Nonnull Class<?> classToRedefine) {
+        SavePoint owner = TestRun.getInnermostSavePoint();
+
+        if (owner != null) {
+            classLocks.lock(classToRedefine, owner);
+        }
+    }
+
+    private void recordOwnership(@Nonnull Object key) {
+        SavePoint owner = TestRun.getInnermostSavePoint();
+
+        if (owner != null) {
+            classLocks.record(key, owner);
+        }
+    }
+
+    void releaseClassesOwnedBy(@Nonnull SavePoint owner) {
+        classLocks.release(owner);
+    }
+
     public void addRedefinedClass(@Nonnull ClassDefinition newClassDefinition) {
-        redefinedClasses.put(newClassDefinition.getDefinitionClass(), newClassDefinition.getDefinitionClassFile());
+        Class<?> redefinedClass = newClassDefinition.getDefinitionClass();
+        redefinedClasses.put(redefinedClass, newClassDefinition.getDefinitionClassFile());
+        deferredRestorations.remove(redefinedClass);
+        recordOwnership(redefinedClass);
     }
 
-    public void registerMockedClass(@Nonnull Class<?> mockedType) {
-        if (!mockedClasses.contains(mockedType)) {
+    public synchronized void registerMockedClass(@Nonnull Class<?> mockedType) {
+        MockedClassSet mocked = TestRun.getMockedClassSet();
+
+        if (!mocked.mockedClasses.contains(mockedType)) {
             mockedType = getMockedClassOrInterfaceType(mockedType);
-            mockedClasses.add(mockedType);
+            mocked.mockedClasses.add(mockedType);
+            mocked.changed();
+            recordOwnership(mockedType);
         }
     }
 
     // Methods used by the Mocking API.
 
     public void redefineClasses(@Nonnull ClassDefinition... definitions) {
-        Startup.redefineMethods(definitions);
+        for (ClassDefinition def : definitions) {
+            lockForRedefinition(def.getDefinitionClass());
+        }
+
+        ClassDefinition[] definitionsToApply = definitions;
+
+        if (!deferredRestorations.isEmpty()) {
+            definitionsToApply = removeDefinitionsAlreadyInEffect(definitions);
+        }
+
+        if (definitionsToApply.length > 0) {
+            Startup.redefineMethods(definitionsToApply);
+        }
 
         for (ClassDefinition def : definitions) {
             addRedefinedClass(def);
         }
     }
 
+    @Nonnull
+    private ClassDefinition[] removeDefinitionsAlreadyInEffect(@Nonnull ClassDefinition[] definitions) {
+        List<ClassDefinition> definitionsToApply = new ArrayList<>(definitions.length);
+
+        for (ClassDefinition def : definitions) {
+            byte[] leftoverDefinition = deferredRestorations.get(def.getDefinitionClass());
+            byte[] newDefinition = def.getDefinitionClassFile();
+
+            if (leftoverDefinition != newDefinition && !Arrays.equals(leftoverDefinition, newDefinition)) {
+                definitionsToApply.add(def);
+            }
+        }
+
+        return definitionsToApply.size() == definitions.length ?
+            definitions : definitionsToApply.toArray(new ClassDefinition[definitionsToApply.size()]);
+    }
+
     public void redefineMethods(@Nonnull Map<Class<?>, byte[]> modifiedClassfiles) {
         ClassDefinition[] classDefs = new ClassDefinition[modifiedClassfiles.size()];
         int i = 0;
@@ -155,6 +305,7 @@ public final class MockFixture
         for (Entry<Class<?>, byte[]> classAndBytecode : modifiedClassfiles.entrySet()) {
             Class<?> modifiedClass = classAndBytecode.getKey();
             byte[] modifiedClassfile = classAndBytecode.getValue();
+            lockForRedefinition(modifiedClass);
 
             ClassDefinition classDef = new ClassDefinition(modifiedClass, modifiedClassfile);
             classDefs[i++] = classDef;
@@ -166,18 +317,50 @@ public final class MockFixture
     }
 
     public boolean isStillMocked(@Nullable Object instance, @Nonnull String classDesc) {
+        MockedClassSet mocked = TestRun.getMockedClassSet();
+        int generation = mocked.generation;
+        MockedVerdicts verdicts;
+
+        if (instance == null) {
+            verdicts = mocked.verdictsForStaticCalls.get(classDesc);
+
+            if (verdicts == null) {
+                verdicts = new MockedVerdicts();
+                mocked.verdictsForStaticCalls.put(classDesc, verdicts);
+            }
+        }
+        else {
+            verdicts = mocked.verdictsForInstanceClasses.get(instance.getClass());
+        }
+
+        long verdict = verdicts.stillMocked;
+
+        if (MockedVerdicts.isValid(verdict, generation)) {
+            return MockedVerdicts.isMocked(verdict);
+        }
+
+        boolean stillMocked = computeIsStillMocked(mocked, instance, classDesc);
+        verdicts.stillMocked = MockedVerdicts.stamp(generation, stillMocked);
+        return stillMocked;
+    }
+
+    private static boolean computeIsStillMocked(
+        @Nonnull MockedClassSet mocked, @Nullable Object instance, @Nonnull String classDesc
+    ) {
         Class<?> targetClass;
 
         if (instance == null) {
             targetClass = ClassLoad.loadByInternalName(classDesc);
-            return isClassAssignableTo(targetClass);
+            return isClassAssignableTo(mocked.mockedClasses, targetClass);
         }
 
         targetClass = instance.getClass();
-        return mockedTypesAndInstances.containsKey(targetClass) || isInstanceOfMockedClass(instance);
+        return
+            mocked.mockedTypesAndInstances.containsKey(targetClass) ||
+            findClassAssignableFrom(mocked.mockedClasses, targetClass) != null;
     }
 
-    private boolean isClassAssignableTo(@Nonnull Class<?> toClass) {
+    private static boolean isClassAssignableTo(@Nonnull List<Class<?>> mockedClasses, @Nonnull Class<?> toClass) {
         for (Class<?> mockedClass : mockedClasses) {
             if (toClass == mockedClass || toClass.isAssignableFrom(mockedClass)) {
                 return true;
@@ -200,27 +383,35 @@ public final class MockFixture
         return null;
     }
     public boolean isInstanceOfMockedClass(@Nonnull Object mockedInstance) {
+        MockedClassSet mocked = TestRun.getMockedClassSet();
+        int generation = mocked.generation;
         Class<?> mockedClass = mockedInstance.getClass();
-        return findClassAssignableFrom(mockedClasses, mockedClass) != null;
-        /* 
-         Class<?> mockedClass = getMockedClassOrInterfaceType(mockedInstance.getClass());
-         Class<?> mockedSuperclass = mockedClass.getSuperclass();
-        
-         if (mockedSuperclass != null && mockedSuperclass.isEnum()) {
-         return mockedClasses.contains(mockedSuperclass);
-         }
-        
-         return mockedClasses.contains(mockedClass) || isCaptured(mockedClass);
-        */
-    }
-
-    public void registerInstanceFactoryForMockedType(@Nonnull Class<?> mockedType, @Nonnull InstanceFactory mockedInstanceFactory) {
+        MockedVerdicts verdicts = mocked.verdictsForInstanceClasses.get(mockedClass);
+        long verdict = verdicts.instanceOfMockedClass;
+
+        if (MockedVerdicts.isValid(verdict, generation)) {
+            return MockedVerdicts.isMocked(verdict);
+        }
+
+        boolean instanceOfMockedClass = findClassAssignableFrom(mocked.mockedClasses, mockedClass) != null;
+        verdicts.instanceOfMockedClass = MockedVerdicts.stamp(generation, instanceOfMockedClass);
+        return instanceOfMockedClass;
+    }
+
+    public synchronized void registerInstanceFactoryForMockedType(
+        @Nonnull Class<?> mockedType, @Nonnull InstanceFactory mockedInstanceFactory
+    ) {
         registerMockedClass(mockedType);
-        mockedTypesAndInstances.put(mockedType, mockedInstanceFactory);
+
+        MockedClassSet mocked = TestRun.getMockedClassSet();
+        mocked.mockedTypesAndInstances.put(mockedType, mockedInstanceFactory);
+        mocked.changed();
+        recordOwnership(mockedType);
     }
 
     @Nullable
     public InstanceFactory findInstanceFactory(@Nonnull Type mockedType) {
+        Map<Type, InstanceFactory> mockedTypesAndInstances = TestRun.getMockedClassSet().mockedTypesAndInstances;
         InstanceFactory instanceFactory = mockedTypesAndInstances.get(mockedType);
 
         if (instanceFactory != null) {
@@ -256,7 +447,7 @@ public final class MockFixture
 
     // Methods used by the Faking API.
 
-    public void addRedefinedClass(@Nonnull String fakeClassInternalName, @Nonnull ClassDefinition classDef) {
+    public synchronized void addRedefinedClass(@Nonnull String fakeClassInternalName, @Nonnull ClassDefinition classDef) {
         @Nonnull Class<?> redefinedClass = classDef.getDefinitionClass();
         String previousNames = realClassesToFakeClasses.put(redefinedClass, fakeClassInternalName);
 
@@ -269,44 +460,78 @@ public final class MockFixture
 
     // Methods used by test save-points ////////////////////////////////////////////////////////////////////////////////
 
-    void restoreTransformedClasses(@Nonnull Set<ClassIdentification> previousTransformedClasses) {
+    /**
+     * Restores the classes transformed after the given previous ones were.
+     *
+     * @param owner if not null, only the classes owned by this save-point (from a thread-bound test state) are restored
+     * @param definitionsToRestore where the class definitions to be restored are added, for a single batched redefinition
+     */
+    synchronized void restoreTransformedClasses(
+        @Nonnull Set<ClassIdentification> previousTransformedClasses, @Nullable SavePoint owner,
+        @Nonnull Map<Class<?>, byte[]> definitionsToRestore
+    ) {
         if (!transformedClasses.isEmpty()) {
             Set<ClassIdentification> classesToRestore;
 
-            if (previousTransformedClasses.isEmpty()) {
+            if (previousTransformedClasses.isEmpty() && owner == null) {
                 classesToRestore = transformedClasses.keySet();
             }
             else {
                 classesToRestore = getTransformedClasses();
                 classesToRestore.removeAll(previousTransformedClasses);
+
+                if (owner != null) {
+                    retainOwnedBy(classesToRestore, owner);
+                }
             }
 
             if (!classesToRestore.isEmpty()) {
-                restoreAndRemoveTransformedClasses(classesToRestore);
+                restoreAndRemoveTransformedClasses(classesToRestore, definitionsToRestore);
+            }
+        }
+    }
+
+    private void retainOwnedBy(@Nonnull Collection<?> keys, @Nonnull SavePoint owner) {
+        for (Iterator<?> itr = keys.iterator(); itr.hasNext();) {
+            if (!classLocks.isOwnedBy(itr.next(), owner)) {
+                itr.remove();
             }
         }
     }
 
     @Nonnull
-    Set<ClassIdentification> getTransformedClasses() {
+    synchronized Set<ClassIdentification> getTransformedClasses() {
         return transformedClasses.isEmpty() ? Collections.<ClassIdentification>emptySet() : new HashSet<>(transformedClasses.keySet());
     }
 
     @Nonnull
-    Map<Class<?>, byte[]> getRedefinedClasses() {
+    synchronized Map<Class<?>, byte[]> getRedefinedClasses() {
         return redefinedClasses.isEmpty() ? Collections.<Class<?>, byte[]>emptyMap() : new HashMap<>(redefinedClasses);
     }
 
-    private void restoreAndRemoveTransformedClasses(@Nonnull Set<ClassIdentification> classesToRestore) {
+    private void restoreAndRemoveTransformedClasses(
+        @Nonnull Set<ClassIdentification> classesToRestore, @Nonnull Map<Class<?>, byte[]> definitionsToRestore
+    ) {
         for (ClassIdentification transformedClassId : classesToRestore) {
             byte[] definitionToRestore = transformedClasses.get(transformedClassId);
-            Startup.redefineMethods(transformedClassId, definitionToRestore);
+            definitionsToRestore.put(transformedClassId.getLoadedClass(), definitionToRestore);
         }
 
         transformedClasses.keySet().removeAll(classesToRestore);
     }
 
-    void restoreRedefinedClasses(@Nonnull Map<?, byte[]> previousDefinitions) {
+    /**
+     * Restores the classes redefined after the given previous definitions were taken.
+     *
+     * @param owner if not null, only the classes owned by this save-point (from a thread-bound test state) are restored
+     * @param definitionsToRestore where the class definitions to be restored are added, for a single batched redefinition
+     * @param deferRestorations whether mocked classes are to be left as they are (if deferred restoration is enabled), until it's
+     *                          known whether the next test class mocks them again
+     */
+    synchronized void restoreRedefinedClasses(
+        @Nonnull Map<?, byte[]> previousDefinitions, @Nullable SavePoint owner, @Nonnull Map<Class<?>, byte[]> definitionsToRestore,
+        boolean deferRestorations
+    ) {
         if (redefinedClasses.isEmpty()) {
             return;
         }
@@ -316,33 +541,81 @@ public final class MockFixture
         while (itr.hasNext()) {
             Entry<Class<?>, byte[]> entry = itr.next();
             Class<?> redefinedClass = entry.getKey();
+
+            if (owner != null && !classLocks.isOwnedBy(redefinedClass, owner)) {
+                continue;
+            }
+
             byte[] currentDefinition = entry.getValue();
             byte[] previousDefinition = previousDefinitions.get(redefinedClass);
 
             if (previousDefinition == null) {
-                restoreDefinition(redefinedClass);
+                if (deferRestorations && canDeferRestoration(redefinedClass, definitionsToRestore)) {
+                    deferredRestorations.put(redefinedClass, currentDefinition);
+                    removeMockedClass(redefinedClass);
+                }
+                else {
+                    restoreDefinition(redefinedClass, definitionsToRestore);
+                }
+
                 itr.remove();
             }
             else if (currentDefinition != previousDefinition) {
-                Startup.redefineMethods(redefinedClass, previousDefinition);
+                definitionsToRestore.put(redefinedClass, previousDefinition);
                 entry.setValue(previousDefinition);
             }
         }
     }
 
-    private void restoreDefinition(@Nonnull Class<?> redefinedClass) {
+    /**
+     * Only mocked classes can be left redefined, since their modified bytecode falls through to the original code when no longer
+     * mocked; faked classes are always restored, as are those already being restored from a capture transformer.
+     */
+    private boolean canDeferRestoration(@Nonnull Class<?> redefinedClass, @Nonnull Map<Class<?>, byte[]> definitionsToRestore) {
+        return
+            deferringRestorations && !isGeneratedImplementationClass(redefinedClass) &&
+            !realClassesToFakeClasses.containsKey(redefinedClass) && !definitionsToRestore.containsKey(redefinedClass);
+    }
+
+    /**
+     * Restores the original definitions of the classes whose restoration was deferred and which didn't get mocked again since, in a
+     * single batched redefinition.
+     */
+    public void restoreDeferredClasses() {
+        if (deferredRestorations.isEmpty()) {
+            return;
+        }
+
+        Map<Class<?>, byte[]> definitionsToRestore = new HashMap<>(deferredRestorations.size());
+
+        synchronized (this) {
+            for (Class<?> deferredClass : deferredRestorations.keySet()) {
+                definitionsToRestore.put(deferredClass, ClassFile.getClassFile(deferredClass));
+                MockedClassPreparation.discardPreparedClass(deferredClass);
+            }
+
+            deferredRestorations.clear();
+        }
+
+        Startup.redefineMethods(definitionsToRestore);
+    }
+
+    private void restoreDefinition(@Nonnull Class<?> redefinedClass, @Nonnull Map<Class<?>, byte[]> definitionsToRestore) {
         if (!isGeneratedImplementationClass(redefinedClass)) {
             byte[] previousDefinition = ClassFile.getClassFile(redefinedClass);
-            Startup.redefineMethods(redefinedClass, previousDefinition);
+            definitionsToRestore.put(redefinedClass, previousDefinition);
         }
 
         removeMockedClass(redefinedClass);
         discardStateForCorrespondingFakeClassIfAny(redefinedClass);
+        MockedClassPreparation.discardPreparedClass(redefinedClass);
     }
 
-    private void removeMockedClass(@Nonnull Class<?> mockedClass) {
-        mockedTypesAndInstances.remove(mockedClass);
-        mockedClasses.remove(mockedClass);
+    private static void removeMockedClass(@Nonnull Class<?> mockedClass) {
+        MockedClassSet mocked = TestRun.getMockedClassSet();
+        mocked.mockedTypesAndInstances.remove(mockedClass);
+        mocked.mockedClasses.remove(mockedClass);
+        mocked.changed();
     }
 
     private void discardStateForCorrespondingFakeClassIfAny(@Nonnull Class<?> redefinedClass) {
@@ -350,23 +623,52 @@ public final class MockFixture
         TestRun.getFakeStates().removeClassState(redefinedClass, mockClassesInternalNames);
     }
 
-    void removeMockedClasses(@Nonnull List<Class<?>> previousMockedClasses) {
-        int currentMockedClassCount = mockedClasses.size();
+    /**
+     * Removes the classes mocked after the given previous ones were.
+     *
+     * @param owner if not null, only the classes owned by this save-point (from a thread-bound test state) are removed
+     */
+    synchronized void removeMockedClasses(@Nonnull List<Class<?>> previousMockedClasses, @Nullable SavePoint owner) {
+        MockedClassSet mocked = TestRun.getMockedClassSet();
+
+        if (owner != null) {
+            removeMockedClassesOwnedBy(mocked, previousMockedClasses, owner);
+            return;
+        }
+
+        int currentMockedClassCount = mocked.mockedClasses.size();
 
         if (currentMockedClassCount > 0) {
             int previousMockedClassCount = previousMockedClasses.size();
 
             if (previousMockedClassCount == 0) {
-                mockedClasses.clear();
-                mockedTypesAndInstances.clear();
+                mocked.mockedClasses.clear();
+                mocked.mockedTypesAndInstances.clear();
+                mocked.changed();
             }
             else if (previousMockedClassCount < currentMockedClassCount) {
-                mockedClasses.retainAll(previousMockedClasses);
-                mockedTypesAndInstances.keySet().retainAll(previousMockedClasses);
+                mocked.mockedClasses.retainAll(previousMockedClasses);
+                mocked.mockedTypesAndInstances.keySet().retainAll(previousMockedClasses);
+                mocked.changed();
             }
         }
     }
 
+    private void removeMockedClassesOwnedBy(
+        @Nonnull MockedClassSet mocked, @Nonnull List<Class<?>> previousMockedClasses, @Nonnull SavePoint owner
+    ) {
+        Set<Object> classesToRemove = new HashSet<>(mocked.mockedClasses);
+        classesToRemove.addAll(mocked.mockedTypesAndInstances.keySet());
+        classesToRemove.removeAll(previousMockedClasses);
+        retainOwnedBy(classesToRemove, owner);
+
+        if (!classesToRemove.isEmpty()) {
+            mocked.mockedClasses.removeAll(classesToRemove);
+            mocked.mockedTypesAndInstances.keySet().removeAll(classesToRemove);
+            mocked.changed();
+        }
+    }
+
     // Getter methods for the maps and collections of transformed/redefined/mocked classes /////////////////////////////
 
     @Nullable
@@ -380,30 +682,43 @@ public final class MockFixture
 
     @Nonnull
     public List<Class<?>> getMockedClasses() {
+        List<Class<?>> mockedClasses = TestRun.getMockedClassSet().mockedClasses;
         return mockedClasses.isEmpty() ? Collections.<Class<?>>emptyList() : new ArrayList<>(mockedClasses);
     }
 
     // Methods dealing with capture transformers ///////////////////////////////////////////////////////////////////////
 
-    public void addCaptureTransformer(@Nonnull CaptureTransformer<?> transformer) {
+    public synchronized void addCaptureTransformer(@Nonnull CaptureTransformer<?> transformer) {
         captureTransformers.add(transformer);
+        recordOwnership(transformer);
     }
 
     // The following methods are used by test save-points to discard currently active capture transformers.
 
-    int getCaptureTransformerCount() { return captureTransformers.size(); }
+    synchronized int getCaptureTransformerCount() { return captureTransformers.size(); }
 
-    void removeCaptureTransformers(int previousTransformerCount) {
+    synchronized void removeCaptureTransformers(int previousTransformerCount, @Nonnull Map<Class<?>, byte[]> definitionsToRestore) {
         int currentTransformerCount = captureTransformers.size();
 
         for (int i = currentTransformerCount - 1; i >= previousTransformerCount; i--) {
-            CaptureTransformer<?> transformer = captureTransformers.get(i);
-            transformer.deactivate();
-            Startup.instrumentation().removeTransformer(transformer);
-            captureTransformers.remove(i);
+            removeCaptureTransformer(i, definitionsToRestore);
         }
     }
 
+    synchronized void removeCaptureTransformers(@Nonnull SavePoint owner, @Nonnull Map<Class<?>, byte[]> definitionsToRestore) {
+        for (int i = captureTransformers.size() - 1; i >= 0; i--) {
+            if (classLocks.isOwnedBy(captureTransformers.get(i), owner)) {
+                removeCaptureTransformer(i, definitionsToRestore);
+            }
+        }
+    }
+
+    private void removeCaptureTransformer(int index, @Nonnull Map<Class<?>, byte[]> definitionsToRestore) {
+        CaptureTransformer<?> transformer = captureTransformers.get(index);
+        transformer.deactivate(definitionsToRestore);
+        captureTransformers.remove(index);
+    }
+
     // The following methods are only used by the Mocking API.
 
     public boolean isCaptured(@Nonnull Object mockedInstance) {
@@ -5,30 +5,24 @@
 package mockit.internal.state;
 
 import java.util.*;
+import java.util.concurrent.*;
 import javax.annotation.*;
 
+import mockit.internal.*;
 import mockit.internal.util.*;
 
 public final class ParameterNames
 {
-   private static final Map<String, Map<String, String[]>> classesToMethodsToParameters = new HashMap<>();
+   private static final Map<String, ClassMetadataIndex.Metadata> classesToMetadata = new ConcurrentHashMap<>();
 
    private ParameterNames() {}
 
    public static boolean hasNamesForClass(@Nonnull String classDesc) {
-      return classesToMethodsToParameters.containsKey(classDesc);
+      return classesToMetadata.containsKey(classDesc);
    }
 
-   public static void register(@Nonnull String classDesc, @Nonnull String memberName, @Nonnull String memberDesc, @Nonnull String[] names) {
-      Map<String, String[]> methodsToParameters = classesToMethodsToParameters.get(classDesc);
-
-      if (methodsToParameters == null) {
-         methodsToParameters = new HashMap<>();
-         classesToMethodsToParameters.put(classDesc, methodsToParameters);
-      }
-
-      String methodKey = memberName + memberDesc;
-      methodsToParameters.put(methodKey, names);
+   public static void register(@Nonnull String classDesc, @Nonnull ClassMetadataIndex.Metadata classMetadata) {
+      classesToMetadata.put(classDesc, classMetadata);
    }
 
    @Nonnull
@@ -39,13 +33,13 @@ public final class ParameterNames
 
    @Nullable
    public static String getName(@Nonnull String classDesc, @Nonnull String methodDesc, @Nonnegative int index) {
-      Map<String, String[]> methodsToParameters = classesToMethodsToParameters.get(classDesc);
+      ClassMetadataIndex.Metadata classMetadata = classesToMetadata.get(classDesc);
 
-      if (methodsToParameters == null) {
+      if (classMetadata == null) {
          return null;
       }
 
-      String[] parameterNames = methodsToParameters.get(methodDesc);
-      return parameterNames[index];
+      String[] parameterNames = classMetadata.getParameterNames(methodDesc);
+      return parameterNames == null ? null : parameterNames[index];
    }
 }
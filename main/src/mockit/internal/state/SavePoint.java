@@ -8,7 +8,9 @@ import java.util.*;
 import javax.annotation.*;
 
 import mockit.internal.*;
+import mockit.internal.classGeneration.*;
 import mockit.internal.faking.*;
+import mockit.internal.startup.*;
 import static mockit.internal.expectations.RecordAndReplayExecution.*;
 
 public final class SavePoint
@@ -19,28 +21,88 @@ public final class SavePoint
    @Nonnull private final List<Class<?>> previousMockedClasses;
    @Nonnull private final FakeClasses.SavePoint previousFakeClasses;
 
+   /**
+    * Whether this save-point belongs to a {@linkplain TestRun#newThreadBoundState() thread-bound state}, in which case its rollback only
+    * affects the classes and other mocking state it owns, leaving alone those of tests running in parallel.
+    */
+   private final boolean threadBound;
+   @Nullable private final SavePoint parent;
+
    public SavePoint() {
+      threadBound = TestRun.isStateBoundToCurrentThread();
+      parent = threadBound ? TestRun.getInnermostSavePoint() : null;
+
       MockFixture mockFixture = TestRun.mockFixture();
       previousTransformedClasses = mockFixture.getTransformedClasses();
       previousRedefinedClasses = mockFixture.getRedefinedClasses();
       previousCaptureTransformerCount = mockFixture.getCaptureTransformerCount();
       previousMockedClasses = mockFixture.getMockedClasses();
-      previousFakeClasses = TestRun.getFakeClasses().new SavePoint();
+      previousFakeClasses = TestRun.getFakeClasses().new SavePoint(threadBound ? this : null);
+
+      if (threadBound) {
+         TestRun.setInnermostSavePoint(this);
+      }
    }
 
-   public synchronized void rollback() {
+   boolean isNestedIn(@Nonnull SavePoint other) {
+      for (SavePoint enclosing = this; enclosing != null; enclosing = enclosing.parent) {
+         if (enclosing == other) {
+            return true;
+         }
+      }
+
+      return false;
+   }
+
+   public void rollback() { rollback(false); }
+
+   /**
+    * Same as {@link #rollback()}, but for the save-point of a whole test class: if deferred restoration is enabled, the classes mocked for
+    * the test class are left as they are, to be either reused or restored when the next test class sets up its own mocks.
+    *
+    * @see MockFixture#restoreDeferredClasses()
+    */
+   public void rollbackDeferringRestorations() {
+      rollback(!threadBound);
+      ImplementationClass.releaseGeneratedClassNames();
+   }
+
+   private synchronized void rollback(boolean deferRestorations) {
       RECORD_OR_REPLAY_LOCK.lock();
 
       try {
          MockFixture mockFixture = TestRun.mockFixture();
-         mockFixture.removeCaptureTransformers(previousCaptureTransformerCount);
-         mockFixture.restoreTransformedClasses(previousTransformedClasses);
-         mockFixture.restoreRedefinedClasses(previousRedefinedClasses);
-         mockFixture.removeMockedClasses(previousMockedClasses);
+         Map<Class<?>, byte[]> definitionsToRestore = new LinkedHashMap<>();
+
+         if (threadBound) {
+            mockFixture.removeCaptureTransformers(this, definitionsToRestore);
+            mockFixture.restoreTransformedClasses(previousTransformedClasses, this, definitionsToRestore);
+            mockFixture.restoreRedefinedClasses(previousRedefinedClasses, this, definitionsToRestore, false);
+            mockFixture.removeMockedClasses(previousMockedClasses, this);
+         }
+         else {
+            mockFixture.removeCaptureTransformers(previousCaptureTransformerCount, definitionsToRestore);
+            mockFixture.restoreTransformedClasses(previousTransformedClasses, null, definitionsToRestore);
+            mockFixture.restoreRedefinedClasses(previousRedefinedClasses, null, definitionsToRestore, deferRestorations);
+            mockFixture.removeMockedClasses(previousMockedClasses, null);
+         }
+
+         // All classes get restored at once, rather than paying for a separate redefinition (with the JVM stopping all threads to
+         // deoptimize dependent code) for each one; a later definition of the same class replaces an earlier one.
+         Startup.redefineMethods(definitionsToRestore);
+
          previousFakeClasses.rollback();
       }
       finally {
          RECORD_OR_REPLAY_LOCK.unlock();
       }
+
+      if (threadBound) {
+         TestRun.mockFixture().releaseClassesOwnedBy(this);
+
+         if (TestRun.getInnermostSavePoint() == this) {
+            TestRun.setInnermostSavePoint(parent);
+         }
+      }
    }
 }
@@ -4,6 +4,7 @@
  */
 package mockit.internal.state;
 
+import java.util.*;
 import javax.annotation.*;
 
 import mockit.internal.expectations.*;
@@ -19,9 +20,6 @@ import mockit.internal.util.*;
  */
 public final class TestRun
 {
-   private static final TestRun INSTANCE = new TestRun();
-   private TestRun() {}
-
    // Fields with global state ////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
    private static final ThreadLocal<Integer> noMockingCount = new ThreadLocal<Integer>() {
@@ -30,88 +28,241 @@ public final class TestRun
    };
 
    // Used only by the Coverage tool:
-   private int testId;
+   private static int testId;
+
+   @Nonnull private static final MockFixture mockFixture = new MockFixture();
+   @Nonnull private static final FakeClasses fakeClasses = new FakeClasses();
+
+   private static final TestRun INSTANCE = new TestRun(false);
+
+   /**
+    * The test state bound to the current thread, if any; when not bound, the {@linkplain #INSTANCE global instance} applies.
+    * Inheritable, so that threads started by a test share the state of the test.
+    *
+    * @see #bindToCurrentThread(TestRun)
+    */
+   private static final ThreadLocal<TestRun> boundInstance = new InheritableThreadLocal<>();
+
+   // Fields with state for a test class or test class instance ///////////////////////////////////////////////////////////////////////////
 
    @Nullable private Class<?> currentTestClass;
    @Nullable private Object currentTestInstance;
    @Nullable private FieldTypeRedefinitions fieldTypeRedefinitions;
    @Nullable private TestedClassInstantiations testedClassInstantiations;
+   @Nullable private SavePoint savePointForTestClass;
+   @Nonnull private final MockFixture.MockedClassSet mockedClassSet = new MockFixture.MockedClassSet();
+
+   /**
+    * State which is specific to the execution of a test method.
+    * With the global instance there is only one, shared by all threads; with a thread-bound instance (used when a test runner executes
+    * test methods in parallel) each worker thread gets its own.
+    */
+   private static final class TestMethodState {
+      @Nonnull final Thread workerThread = Thread.currentThread();
+      @Nonnull final ExecutingTest executingTest = new ExecutingTest();
+      @Nullable SavePoint savePointForTest;
+      @Nullable SavePoint innermostSavePoint;
+   }
 
-   @Nonnull private final MockFixture mockFixture = new MockFixture();
+   @Nullable private final TestMethodState sharedMethodState;
+   @Nullable private final ThreadLocal<TestMethodState> methodStates;
+   @Nullable private final List<TestMethodState> allMethodStates;
+
+   private TestRun(boolean threadBound) {
+      if (threadBound) {
+         sharedMethodState = null;
+         allMethodStates = Collections.synchronizedList(new ArrayList<TestMethodState>());
+         methodStates = new InheritableThreadLocal<TestMethodState>() {
+            @Override
+            protected TestMethodState initialValue() {
+               TestMethodState methodState = new TestMethodState();
+               //noinspection ConstantConditions
+               allMethodStates.add(methodState);
+               return methodState;
+            }
+         };
+      }
+      else {
+         sharedMethodState = new TestMethodState();
+         methodStates = null;
+         allMethodStates = null;
+      }
+   }
 
-   @Nonnull private final ExecutingTest executingTest = new ExecutingTest();
-   @Nonnull private final FakeClasses fakeClasses = new FakeClasses();
+   @Nonnull
+   private static TestRun current() {
+      TestRun bound = boundInstance.get();
+      return bound == null ? INSTANCE : bound;
+   }
+
+   @Nonnull
+   private TestMethodState methodState() {
+      //noinspection ConstantConditions
+      return sharedMethodState != null ? sharedMethodState : methodStates.get();
+   }
 
    // Static "getters" for global state ///////////////////////////////////////////////////////////////////////////////////////////////////
 
    public static boolean isInsideNoMockingZone() { return noMockingCount.get() > 0; }
 
-   @Nullable public static Class<?> getCurrentTestClass() { return INSTANCE.currentTestClass; }
+   @Nullable public static Class<?> getCurrentTestClass() { return current().currentTestClass; }
 
-   @Nullable public static Object getCurrentTestInstance() { return INSTANCE.currentTestInstance; }
+   @Nullable public static Object getCurrentTestInstance() { return current().currentTestInstance; }
 
-   public static int getTestId() { return INSTANCE.testId; }
+   public static int getTestId() { return testId; }
 
    @Nullable
-   public static FieldTypeRedefinitions getFieldTypeRedefinitions() { return INSTANCE.fieldTypeRedefinitions; }
+   public static FieldTypeRedefinitions getFieldTypeRedefinitions() { return current().fieldTypeRedefinitions; }
 
    @Nullable
-   public static TestedClassInstantiations getTestedClassInstantiations() { return INSTANCE.testedClassInstantiations; }
+   public static TestedClassInstantiations getTestedClassInstantiations() { return current().testedClassInstantiations; }
 
-   @Nonnull public static MockFixture mockFixture() { return INSTANCE.mockFixture; }
+   @Nullable public static SavePoint getSavePointForTestClass() { return current().savePointForTestClass; }
+   @Nullable public static SavePoint getSavePointForTest() { return current().methodState().savePointForTest; }
 
-   @Nonnull public static ExecutingTest getExecutingTest() { return INSTANCE.executingTest; }
+   @Nonnull public static MockFixture mockFixture() { return mockFixture; }
+   @Nonnull static MockFixture.MockedClassSet getMockedClassSet() { return current().mockedClassSet; }
+
+   @Nonnull public static ExecutingTest getExecutingTest() { return current().methodState().executingTest; }
 
    @Nullable
-   public static RecordAndReplayExecution getRecordAndReplayForRunningTest() { return INSTANCE.executingTest.getCurrentRecordAndReplay(); }
+   public static RecordAndReplayExecution getRecordAndReplayForRunningTest() { return getExecutingTest().getCurrentRecordAndReplay(); }
 
    @Nonnull
    public static RecordAndReplayExecution getOrCreateRecordAndReplayForRunningTest() {
-      return INSTANCE.executingTest.getOrCreateRecordAndReplay();
+      return getExecutingTest().getOrCreateRecordAndReplay();
    }
 
    @Nonnull
    public static RecordAndReplayExecution getRecordAndReplayForVerifications() {
-      return INSTANCE.executingTest.getRecordAndReplayForVerifications();
+      return getExecutingTest().getRecordAndReplayForVerifications();
+   }
+
+   @Nonnull public static FakeClasses getFakeClasses() { return fakeClasses; }
+   @Nonnull public static FakeStates getFakeStates()   { return fakeClasses.fakeStates; }
+
+   // Thread-bound test state, for test runners which execute tests in parallel ///////////////////////////////////////////////////////////
+
+   /**
+    * Creates a new test state to be {@linkplain #bindToCurrentThread(TestRun) bound} to the worker threads which execute the tests of a
+    * given test class instance.
+    * Redefined classes and fakes are still shared by all states, but the set of classes considered to be mocked, current test class and
+    * instance, mock fields, tested fields and save-points are specific to each state, while the expectations being
+    * recorded/replayed/verified are specific to each worker thread.
+    */
+   @Nonnull public static TestRun newThreadBoundState() { return new TestRun(true); }
+
+   /**
+    * Binds the given test state to the current (worker) thread, or unbinds the current one if <tt>null</tt>.
+    * Other threads started while bound inherit the state, including the test method state of the worker thread.
+    */
+   public static void bindToCurrentThread(@Nullable TestRun state) {
+      if (state == null) {
+         boundInstance.remove();
+         return;
+      }
+
+      boundInstance.set(state);
+
+      //noinspection ConstantConditions
+      if (state.methodStates != null && state.methodStates.get().workerThread != Thread.currentThread()) {
+         // The worker thread itself was started from another worker thread, so it must not share its test method state.
+         state.methodStates.remove();
+      }
    }
 
-   @Nonnull public static FakeClasses getFakeClasses() { return INSTANCE.fakeClasses; }
-   @Nonnull public static FakeStates getFakeStates()   { return INSTANCE.fakeClasses.fakeStates; }
+   public static boolean isStateBoundToCurrentThread() { return boundInstance.get() != null; }
+
+   /**
+    * Returns the innermost save-point currently active in the current thread, provided a {@linkplain #newThreadBoundState() thread-bound
+    * state} is in effect; otherwise, returns <tt>null</tt>.
+    * Classes mocked or faked while the returned save-point is active are owned by it, and will only be restored by its rollback.
+    */
+   @Nullable
+   public static SavePoint getInnermostSavePoint() {
+      TestRun state = boundInstance.get();
+
+      if (state == null) {
+         return null;
+      }
+
+      SavePoint innermost = state.methodState().innermostSavePoint;
+      return innermost == null ? state.savePointForTestClass : innermost;
+   }
+
+   /**
+    * Removes and returns the save-points for tests which were left active by the worker threads of the current thread-bound state, so
+    * that they can be rolled back when the test class ends.
+    */
+   @Nonnull
+   public static List<SavePoint> removeSavePointsForTestsFromAllThreads() {
+      TestRun state = boundInstance.get();
+
+      if (state == null || state.allMethodStates == null) {
+         return Collections.emptyList();
+      }
+
+      List<SavePoint> savePoints = new ArrayList<>();
+
+      synchronized (state.allMethodStates) {
+         for (TestMethodState methodState : state.allMethodStates) {
+            SavePoint savePoint = methodState.savePointForTest;
+
+            if (savePoint != null) {
+               savePoints.add(savePoint);
+               methodState.savePointForTest = null;
+            }
+         }
+      }
+
+      return savePoints;
+   }
+
+   static void setInnermostSavePoint(@Nullable SavePoint savePoint) {
+      TestRun state = boundInstance.get();
+
+      if (state != null) {
+         state.methodState().innermostSavePoint = savePoint;
+      }
+   }
 
    // Static "mutators" for global state //////////////////////////////////////////////////////////////////////////////////////////////////
 
-   public static void setCurrentTestClass(@Nullable Class<?> testClass) { INSTANCE.currentTestClass = testClass; }
+   public static void setCurrentTestClass(@Nullable Class<?> testClass) { current().currentTestClass = testClass; }
+
+   public static void setSavePointForTestClass(@Nullable SavePoint savePoint) { current().savePointForTestClass = savePoint; }
+   public static void setSavePointForTest(@Nullable SavePoint savePoint) { current().methodState().savePointForTest = savePoint; }
 
    public static void prepareForNextTest() {
-      INSTANCE.testId++;
-      INSTANCE.executingTest.setRecordAndReplay(null);
+      testId++;
+      getExecutingTest().setRecordAndReplay(null);
    }
 
    public static void enterNoMockingZone() { noMockingCount.set(1); }
    public static void exitNoMockingZone()  { noMockingCount.set(-1); }
    public static void clearNoMockingZone() { noMockingCount.remove(); }
 
-   public static void clearCurrentTestInstance() { INSTANCE.currentTestInstance = null; }
+   public static void clearCurrentTestInstance() { current().currentTestInstance = null; }
 
-   public static void setRunningIndividualTest(@Nonnull Object testInstance) { INSTANCE.currentTestInstance = testInstance; }
+   public static void setRunningIndividualTest(@Nonnull Object testInstance) { current().currentTestInstance = testInstance; }
 
    public static void setFieldTypeRedefinitions(@Nullable FieldTypeRedefinitions redefinitions) {
-      INSTANCE.fieldTypeRedefinitions = redefinitions;
+      current().fieldTypeRedefinitions = redefinitions;
    }
 
    public static void setTestedClassInstantiations(@Nullable TestedClassInstantiations testedClassInstantiations) {
-      INSTANCE.testedClassInstantiations = testedClassInstantiations;
+      current().testedClassInstantiations = testedClassInstantiations;
    }
 
    public static void finishCurrentTestExecution() {
-      INSTANCE.executingTest.finishExecution();
+      getExecutingTest().finishExecution();
    }
 
    // Methods to be called only from generated bytecode or from the ClassLoadingBridge ////////////////////////////////////////////////////
 
    @SuppressWarnings({"StaticMethodOnlyUsedInOneClass", "SimplifiableIfStatement"})
-   public static boolean updateFakeState(@Nonnull String fakeClassDesc, int fakeStateIndex) {
-      Object fake = getFake(fakeClassDesc);
+   public static boolean updateFakeState(@Nonnegative int fakeClassId, int fakeStateIndex) {
+      Object fake = getFake(fakeClassId);
 
       if (fakeStateIndex < 0) {
          return true;
@@ -121,14 +272,15 @@ public final class TestRun
    }
 
    @Nonnull
-   public static Object getFake(@Nonnull String fakeClassDesc) {
-      return INSTANCE.fakeClasses.getFake(fakeClassDesc);
+   public static Object getFake(@Nonnegative int fakeClassId) {
+      return fakeClasses.getFake(fakeClassId);
    }
 
    // Other methods ///////////////////////////////////////////////////////////////////////////////////////////////////
 
    public static void ensureThatClassIsInitialized(@Nonnull Class<?> aClass) {
-      boolean previousFlag = INSTANCE.executingTest.setShouldIgnoreMockingCallbacks(true);
+      ExecutingTest executingTest = getExecutingTest();
+      boolean previousFlag = executingTest.setShouldIgnoreMockingCallbacks(true);
 
       try {
          Class.forName(aClass.getName(), true, aClass.getClassLoader());
@@ -139,7 +291,7 @@ public final class TestRun
          e.printStackTrace();
       }
       finally {
-         INSTANCE.executingTest.setShouldIgnoreMockingCallbacks(previousFlag);
+         executingTest.setShouldIgnoreMockingCallbacks(previousFlag);
       }
    }
 }
\ No newline at end of file
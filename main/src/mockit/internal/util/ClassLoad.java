@@ -8,6 +8,7 @@ import java.util.*;
 import java.util.concurrent.*;
 import javax.annotation.*;
 
+import mockit.internal.*;
 import mockit.internal.state.*;
 
 public final class ClassLoad
@@ -16,7 +17,6 @@ public final class ClassLoad
 
    private static final ClassLoader THIS_CL = ClassLoad.class.getClassLoader();
    private static final Map<String, Class<?>> LOADED_CLASSES = new ConcurrentHashMap<>();
-   private static final Map<String, String> SUPER_CLASSES = new ConcurrentHashMap<>();
 
    private ClassLoad() {}
 
@@ -131,21 +131,21 @@ public final class ClassLoad
    }
 
    public static void addSuperClass(@Nonnull String classInternalName, @Nonnull String superClassInternalName) {
-      SUPER_CLASSES.put(classInternalName.intern(), superClassInternalName.intern());
+      ClassMetadataIndex.addSuperClass(classInternalName, superClassInternalName);
    }
 
    @Nonnull
    public static String getSuperClass(@Nonnull String classInternalName) {
       String classDesc = classInternalName.intern();
-      String superName = SUPER_CLASSES.get(classDesc);
+      String superName = ClassMetadataIndex.findSuperClass(classDesc);
 
       if (superName == null) {
          Class<?> theClass = loadByInternalName(classDesc);
          Class<?> superClass = theClass.getSuperclass();
 
          if (superClass != null) {
-            superName = superClass.getName().replace('.', '/').intern();
-            SUPER_CLASSES.put(classDesc, superName);
+            superName = superClass.getName().replace('.', '/');
+            ClassMetadataIndex.addSuperClass(classDesc, superName);
          }
       }
 
@@ -4,18 +4,13 @@
  */
 package mockit.internal.util;
 
-import java.util.*;
 import javax.annotation.*;
 
-import mockit.asm.metadata.*;
-import mockit.asm.metadata.ClassMetadataReader.*;
 import mockit.internal.*;
 import mockit.internal.state.*;
 
 public final class ParameterNameExtractor
 {
-   private static final EnumSet<Attribute> PARAMETERS = EnumSet.of(Attribute.Parameters);
-
    private ParameterNameExtractor() {}
 
    @Nonnull
@@ -24,19 +19,8 @@ public final class ParameterNameExtractor
       String classDesc = className.replace('.', '/');
 
       if (!ParameterNames.hasNamesForClass(classDesc)) {
-         byte[] classfile = ClassFile.readBytesFromClassFile(classDesc);
-         ClassMetadataReader cmr = new ClassMetadataReader(classfile, PARAMETERS);
-         List<MethodInfo> methods = cmr.getMethods();
-
-         for (MethodInfo method : methods) {
-            if (!method.isSynthetic()) {
-               String[] parameters = method.parameters;
-
-               if (parameters != null) {
-                  ParameterNames.register(classDesc, method.name, method.desc, parameters);
-               }
-            }
-         }
+         ClassMetadataIndex.Metadata metadata = ClassMetadataIndex.getMetadata(classOfInterest);
+         ParameterNames.register(classDesc, metadata);
       }
 
       return classDesc;
@@ -327,4 +327,55 @@ public final class FullVerificationsTest
 
       new FullVerifications() {};
    }
+
+   public static class Processor {
+      public void process(@SuppressWarnings("unused") int value) {}
+      public void process(@SuppressWarnings("unused") String value) {}
+      public void process(@SuppressWarnings("unused") int value, @SuppressWarnings("unused") String text) {}
+      public int count() { return 0; }
+   }
+
+   static void processManyTimesThroughOverloads(Processor processor) {
+      for (int i = 0; i < 100; i++) {
+         processor.process(i);
+         processor.count();
+         processor.process("text" + i);
+         processor.process(i, "text");
+      }
+   }
+
+   @Test
+   public void verifyAllInvocationsToManyOverloadsOfTheSameMethod(@Mocked final Processor processor) {
+      new Expectations() {{ processor.count(); result = 1; }};
+
+      processManyTimesThroughOverloads(processor);
+
+      new Verifications() {{
+         processor.process(anyInt); times = 100;
+         processor.process(withPrefix("text")); times = 100;
+      }};
+
+      new FullVerifications() {{
+         processor.process(anyInt, "text"); times = 100;
+      }};
+   }
+
+   @Test
+   public void verifyAllInvocationsWithOneToAnOverloadLeftUnverified(@Mocked final Processor processor) {
+      processManyTimesThroughOverloads(processor);
+      processor.process(-1, "last");
+
+      new Verifications() {{
+         processor.process(anyInt); times = 100;
+         processor.process(anyString); times = 100;
+         processor.count(); times = 100;
+      }};
+
+      thrown.expect(UnexpectedInvocation.class);
+      thrown.expectMessage("\"last\"");
+
+      new FullVerifications() {{
+         processor.process(anyInt, "text"); times = 100;
+      }};
+   }
 }
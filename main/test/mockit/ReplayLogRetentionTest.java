@@ -0,0 +1,122 @@
+package mockit;
+
+import java.util.*;
+
+import org.junit.*;
+import org.junit.rules.*;
+import static org.junit.Assert.*;
+
+import mockit.internal.expectations.*;
+import mockit.internal.expectations.invocation.*;
+import mockit.internal.state.*;
+
+public final class ReplayLogRetentionTest
+{
+   @Rule public final ExpectedException thrown = ExpectedException.none();
+
+   public static class Sink { public void consume(Object value) {} }
+   public static class Collaborator { public int doSomething(int i) { return i; } public void close() {} }
+
+   @Mocked Sink sink;
+   @Mocked Collaborator collaborator;
+
+   @Before
+   public void onlyCountInvocationsToSink() {
+      TestRun.getExecutingTest().setReplayLogRetention(new ReplayLogRetention(Sink.class));
+   }
+
+   void consumeManyValues() {
+      for (int i = 0; i < 1000; i++) {
+         sink.consume(new Object());
+      }
+   }
+
+   @Test
+   public void checkInvocationCountOfRecordedExpectationOnCountOnlyType() {
+      new Expectations() {{ sink.consume(any); times = 1000; }};
+
+      consumeManyValues();
+   }
+
+   @Test
+   public void reportMissingInvocationsToRecordedExpectationOnCountOnlyType() {
+      new Expectations() {{ sink.consume(any); times = 1001; }};
+
+      consumeManyValues();
+
+      thrown.expect(MissingInvocation.class);
+   }
+
+   @Test
+   public void keepInvocationsToOtherMockedTypesOutOfTheReplayLog() {
+      new Expectations() {{ collaborator.doSomething(anyInt); result = 5; }};
+
+      consumeManyValues();
+      int result = collaborator.doSomething(1);
+      consumeManyValues();
+      collaborator.close();
+
+      assertEquals(5, result);
+
+      RecordAndReplayExecution execution = TestRun.getExecutingTest().getOrCreateRecordAndReplay();
+      Object replayPhase = Deencapsulation.getField(execution, "replayPhase");
+      List<?> invocations = Deencapsulation.getField(replayPhase, "invocations");
+      List<?> invocationArguments = Deencapsulation.getField(replayPhase, "invocationArguments");
+      assertEquals(2, invocations.size());
+      assertEquals(2, invocationArguments.size());
+   }
+
+   @Test
+   public void verifyInvocationsToOtherMockedTypes() {
+      consumeManyValues();
+      collaborator.doSomething(1);
+      consumeManyValues();
+      collaborator.doSomething(2);
+      collaborator.close();
+
+      new VerificationsInOrder() {{
+         collaborator.doSomething(1);
+         collaborator.doSomething(2);
+         collaborator.close();
+      }};
+
+      new Verifications() {{
+         collaborator.doSomething(anyInt); times = 2;
+         collaborator.close();
+      }};
+   }
+
+   @Test
+   public void failToVerifyInvocationsToCountOnlyType() {
+      consumeManyValues();
+      collaborator.close();
+
+      thrown.expect(IllegalStateException.class);
+      thrown.expectMessage("only counted");
+
+      new Verifications() {{
+         collaborator.close();
+         sink.consume(any);
+      }};
+   }
+
+   @Test
+   public void failToFullyVerifyInvocationsWhenSomeWereOnlyCounted() {
+      consumeManyValues();
+      collaborator.close();
+
+      thrown.expect(IllegalStateException.class);
+      thrown.expectMessage("only counted");
+
+      new FullVerifications() {{ collaborator.close(); }};
+   }
+
+   @Test
+   public void verifyInvocationsToCountOnlyTypeInTestWithDefaultRetention() {
+      TestRun.getExecutingTest().setReplayLogRetention(null);
+
+      sink.consume("value");
+
+      new FullVerifications() {{ sink.consume("value"); }};
+   }
+}
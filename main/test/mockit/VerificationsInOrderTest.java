@@ -309,4 +309,63 @@ public final class VerificationsInOrderTest
          mock.setSomething(4); times = 1;
       }};
    }
-}
\ No newline at end of file
+
+   @SuppressWarnings("unused")
+   public static class Processor {
+      public void process(int value) {}
+      public void process(String value) {}
+      public void process(int value, String text) {}
+      public int count() { return 0; }
+   }
+
+   static void processManyTimesThroughOverloads(Processor processor) {
+      for (int i = 0; i < 100; i++) {
+         processor.process(i);
+         processor.count();
+         processor.process("text" + i);
+         processor.process(i, "text");
+      }
+   }
+
+   @Test
+   public void verifyInOrderInvocationsFarApartInLongReplayLogWithRecordedExpectations(@Mocked final Processor processor) {
+      new Expectations() {{
+         processor.count(); result = 1;
+         processor.process(anyInt); minTimes = 100;
+         processor.process(anyString);
+      }};
+
+      processManyTimesThroughOverloads(processor);
+
+      new VerificationsInOrder() {{
+         processor.process(10);
+         processor.process(50, "text");
+         processor.process("text51");
+         processor.process(99);
+         processor.process(99, "text");
+      }};
+   }
+
+   @Test
+   public void verifyInOrderInvocationsCountedAcrossInvocationsToOtherMethods(@Mocked final Processor processor) {
+      processManyTimesThroughOverloads(processor);
+
+      new VerificationsInOrder() {{
+         processor.process(anyInt); times = 100;
+         processor.count();
+      }};
+   }
+
+   @Test
+   public void verifyOutOfOrderInvocationsInLongReplayLog(@Mocked final Processor processor) {
+      processManyTimesThroughOverloads(processor);
+
+      thrown.expect(MissingInvocation.class);
+      thrown.expectMessage("50");
+
+      new VerificationsInOrder() {{
+         processor.process(99, "text");
+         processor.process(50);
+      }};
+   }
+}
@@ -613,4 +613,37 @@ public final class WithCaptureTest
          assertEquals(integers2, captures.get(1));
       }};
    }
+
+   @Test
+   public void captureArgumentsIntoConsumerInVerificationBlock() {
+      dao.create("Mary Jane", 35);
+      dao.create("", 56);
+      dao.create(new Person("Jane", 20));
+      dao.create("Daisy Jones", 6);
+
+      new Verifications() {{
+         final int[] totalAgeAndCount = {0, 0};
+         dao.create(anyString, withCapture((Integer age) -> { totalAgeAndCount[0] += age; totalAgeAndCount[1]++; })); times = 3;
+         assertEquals(97, totalAgeAndCount[0]);
+         assertEquals(3, totalAgeAndCount[1]);
+
+         final StringBuilder names = new StringBuilder();
+         dao.create(withCapture((Person person) -> names.append(person.getName())));
+         assertEquals("Jane", names.toString());
+      }};
+   }
+
+   @Test
+   public void captureArgumentsIntoConsumerInExpectationBlock() {
+      final List<String> names = new ArrayList<>();
+
+      new Expectations() {{
+         dao.create(withCapture(names::add), anyInt);
+      }};
+
+      dao.create("John", 10);
+      dao.create("Mary", 20);
+
+      assertEquals(asList("John", "Mary"), names);
+   }
 }
@@ -0,0 +1,165 @@
+package mockit.internal;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+import org.junit.*;
+import org.junit.rules.*;
+import static org.junit.Assert.*;
+
+import mockit.asm.classes.*;
+
+public final class BytecodeCacheTest
+{
+   @Rule public final TemporaryFolder cacheDir = new TemporaryFolder();
+
+   public static class Collaborator { public int getValue() { return 1; } }
+   public static class ChangedCollaborator { public int getValue() { return 2; } }
+
+   static final class CacheableModifier extends BaseClassModifier {
+      private final String configuration;
+
+      CacheableModifier(ClassReader classReader, String configuration) {
+         super(classReader);
+         this.configuration = configuration;
+      }
+
+      @Override
+      public String getCacheKeyParameters() { return configuration; }
+   }
+
+   BytecodeCache cache;
+   ClassReader sourceReader;
+
+   @Before
+   public void createCache() {
+      cache = new BytecodeCache(cacheDir.getRoot(), 1024 * 1024);
+      sourceReader = new ClassReader(ClassFile.getClassFile(Collaborator.class));
+   }
+
+   String computeKey(ClassReader classReader, String configuration) {
+      String key = cache.computeEntryKey(Collaborator.class, classReader, new CacheableModifier(classReader, configuration));
+      assertNotNull(key);
+      return key;
+   }
+
+   @Test
+   public void readBackStoredEntry() {
+      String key = computeKey(sourceReader, "config");
+      byte[] modifiedClassfile = {1, 2, 3, 4};
+      cache.writeEntry(key, modifiedClassfile, Arrays.asList("a/B", "a/C"));
+
+      BytecodeCache.Entry entry = cache.readEntry(key);
+
+      assertNotNull(entry);
+      assertArrayEquals(modifiedClassfile, entry.modifiedClassfile);
+      assertEquals(Arrays.asList("a/B", "a/C"), entry.relatedClassNames);
+   }
+
+   @Test
+   public void readBackStoredEntryForClassWhichWasNotModified() {
+      String key = computeKey(sourceReader, "config");
+      cache.writeEntry(key, null, null);
+
+      BytecodeCache.Entry entry = cache.readEntry(key);
+
+      assertNotNull(entry);
+      assertNull(entry.modifiedClassfile);
+      assertNull(entry.relatedClassNames);
+   }
+
+   @Test
+   public void missEntryNeverStored() {
+      String key = computeKey(sourceReader, "config");
+
+      assertNull(cache.readEntry(key));
+   }
+
+   @Test
+   public void computeSameKeyForSameClassAndModifierConfiguration() {
+      String key1 = computeKey(sourceReader, "config");
+      String key2 = computeKey(new ClassReader(ClassFile.getClassFile(Collaborator.class)), "config");
+
+      assertEquals(key1, key2);
+   }
+
+   @Test
+   public void missEntryForDifferentModifierConfiguration() {
+      String key = computeKey(sourceReader, "config");
+      cache.writeEntry(key, new byte[] {1}, null);
+
+      String keyForOtherConfiguration = computeKey(sourceReader, "other config");
+
+      assertNotEquals(key, keyForOtherConfiguration);
+      assertNull(cache.readEntry(keyForOtherConfiguration));
+   }
+
+   @Test
+   public void missEntryAfterOriginalBytecodeChanges() {
+      String key = computeKey(sourceReader, "config");
+      cache.writeEntry(key, new byte[] {1}, null);
+
+      ClassReader changedSourceReader = new ClassReader(ClassFile.getClassFile(ChangedCollaborator.class));
+      String keyForChangedSource = computeKey(changedSourceReader, "config");
+
+      assertNotEquals(key, keyForChangedSource);
+      assertNull(cache.readEntry(keyForChangedSource));
+      assertNotNull(cache.readEntry(key));
+   }
+
+   @Test
+   public void computeNoKeyForModifierWhichDoesNotSupportCaching() {
+      String key = cache.computeEntryKey(Collaborator.class, sourceReader, new CacheableModifier(sourceReader, null));
+
+      assertNull(key);
+   }
+
+   @Test
+   public void ignoreTruncatedEntry() throws Exception {
+      String key = computeKey(sourceReader, "config");
+      cache.writeEntry(key, new byte[100], Collections.singletonList("a/B"));
+      Path entryFile = getEntryFile(key);
+      byte[] content = Files.readAllBytes(entryFile);
+
+      Files.write(entryFile, Arrays.copyOf(content, content.length / 2));
+
+      assertNull(cache.readEntry(key));
+   }
+
+   @Test
+   public void ignoreEmptyEntry() throws Exception {
+      String key = computeKey(sourceReader, "config");
+      Files.write(getEntryFile(key), new byte[0]);
+
+      assertNull(cache.readEntry(key));
+   }
+
+   @Test
+   public void ignoreEntryWithCorruptHeader() throws Exception {
+      String key = computeKey(sourceReader, "config");
+      cache.writeEntry(key, new byte[] {1, 2, 3}, null);
+      Path entryFile = getEntryFile(key);
+      byte[] content = Files.readAllBytes(entryFile);
+      content[0] ^= 0xFF;
+
+      Files.write(entryFile, content);
+
+      assertNull(cache.readEntry(key));
+   }
+
+   @Test
+   public void ignoreEntryWithCorruptLength() throws Exception {
+      String key = computeKey(sourceReader, "config");
+      cache.writeEntry(key, new byte[] {1, 2, 3}, null);
+      Path entryFile = getEntryFile(key);
+      byte[] content = Files.readAllBytes(entryFile);
+      content[8] = 0x7F; // the high byte of the class file length, which follows the header and the count of related classes
+
+      Files.write(entryFile, content);
+
+      assertNull(cache.readEntry(key));
+   }
+
+   Path getEntryFile(String key) { return new File(cacheDir.getRoot(), key + ".bytecode").toPath(); }
+}
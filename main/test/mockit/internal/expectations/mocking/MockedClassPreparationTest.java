@@ -0,0 +1,101 @@
+package mockit.internal.expectations.mocking;
+
+import java.util.*;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+import static org.junit.runners.MethodSorters.*;
+
+import mockit.*;
+import mockit.internal.expectations.*;
+import static mockit.internal.expectations.mocking.MockedClassPreparation.*;
+
+// Run with the "jmockit-prepareMocksInBackground" and "jmockit-parallelMockGeneration" system properties set.
+@FixMethodOrder(NAME_ASCENDING)
+public final class MockedClassPreparationTest
+{
+   public static class Dependency1 { public int doSomething() { return 1; } }
+   public static class Dependency2 { public int doSomething() { return 2; } }
+   public static class BaseDependency { public int doSomethingElse() { return 0; } }
+   public static class Dependency3 extends BaseDependency { public int doSomething() { return 3; } }
+   public static class Dependency4 { public int doSomething() { return 4; } }
+
+   public static final class UpcomingTestClass1 {
+      @Mocked Dependency1 mock1;
+      @Mocked Dependency2 mock2;
+   }
+
+   public static final class UpcomingTestClass2 {
+      @Test public void test(@Mocked Dependency2 mock) {}
+   }
+
+   public static final class LastUpcomingTestClass {
+      @Mocked Dependency4 mock;
+   }
+
+   @Before
+   public void requirePreparationToBeEnabled() {
+      assumeTrue(isEnabled() && isParallelGenerationEnabled());
+   }
+
+   // Classes get prepared on a single background thread, in order, so the preparation for an additional test class is the last to finish.
+   static void waitForPreparationOf(Class<?>... upcomingTestClasses) throws InterruptedException {
+      prepareMockedClasses(Arrays.asList(upcomingTestClasses));
+      prepareMockedClasses(Collections.<Class<?>>singletonList(LastUpcomingTestClass.class));
+
+      for (int i = 0; i < 1000 && !isPrepared(Dependency4.class, ExecutionMode.Regular); i++) {
+         Thread.sleep(10);
+      }
+
+      assertTrue(isPrepared(Dependency4.class, ExecutionMode.Regular));
+      discardClassesPreparedFor(LastUpcomingTestClass.class);
+   }
+
+   @Test
+   public void a_discardClassesPreparedForTestClassWhenItEnds() throws Exception {
+      waitForPreparationOf(UpcomingTestClass1.class);
+      assertTrue(isPrepared(Dependency1.class, ExecutionMode.Regular));
+      assertTrue(isPrepared(Dependency2.class, ExecutionMode.Regular));
+
+      discardClassesPreparedFor(UpcomingTestClass1.class);
+
+      assertFalse(isPrepared(Dependency1.class, ExecutionMode.Regular));
+      assertFalse(isPrepared(Dependency2.class, ExecutionMode.Regular));
+
+      // Also discards what was prepared in the background for this test class, so that later tests get their mocks prepared in parallel.
+      assertTrue(isPrepared(Dependency3.class, ExecutionMode.Regular));
+      discardClassesPreparedFor(MockedClassPreparationTest.class);
+      assertFalse(isPrepared(Dependency3.class, ExecutionMode.Regular));
+   }
+
+   @Test
+   public void b_keepPreparedClassWhichIsStillNeededByUpcomingTestClass() throws Exception {
+      waitForPreparationOf(UpcomingTestClass1.class, UpcomingTestClass2.class);
+
+      discardClassesPreparedFor(UpcomingTestClass1.class);
+
+      assertFalse(isPrepared(Dependency1.class, ExecutionMode.Regular));
+      assertTrue(isPrepared(Dependency2.class, ExecutionMode.Regular));
+
+      discardPreparedClass(Dependency2.class);
+      assertTrue(isPrepared(Dependency2.class, ExecutionMode.Regular));
+
+      discardClassesPreparedFor(UpcomingTestClass2.class);
+      assertFalse(isPrepared(Dependency2.class, ExecutionMode.Regular));
+   }
+
+   @Test
+   public void c_mockClassPreparedInParallelWithItsSuperclass(@Mocked Dependency3 mock) {
+      assertTrue(isPrepared(Dependency3.class, ExecutionMode.Regular));
+      assertTrue(isPrepared(BaseDependency.class, ExecutionMode.Regular));
+      assertEquals(0, new Dependency3().doSomething());
+   }
+
+   @Test
+   public void d_discardPreparedClassesOnceRestored() {
+      assertFalse(isPrepared(Dependency3.class, ExecutionMode.Regular));
+      assertFalse(isPrepared(BaseDependency.class, ExecutionMode.Regular));
+      assertEquals(3, new Dependency3().doSomething());
+   }
+}
@@ -0,0 +1,93 @@
+package mockit.internal.reflection;
+
+import java.io.*;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public final class MethodInvokerTest
+{
+   static final class Target {
+      int twice(int value) { return 2 * value; }
+      long widened(long value) { return value + 1; }
+      String describe(CharSequence text, boolean flag) { return text + ":" + flag; }
+      void fail() throws IOException { throw new IOException("checked"); }
+      static String concat(String a, String b) { return a + b; }
+   }
+
+   static MethodInvoker invokerFor(String methodName, Class<?>... parameterTypes) throws Exception {
+      return new MethodInvoker(Target.class.getDeclaredMethod(methodName, parameterTypes));
+   }
+
+   @Test
+   public void invokeInstanceAndStaticMethodsWithMatchingArguments() throws Exception {
+      assertEquals(6, (int) invokerFor("twice", int.class).invoke(new Target(), new Object[] {3}));
+      assertEquals("abc:true", invokerFor("describe", CharSequence.class, boolean.class).invoke(new Target(), new Object[] {"abc", true}));
+      assertEquals("ab", invokerFor("concat", String.class, String.class).invoke(null, new Object[] {"a", "b"}));
+   }
+
+   @Test
+   public void invokeMethodWithArgumentOfWrapperWhichWidensToPrimitiveParameter() throws Exception {
+      Long result = invokerFor("widened", long.class).invoke(new Target(), new Object[] {5});
+
+      assertEquals(6L, (long) result);
+   }
+
+   @Test
+   public void reportArgumentOfWrongWrapperTypeWithOriginalExceptionAsCause() throws Exception {
+      MethodInvoker invoker = invokerFor("twice", int.class);
+
+      try {
+         invoker.invoke(new Target(), new Object[] {5L});
+         fail();
+      }
+      catch (IllegalArgumentException e) {
+         assertTrue(e.getMessage().startsWith("Failure to invoke method: "));
+         assertTrue(e.getCause() instanceof IllegalArgumentException);
+      }
+   }
+
+   @Test
+   public void reportNullArgumentForPrimitiveParameterAndWrongArgumentCountWithCause() throws Exception {
+      MethodInvoker invoker = invokerFor("twice", int.class);
+
+      for (Object[] args : new Object[][] {{null}, {}, {1, 2}}) {
+         try {
+            invoker.invoke(new Target(), args);
+            fail();
+         }
+         catch (IllegalArgumentException e) {
+            assertNotNull(e.getCause());
+         }
+      }
+   }
+
+   @Test
+   public void reportArgumentOfWrongReferenceTypeWithCause() throws Exception {
+      MethodInvoker invoker = invokerFor("describe", CharSequence.class, boolean.class);
+
+      try {
+         invoker.invoke(new Target(), new Object[] {1, true});
+         fail();
+      }
+      catch (IllegalArgumentException e) {
+         assertTrue(e.getCause() instanceof IllegalArgumentException);
+      }
+   }
+
+   @Test
+   public void rethrowCheckedExceptionThrownByInvokedMethod() throws Exception {
+      MethodInvoker invoker = invokerFor("fail");
+
+      try {
+         invoker.invokeWithCheckedThrows(new Target(), new Object[0]);
+         fail();
+      }
+      catch (IOException e) {
+         assertEquals("checked", e.getMessage());
+      }
+      catch (Throwable t) {
+         fail("Unexpected: " + t);
+      }
+   }
+}
@@ -0,0 +1,41 @@
+package mockit.internal.startup;
+
+import java.net.*;
+import java.util.*;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public final class LoadedClassIndexTest
+{
+   public static final class LoadedLater {}
+
+   @Test
+   public void findClassLoadedAfterTheIndexWasSeeded() {
+      assertNotNull(Startup.getClassIfLoaded(LoadedClassIndexTest.class.getName()));
+
+      Class<?> loadedLater = LoadedLater.class;
+
+      assertSame(loadedLater, Startup.getClassIfLoaded(loadedLater.getName()));
+      assertSame(loadedLater, Startup.getClassIfLoaded(loadedLater.getName().replace('.', '/')));
+   }
+
+   @Test
+   public void findNoClassForNameOfClassNotLoaded() {
+      assertNull(Startup.getClassIfLoaded(LoadedClassIndexTest.class.getName() + "$NoSuchClass"));
+      assertTrue(Startup.getClassesIfLoaded("com.example.NoSuchClass").isEmpty());
+   }
+
+   @Test
+   public void findEachClassOfTheSameNameDefinedByDifferentLoaders() throws Exception {
+      URL classpathEntry = LoadedLater.class.getProtectionDomain().getCodeSource().getLocation();
+      ClassLoader isolatedLoader = new URLClassLoader(new URL[] {classpathEntry}, null);
+      Class<?> otherCopy = Class.forName(LoadedLater.class.getName(), false, isolatedLoader);
+
+      List<Class<?>> loadedClasses = Startup.getClassesIfLoaded(LoadedLater.class.getName());
+
+      assertEquals(2, loadedClasses.size());
+      assertTrue(loadedClasses.contains(LoadedLater.class));
+      assertTrue(loadedClasses.contains(otherCopy));
+   }
+}
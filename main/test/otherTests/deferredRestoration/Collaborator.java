@@ -0,0 +1,12 @@
+package otherTests.deferredRestoration;
+
+public final class Collaborator
+{
+   private final int value;
+
+   public Collaborator() { value = -1; }
+   public Collaborator(int value) { this.value = value; }
+
+   public int getValue() { return value; }
+   public static String doStatic() { return "real"; }
+}
@@ -0,0 +1,23 @@
+package otherTests.deferredRestoration;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import mockit.*;
+
+// Run with the "jmockit-deferredRestoration" system property set, before the other test classes in this package.
+public final class DeferredRestoration1Test
+{
+   @Mocked Collaborator mock;
+
+   @Test
+   public void mockClassWhoseRestorationGetsDeferred() {
+      new Expectations() {{
+         mock.getValue(); result = 123;
+         Collaborator.doStatic(); result = "mocked";
+      }};
+
+      assertEquals(123, new Collaborator(5).getValue());
+      assertEquals("mocked", Collaborator.doStatic());
+   }
+}
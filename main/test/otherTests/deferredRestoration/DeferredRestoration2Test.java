@@ -0,0 +1,15 @@
+package otherTests.deferredRestoration;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+// Runs after a test class which mocked the same class, which is to be restored before any test here executes.
+public final class DeferredRestoration2Test
+{
+   @Test
+   public void useRealImplementationOfClassMockedByPreviousTestClass() {
+      assertEquals(-1, new Collaborator().getValue());
+      assertEquals(5, new Collaborator(5).getValue());
+      assertEquals("real", Collaborator.doStatic());
+   }
+}
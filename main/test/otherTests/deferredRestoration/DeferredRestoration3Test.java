@@ -0,0 +1,20 @@
+package otherTests.deferredRestoration;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import mockit.*;
+
+// Mocks again a class which was mocked by an earlier test class, and restored in between.
+public final class DeferredRestoration3Test
+{
+   @Mocked Collaborator mock;
+
+   @Test
+   public void mockClassAgainAfterItWasRestored() {
+      new Expectations() {{ mock.getValue(); result = 45; }};
+
+      assertEquals(45, new Collaborator().getValue());
+      assertNull(Collaborator.doStatic());
+   }
+}
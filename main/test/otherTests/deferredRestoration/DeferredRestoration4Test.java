@@ -0,0 +1,20 @@
+package otherTests.deferredRestoration;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import mockit.*;
+
+// Runs right after a test class which mocked the same class in the same way, so that its mocked definition gets reused.
+public final class DeferredRestoration4Test
+{
+   @Mocked Collaborator mock;
+
+   @Test
+   public void mockClassStillDefinedAsMockedByPreviousTestClass() {
+      new Expectations() {{ Collaborator.doStatic(); result = "mocked again"; }};
+
+      assertEquals(0, new Collaborator(7).getValue());
+      assertEquals("mocked again", Collaborator.doStatic());
+   }
+}
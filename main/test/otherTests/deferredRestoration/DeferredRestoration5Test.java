@@ -0,0 +1,14 @@
+package otherTests.deferredRestoration;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+// Runs after a test class whose mocked class had its restoration deferred, having no mocks of its own.
+public final class DeferredRestoration5Test
+{
+   @Test
+   public void useRealImplementationOfClassMockedByPreviousTestClasses() {
+      assertEquals(-1, new Collaborator().getValue());
+      assertEquals("real", Collaborator.doStatic());
+   }
+}
@@ -0,0 +1,138 @@
+package otherTests.testng;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.testng.Assert.*;
+import org.testng.*;
+import org.testng.annotations.*;
+import org.testng.xml.*;
+
+import mockit.*;
+
+// Runs test classes which mock different types in parallel, with TestNG in "classes" parallel mode.
+public final class ParallelTestClassesTest
+{
+   public static class Collaborator1 { public int getValue() { return -1; } }
+   public static class Collaborator2 { public String getName() { return "real"; } }
+   public static class Collaborator3 { public int getValue() { return -3; } }
+
+   public static class TestClassMockingFirstType {
+      @Mocked Collaborator1 mock;
+
+      @Test(invocationCount = 5)
+      public void recordAndVerifyExpectations() {
+         new Expectations() {{ mock.getValue(); result = 1; }};
+
+         assertEquals(new Collaborator1().getValue(), 1);
+
+         new Verifications() {{ mock.getValue(); times = 1; }};
+      }
+   }
+
+   public static class TestClassMockingSecondType {
+      @Mocked Collaborator2 mock;
+
+      @Test(invocationCount = 5)
+      public void recordAndVerifyExpectations() {
+         new Expectations() {{ mock.getName(); result = "mocked"; }};
+
+         assertEquals(new Collaborator2().getName(), "mocked");
+
+         new Verifications() {{ mock.getName(); times = 1; }};
+      }
+   }
+
+   public static class TestClassMockingThirdType {
+      @Injectable Collaborator3 mock;
+
+      @Test(invocationCount = 5)
+      public void recordExpectationOnInjectableInstance() {
+         new Expectations() {{ mock.getValue(); result = 3; }};
+
+         assertEquals(mock.getValue(), 3);
+      }
+   }
+
+   public static class Collaborator4 { public int getValue() { return -4; } }
+
+   // Set only while the two test classes below run in parallel, since they also get executed on their own.
+   static volatile CountDownLatch mockedByFirstTestClass;
+   static volatile CountDownLatch usedByOtherTestClass;
+
+   public static class TestClassMockingTypeUsedByAnother {
+      @Mocked Collaborator4 mock;
+
+      @Test
+      public void keepTypeMockedWhileAnotherTestClassUsesIt() throws Exception {
+         new Expectations() {{ mock.getValue(); result = 4; }};
+
+         if (mockedByFirstTestClass != null) {
+            mockedByFirstTestClass.countDown();
+            assertTrue(usedByOtherTestClass.await(10, TimeUnit.SECONDS));
+         }
+
+         assertEquals(new Collaborator4().getValue(), 4);
+      }
+   }
+
+   public static class TestClassUsingTypeMockedByAnother {
+      @Test
+      public void useRealImplementationOfTypeMockedByParallelTestClass() throws Exception {
+         if (mockedByFirstTestClass == null) {
+            assertEquals(new Collaborator4().getValue(), -4);
+            return;
+         }
+
+         try {
+            assertTrue(mockedByFirstTestClass.await(10, TimeUnit.SECONDS));
+            assertEquals(new Collaborator4().getValue(), -4);
+         }
+         finally {
+            usedByOtherTestClass.countDown();
+         }
+      }
+   }
+
+   @Test
+   public void runTestClassesInParallel() {
+      TestNG testNG = new TestNG(false);
+      testNG.setTestClasses(new Class<?>[] {
+         TestClassMockingFirstType.class, TestClassMockingSecondType.class, TestClassMockingThirdType.class});
+      testNG.setParallel(XmlSuite.ParallelMode.CLASSES);
+      testNG.setThreadCount(3);
+
+      TestListenerAdapter results = new TestListenerAdapter();
+      testNG.addListener((ITestNGListener) results);
+      testNG.run();
+
+      List<ITestResult> failures = results.getFailedTests();
+      assertTrue(failures.isEmpty(), failures.isEmpty() ? "" : String.valueOf(failures.get(0).getThrowable()));
+      assertEquals(results.getPassedTests().size(), 15);
+      assertEquals(new Collaborator1().getValue(), -1);
+      assertEquals(new Collaborator2().getName(), "real");
+      assertEquals(new Collaborator3().getValue(), -3);
+   }
+
+   @Test
+   public void classMockedByOneTestClassIsNotMockedForAnotherRunningInParallel() {
+      mockedByFirstTestClass = new CountDownLatch(1);
+      usedByOtherTestClass = new CountDownLatch(1);
+
+      TestNG testNG = new TestNG(false);
+      testNG.setTestClasses(new Class<?>[] {TestClassMockingTypeUsedByAnother.class, TestClassUsingTypeMockedByAnother.class});
+      testNG.setParallel(XmlSuite.ParallelMode.CLASSES);
+      testNG.setThreadCount(2);
+
+      TestListenerAdapter results = new TestListenerAdapter();
+      testNG.addListener((ITestNGListener) results);
+
+      try { testNG.run(); }
+      finally { mockedByFirstTestClass = usedByOtherTestClass = null; }
+
+      List<ITestResult> failures = results.getFailedTests();
+      assertTrue(failures.isEmpty(), failures.isEmpty() ? "" : String.valueOf(failures.get(0).getThrowable()));
+      assertEquals(results.getPassedTests().size(), 2);
+      assertEquals(new Collaborator4().getValue(), -4);
+   }
+}